@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import java.time.LocalDateTime;
@@ -23,7 +24,9 @@ import lombok.NoArgsConstructor;
 public class NotificationEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_entity_seq")
+  @SequenceGenerator(name = "notification_entity_seq",
+      sequenceName = "notification_entity_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, name = "receipient_email")
@@ -0,0 +1,39 @@
+package com.bookfair.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Registers the outbox entity and repository alongside the application's own, and the publisher
+ * and relay beans. Has to run before the JPA auto-configuration picks up the entity packages.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class,
+    JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage
+@ConditionalOnClass(RabbitTemplate.class)
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxAutoConfiguration {
+
+  @Bean
+  public OutboxPublisher outboxPublisher(OutboxEventRepository outboxEventRepository,
+      ObjectMapper objectMapper) {
+    return new OutboxPublisher(outboxEventRepository, objectMapper);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "outbox.relay-enabled", matchIfMissing = true)
+  public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+      RabbitTemplate rabbitTemplate, PlatformTransactionManager transactionManager,
+      OutboxProperties properties) {
+    return new OutboxRelay(outboxEventRepository, rabbitTemplate, transactionManager, properties);
+  }
+}
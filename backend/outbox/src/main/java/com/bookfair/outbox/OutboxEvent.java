@@ -0,0 +1,70 @@
+package com.bookfair.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A message waiting to be published. Rows are written in the transaction of the business change
+ * and relayed to RabbitMQ in id order by {@link OutboxRelay}.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_pending", columnList = "published_at, next_attempt_at, id"),
+    @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_type, aggregate_id, id")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+  @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false)
+  private String aggregateType;
+
+  @Column(nullable = false)
+  private String aggregateId;
+
+  @Column(nullable = false)
+  private String exchange;
+
+  @Column(nullable = false)
+  private String routingKey;
+
+  @Column(nullable = false)
+  private String payloadType;
+
+  @Column(nullable = false, columnDefinition = "text")
+  private String payload;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Column(nullable = false)
+  private Instant nextAttemptAt;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column
+  private Instant publishedAt;
+
+  @Column(length = 1000)
+  private String lastError;
+}
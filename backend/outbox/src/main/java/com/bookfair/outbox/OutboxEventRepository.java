@@ -0,0 +1,43 @@
+package com.bookfair.outbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  // Transaction-scoped advisory lock, so only one relay in the cluster publishes at a time.
+  @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryRelayLock(@Param("key") long key);
+
+  // Due events in id order. An event is skipped while an earlier event of the same aggregate is
+  // still waiting for a retry, which keeps per-aggregate ordering across failures.
+  @Query(value = """
+      select e.* from outbox_events e
+      where e.published_at is null
+        and e.next_attempt_at <= :now
+        and not exists (
+          select 1 from outbox_events p
+          where p.aggregate_type = e.aggregate_type
+            and p.aggregate_id = e.aggregate_id
+            and p.published_at is null
+            and p.id < e.id
+            and p.next_attempt_at > :now)
+      order by e.id
+      limit :limit
+      """, nativeQuery = true)
+  List<OutboxEvent> findDue(@Param("now") Instant now, @Param("limit") int limit);
+
+  @Modifying
+  @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+  int markPublished(@Param("ids") Collection<Long> ids,
+      @Param("publishedAt") Instant publishedAt);
+
+  @Modifying
+  @Query("delete from OutboxEvent e where e.publishedAt < :before")
+  int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,27 @@
+package com.bookfair.outbox;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Relay settings, bound from {@code outbox.*}. Set {@code outbox.relay-enabled=false} to run an
+ * instance without the relay.
+ *
+ * @param relayInterval  pause between relay runs when the outbox is drained
+ * @param batchSize      events published per transaction
+ * @param confirmTimeout how long to wait for broker confirms of a batch
+ * @param initialBackoff delay before the first retry of a failed batch, doubled per attempt
+ * @param maxBackoff     upper bound of the retry delay
+ * @param retention      how long published events are kept before they are purged
+ */
+@ConfigurationProperties("outbox")
+public record OutboxProperties(
+    @DefaultValue("500ms") Duration relayInterval,
+    @DefaultValue("100") int batchSize,
+    @DefaultValue("5s") Duration confirmTimeout,
+    @DefaultValue("1s") Duration initialBackoff,
+    @DefaultValue("5m") Duration maxBackoff,
+    @DefaultValue("3d") Duration retention) {
+
+}
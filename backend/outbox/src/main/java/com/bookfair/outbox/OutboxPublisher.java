@@ -0,0 +1,48 @@
+package com.bookfair.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records messages in the outbox table. Must be called inside the transaction of the business
+ * change, so the message is stored if and only if that change commits.
+ */
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Queues {@code payload} for publishing to {@code exchange} with {@code routingKey}. Messages
+   * with the same aggregate type and id are delivered in the order they were recorded.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void publish(String aggregateType, Object aggregateId, String exchange,
+      String routingKey, Object payload) {
+    Instant now = Instant.now();
+    outboxEventRepository.save(OutboxEvent.builder()
+        .aggregateType(aggregateType)
+        .aggregateId(String.valueOf(aggregateId))
+        .exchange(exchange)
+        .routingKey(routingKey)
+        .payloadType(payload.getClass().getName())
+        .payload(toJson(payload))
+        .createdAt(now)
+        .nextAttemptAt(now)
+        .build());
+  }
+
+  private String toJson(Object payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(
+          "Cannot serialize outbox payload " + payload.getClass().getName(), e);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.bookfair.outbox;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes outbox events to RabbitMQ. Each run takes a cluster-wide advisory lock, sends a batch
+ * of due events in id order on one channel and waits for the broker confirms before marking the
+ * batch published. A failed batch is retried with exponential backoff; delivery is at least
+ * once, so consumers must tolerate duplicates.
+ */
+@Slf4j
+public class OutboxRelay {
+
+  private static final long RELAY_LOCK_KEY = 0x626f6f6b6f7574L;
+  private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+  private static final String TYPE_ID_HEADER = "__TypeId__";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final RabbitTemplate rabbitTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxProperties properties;
+  private ScheduledExecutorService executor;
+  private Instant nextPurgeAt = Instant.now();
+
+  public OutboxRelay(OutboxEventRepository outboxEventRepository, RabbitTemplate rabbitTemplate,
+      PlatformTransactionManager transactionManager, OutboxProperties properties) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.rabbitTemplate = rabbitTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("outbox-relay").daemon().factory());
+    long interval = properties.relayInterval().toMillis();
+    executor.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    log.info("Outbox relay started");
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void drain() {
+    try {
+      // Keep going while full batches come back, so a backlog is not throttled by the interval
+      while (relayBatch() == properties.batchSize()) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+      }
+    } catch (Exception e) {
+      log.error("Outbox relay run failed", e);
+    }
+  }
+
+  private int relayBatch() {
+    Integer published = transactionTemplate.execute(status -> {
+      if (!outboxEventRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+        return 0;
+      }
+      Instant now = Instant.now();
+      List<OutboxEvent> due = outboxEventRepository.findDue(now, properties.batchSize());
+      if (due.isEmpty()) {
+        purgePublished(now);
+        return 0;
+      }
+      try {
+        send(due);
+      } catch (Exception e) {
+        scheduleRetry(due, e);
+        return 0;
+      }
+      outboxEventRepository.markPublished(due.stream().map(OutboxEvent::getId).toList(),
+          Instant.now());
+      return due.size();
+    });
+    return published != null ? published : 0;
+  }
+
+  private void send(List<OutboxEvent> events) {
+    rabbitTemplate.invoke(operations -> {
+      for (OutboxEvent event : events) {
+        operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+      }
+      operations.waitForConfirmsOrDie(properties.confirmTimeout().toMillis());
+      return null;
+    });
+  }
+
+  private Message toMessage(OutboxEvent event) {
+    return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+        .setContentEncoding(StandardCharsets.UTF_8.name())
+        .setMessageId("outbox-" + event.getId())
+        .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+        .setHeader(TYPE_ID_HEADER, event.getPayloadType())
+        .build();
+  }
+
+  // The whole batch is retried so later events never overtake a failed one of the same aggregate
+  private void scheduleRetry(List<OutboxEvent> events, Exception error) {
+    Instant now = Instant.now();
+    String message = String.valueOf(error.getMessage());
+    for (OutboxEvent event : events) {
+      int attempts = event.getAttempts() + 1;
+      event.setAttempts(attempts);
+      event.setNextAttemptAt(now.plus(backoff(attempts)));
+      event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+    }
+    log.warn("Failed to publish {} outbox events starting at id {}, will retry: {}",
+        events.size(), events.get(0).getId(), message);
+  }
+
+  private Duration backoff(int attempts) {
+    Duration delay = properties.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : delay;
+  }
+
+  private void purgePublished(Instant now) {
+    if (now.isBefore(nextPurgeAt)) {
+      return;
+    }
+    nextPurgeAt = now.plus(PURGE_INTERVAL);
+    int purged = outboxEventRepository.deletePublishedBefore(now.minus(properties.retention()));
+    if (purged > 0) {
+      log.info("Purged {} published outbox events", purged);
+    }
+  }
+}
@@ -1,11 +1,16 @@
 package com.bookfair.stall_service;
 
+import com.bookfair.stall_service.configuration.ReservationTokenProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@EnableConfigurationProperties(ReservationTokenProperties.class)
 public class StallServiceApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,60 @@
+package com.bookfair.stall_service.cache;
+
+import com.bookfair.stall_service.configuration.RabbitMQConfig;
+import com.bookfair.stall_service.dto.event.AvailabilityChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the other stall-service replicas that the availability of a fair changed, so they drop
+ * their snapshot of it and reload it on next read. Messages are sent from a background thread
+ * and changes to a fair that is already waiting to be sent are coalesced. A message lost while
+ * the broker is down is covered by the snapshot max age.
+ */
+@Component
+@Slf4j
+public class AvailabilityBroadcaster {
+
+  public static final String ROUTING_KEY = "availability.changed";
+
+  @Getter
+  private final String instanceId = UUID.randomUUID().toString();
+  private final RabbitTemplate rabbitTemplate;
+  private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+  private final ExecutorService sender = Executors.newSingleThreadExecutor(
+      Thread.ofPlatform().name("availability-broadcast").daemon().factory());
+
+  public AvailabilityBroadcaster(RabbitTemplate rabbitTemplate) {
+    this.rabbitTemplate = rabbitTemplate;
+  }
+
+  public void fairChanged(Long bookFairId) {
+    if (pending.add(bookFairId)) {
+      sender.execute(() -> send(bookFairId));
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    sender.shutdownNow();
+  }
+
+  private void send(Long bookFairId) {
+    pending.remove(bookFairId);
+    try {
+      rabbitTemplate.convertAndSend(RabbitMQConfig.AVAILABILITY_EXCHANGE, ROUTING_KEY,
+          new AvailabilityChangedEvent(bookFairId, instanceId));
+    } catch (AmqpException e) {
+      log.warn("Could not broadcast the availability change of book fair {}", bookFairId, e);
+    }
+  }
+}
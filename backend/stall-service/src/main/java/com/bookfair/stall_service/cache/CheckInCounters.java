@@ -0,0 +1,57 @@
+package com.bookfair.stall_service.cache;
+
+import com.bookfair.stall_service.enums.CheckInStatus;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live per-fair scan counters. {@link LongAdder}s keep concurrent gate scans from contending on
+ * a single counter; the values cover the time since service start.
+ */
+@Component
+public class CheckInCounters {
+
+  private final ConcurrentHashMap<Long, FairCounters> fairs = new ConcurrentHashMap<>();
+
+  public void record(Long bookFairId, CheckInStatus status) {
+    if (bookFairId == null) {
+      return;
+    }
+    FairCounters counters = fairs.computeIfAbsent(bookFairId, id -> new FairCounters());
+    counters.scans.increment();
+    switch (status) {
+      case CHECKED_IN -> counters.checkIns.increment();
+      case ALREADY_CHECKED_IN -> counters.duplicates.increment();
+      default -> counters.rejected.increment();
+    }
+  }
+
+  public long scans(Long bookFairId) {
+    FairCounters counters = fairs.get(bookFairId);
+    return counters != null ? counters.scans.sum() : 0;
+  }
+
+  public long checkIns(Long bookFairId) {
+    FairCounters counters = fairs.get(bookFairId);
+    return counters != null ? counters.checkIns.sum() : 0;
+  }
+
+  public long duplicates(Long bookFairId) {
+    FairCounters counters = fairs.get(bookFairId);
+    return counters != null ? counters.duplicates.sum() : 0;
+  }
+
+  public long rejected(Long bookFairId) {
+    FairCounters counters = fairs.get(bookFairId);
+    return counters != null ? counters.rejected.sum() : 0;
+  }
+
+  private static final class FairCounters {
+
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder checkIns = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+  }
+}
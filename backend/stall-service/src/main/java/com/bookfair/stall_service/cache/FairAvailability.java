@@ -0,0 +1,495 @@
+package com.bookfair.stall_service.cache;
+
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.projection.HallStallRow;
+import com.bookfair.stall_service.dto.response.ContiguousBlockResponse;
+import com.bookfair.stall_service.dto.response.FloorPlanResponse;
+import com.bookfair.stall_service.dto.response.HallStallResponse;
+import com.bookfair.stall_service.dto.response.StallAllocationResponse;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.layout.HallGeometry;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Availability of one book fair kept as primitive arrays. Every hall stall of the fair owns one
+ * slot (in hall and slot index order) and the allocation placed on it, if any, is stored in the
+ * same slot of the allocation columns. Hall stalls without a stored row are listed under their
+ * virtual id until an allocation materialises them.
+ */
+public final class FairAvailability {
+
+  private static final byte UNALLOCATED = -1;
+  private static final StallAllocationStatus[] STATUSES = StallAllocationStatus.values();
+
+  private final Long bookFairId;
+  private final long loadedAtNanos = System.nanoTime();
+  private final List<HallGeometry> halls;
+  // Bumped on every change, so the content hash is only recomputed after one
+  private long changes;
+  private volatile ContentHash contentHash;
+
+  private final long[] hallStallIds;
+  private final long[] hallIds;
+  private final Hall[] hallNames;
+  private final String[] stallNames;
+  // Slot of the stall physically next to each slot in its row or ring, -1 when there is none
+  private final int[] nextInLane;
+
+  private final long[] allocationIds;
+  private final long[] stallIds;
+  private final long[] prices;
+  private final Size[] stallSizes;
+  private final byte[] statuses;
+  private final Long[] bookingUserIds;
+  private final String[] reservationTokens;
+  private final Map<Long, Integer> slotByHallStallId = new HashMap<>();
+  private final Map<Long, Integer> slotByAllocationId = new HashMap<>();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  FairAvailability(Long bookFairId, List<HallGeometry> halls, List<HallStallRow> hallStalls,
+      List<AllocationRow> allocations) {
+    this.bookFairId = bookFairId;
+    this.halls = List.copyOf(halls);
+
+    int size = hallStalls.size();
+
+    hallStallIds = new long[size];
+    hallIds = new long[size];
+    hallNames = new Hall[size];
+    stallNames = new String[size];
+    nextInLane = new int[size];
+    allocationIds = new long[size];
+    stallIds = new long[size];
+    prices = new long[size];
+    stallSizes = new Size[size];
+    statuses = new byte[size];
+    bookingUserIds = new Long[size];
+    reservationTokens = new String[size];
+    Arrays.fill(statuses, UNALLOCATED);
+
+    for (int i = 0; i < size; i++) {
+      HallStallRow row = hallStalls.get(i);
+      hallStallIds[i] = row.hallStallId();
+      slotByHallStallId.put(row.hallStallId(), i);
+      hallIds[i] = row.hallId();
+      hallNames[i] = row.hallName();
+      stallNames[i] = row.stallName();
+    }
+    linkLanes(hallStalls);
+    for (AllocationRow row : allocations) {
+      put(row);
+    }
+  }
+
+  public Long getBookFairId() {
+    return bookFairId;
+  }
+
+  boolean isOlderThan(long seconds) {
+    return System.nanoTime() - loadedAtNanos > TimeUnit.SECONDS.toNanos(seconds);
+  }
+
+  /**
+   * Hash of everything the floor plan shows, so every replica and every reload of an unchanged
+   * fair reports the same version.
+   */
+  public String version() {
+    lock.readLock().lock();
+    try {
+      ContentHash hash = contentHash;
+      if (hash == null || hash.changes() != changes) {
+        hash = new ContentHash(changes, hashContent());
+        contentHash = hash;
+      }
+      return hash.value();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public FloorPlanResponse floorPlan() {
+    lock.readLock().lock();
+    try {
+      Map<Long, FloorPlanResponse.FloorPlanHall> plans = new LinkedHashMap<>();
+      for (HallGeometry hall : halls) {
+        plans.put(hall.hallId(), FloorPlanResponse.FloorPlanHall.builder()
+            .hallId(hall.hallId())
+            .hallName(hall.hall())
+            .row(hall.rows())
+            .column(hall.columns())
+            .innerRing(hall.innerRing())
+            .outerRing(hall.outerRing())
+            .hallStallIds(new ArrayList<>())
+            .stallNames(new ArrayList<>())
+            .statuses(new ArrayList<>())
+            .prices(new ArrayList<>())
+            .stallIds(new ArrayList<>())
+            .build());
+      }
+      for (int i = 0; i < hallStallIds.length; i++) {
+        FloorPlanResponse.FloorPlanHall plan = plans.get(hallIds[i]);
+        if (plan == null) {
+          continue;
+        }
+        boolean allocated = statuses[i] != UNALLOCATED;
+        plan.getHallStallIds().add(hallStallIds[i]);
+        plan.getStallNames().add(stallNames[i]);
+        plan.getStatuses().add(allocated ? STATUSES[statuses[i]] : null);
+        plan.getPrices().add(allocated ? prices[i] : null);
+        plan.getStallIds().add(allocated ? stallIds[i] : null);
+      }
+      return FloorPlanResponse.builder()
+          .bookFairId(bookFairId)
+          .version(version())
+          .halls(List.copyOf(plans.values()))
+          .build();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Up to {@code limit} runs of {@code count} adjacent stalls that are all open for reservation,
+   * in hall and slot order. Runs may overlap, so a client can offer every possible block.
+   */
+  public List<ContiguousBlockResponse> contiguousBlocks(int count, Size size, Long maxPrice,
+      int limit) {
+    lock.readLock().lock();
+    try {
+      List<ContiguousBlockResponse> blocks = new ArrayList<>();
+      for (int start = 0; start < hallStallIds.length && blocks.size() < limit; start++) {
+        int[] run = run(start, count, size, maxPrice);
+        if (run != null) {
+          blocks.add(block(run));
+        }
+      }
+      return blocks;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public boolean hasAllocations() {
+    lock.readLock().lock();
+    try {
+      return !slotByAllocationId.isEmpty();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Allocations of the fair in the given status, or all allocations when status is null.
+   */
+  public List<StallAllocationResponse> allocations(StallAllocationStatus status) {
+    lock.readLock().lock();
+    try {
+      List<StallAllocationResponse> responses = new ArrayList<>();
+      for (int i = 0; i < statuses.length; i++) {
+        if (statuses[i] == UNALLOCATED
+            || (status != null && statuses[i] != status.ordinal())) {
+          continue;
+        }
+        responses.add(StallAllocationResponse.builder()
+            .id(allocationIds[i])
+            .bookFairId(bookFairId)
+            .hallStallID(hallStallIds[i])
+            .stallId(stallIds[i])
+            .price(prices[i])
+            .stallAllocationStatus(STATUSES[statuses[i]])
+            .userId(bookingUserIds[i])
+            .reservationToken(reservationTokens[i])
+            .build());
+      }
+      return responses;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long countByStatus(StallAllocationStatus status) {
+    lock.readLock().lock();
+    try {
+      long count = 0;
+      for (byte value : statuses) {
+        if (value == status.ordinal()) {
+          count++;
+        }
+      }
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Reservation tokens of the fair that can be presented at the gate, mapped to true while at
+   * least one of their stalls is still waiting for check-in.
+   */
+  public Map<String, Boolean> gateTokens() {
+    lock.readLock().lock();
+    try {
+      Map<String, Boolean> tokens = new HashMap<>();
+      for (int i = 0; i < statuses.length; i++) {
+        if (reservationTokens[i] == null) {
+          continue;
+        }
+        boolean approved = statuses[i] == StallAllocationStatus.APPROVED.ordinal();
+        if (approved || statuses[i] == StallAllocationStatus.COMPLETED.ordinal()) {
+          tokens.merge(reservationTokens[i], approved, Boolean::logicalOr);
+        }
+      }
+      return tokens;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<HallStallResponse> hallStalls() {
+    lock.readLock().lock();
+    try {
+      List<HallStallResponse> responses = new ArrayList<>(hallStallIds.length);
+      for (int i = 0; i < hallStallIds.length; i++) {
+        responses.add(HallStallResponse.builder()
+            .id(hallStallIds[i])
+            .bookFairId(bookFairId)
+            .stallName(stallNames[i])
+            .hallId(hallIds[i])
+            .hallName(hallNames[i])
+            .build());
+      }
+      return responses;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ids of the named hall stalls, stored or virtual. Unknown names are left out.
+   */
+  public Map<String, Long> hallStallIds(Collection<String> names) {
+    Set<String> wanted = new HashSet<>(names);
+    lock.readLock().lock();
+    try {
+      Map<String, Long> ids = new HashMap<>();
+      for (int i = 0; i < stallNames.length; i++) {
+        if (wanted.contains(stallNames[i])) {
+          ids.put(stallNames[i], hallStallIds[i]);
+        }
+      }
+      return ids;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Moves slots from their virtual id to the id of the hall stall row stored for them.
+   */
+  void materialized(Map<Long, Long> storedIdByVirtualId) {
+    lock.writeLock().lock();
+    try {
+      changes++;
+      storedIdByVirtualId.forEach((virtualId, storedId) -> {
+        Integer slot = slotByHallStallId.remove(virtualId);
+        if (slot != null) {
+          slotByHallStallId.put(storedId, slot);
+          hallStallIds[slot] = storedId;
+        }
+      });
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Stores the allocation in the slot of its hall stall. Returns false when the hall stall is not
+   * part of this snapshot, in which case the snapshot is stale and has to be reloaded.
+   */
+  boolean upsert(Collection<AllocationRow> rows) {
+    lock.writeLock().lock();
+    try {
+      changes++;
+      for (AllocationRow row : rows) {
+        if (!put(row)) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(Long allocationId) {
+    lock.writeLock().lock();
+    try {
+      changes++;
+      Integer slot = slotByAllocationId.remove(allocationId);
+      if (slot != null) {
+        clear(slot);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private boolean put(AllocationRow row) {
+    Integer found = slotByHallStallId.get(row.hallStallId());
+    if (found == null) {
+      return false;
+    }
+    int slot = found;
+    Integer previous = slotByAllocationId.put(row.id(), slot);
+    if (previous != null && previous != slot) {
+      clear(previous);
+    }
+    allocationIds[slot] = row.id();
+    stallIds[slot] = row.stallId();
+    prices[slot] = row.price();
+    stallSizes[slot] = row.stallSize();
+    statuses[slot] = (byte) row.status().ordinal();
+    bookingUserIds[slot] = row.bookingUserId();
+    reservationTokens[slot] = row.reservationToken();
+    return true;
+  }
+
+  private void linkLanes(List<HallStallRow> hallStalls) {
+    Map<Long, HallGeometry> geometries = new HashMap<>();
+    for (HallGeometry hall : halls) {
+      geometries.put(hall.hallId(), hall);
+    }
+    Map<Long, Integer> slotByPosition = new HashMap<>();
+    for (int i = 0; i < hallStalls.size(); i++) {
+      Integer slotIndex = hallStalls.get(i).slotIndex();
+      if (slotIndex != null) {
+        slotByPosition.put(HallGeometry.virtualId(hallIds[i], slotIndex), i);
+      }
+    }
+    Arrays.fill(nextInLane, -1);
+    for (int i = 0; i < hallStalls.size(); i++) {
+      Integer slotIndex = hallStalls.get(i).slotIndex();
+      HallGeometry geometry = geometries.get(hallIds[i]);
+      if (slotIndex == null || geometry == null || slotIndex >= geometry.size()) {
+        continue;
+      }
+      int next = geometry.nextInLane(slotIndex);
+      if (next >= 0) {
+        nextInLane[i] = slotByPosition.getOrDefault(geometry.virtualId(next), -1);
+      }
+    }
+  }
+
+  private boolean isOpen(int slot, Size size, Long maxPrice) {
+    return statuses[slot] == StallAllocationStatus.PENDING.ordinal()
+        && (size == null || stallSizes[slot] == size)
+        && (maxPrice == null || prices[slot] <= maxPrice);
+  }
+
+  // Slots of the run starting at start, or null when the lane ends or a stall is not open first
+  private int[] run(int start, int count, Size size, Long maxPrice) {
+    int[] run = new int[count];
+    int slot = start;
+    for (int i = 0; i < count; i++) {
+      if (slot < 0 || (i > 0 && slot == start) || !isOpen(slot, size, maxPrice)) {
+        return null;
+      }
+      run[i] = slot;
+      slot = nextInLane[slot];
+    }
+    return run;
+  }
+
+  private ContiguousBlockResponse block(int[] run) {
+    List<ContiguousBlockResponse.BlockStall> stalls = new ArrayList<>(run.length);
+    long totalPrice = 0;
+    for (int slot : run) {
+      stalls.add(ContiguousBlockResponse.BlockStall.builder()
+          .stallAllocationId(allocationIds[slot])
+          .hallStallId(hallStallIds[slot])
+          .hallStallName(stallNames[slot])
+          .stallId(stallIds[slot])
+          .stallSize(stallSizes[slot])
+          .price(prices[slot])
+          .build());
+      totalPrice += prices[slot];
+    }
+    return ContiguousBlockResponse.builder()
+        .hallId(hallIds[run[0]])
+        .hallName(hallNames[run[0]])
+        .totalPrice(totalPrice)
+        .stalls(stalls)
+        .build();
+  }
+
+  private String hashContent() {
+    MessageDigest digest = sha256Digest();
+    try (DataOutputStream out = new DataOutputStream(
+        new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      out.writeLong(bookFairId);
+      for (HallGeometry hall : halls) {
+        out.writeLong(hall.hallId());
+        out.writeUTF(hall.hall().name());
+        out.writeInt(hall.rows());
+        out.writeInt(hall.columns());
+        out.writeInt(hall.innerRing());
+        out.writeInt(hall.outerRing());
+      }
+      for (int i = 0; i < hallStallIds.length; i++) {
+        out.writeLong(hallStallIds[i]);
+        out.writeLong(hallIds[i]);
+        out.writeUTF(stallNames[i]);
+        out.writeByte(statuses[i]);
+        if (statuses[i] != UNALLOCATED) {
+          out.writeLong(prices[i]);
+          out.writeLong(stallIds[i]);
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return HexFormat.of().formatHex(digest.digest(), 0, 8);
+  }
+
+  private static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void clear(int slot) {
+    allocationIds[slot] = 0;
+    stallIds[slot] = 0;
+    prices[slot] = 0;
+    stallSizes[slot] = null;
+    statuses[slot] = UNALLOCATED;
+    bookingUserIds[slot] = null;
+    reservationTokens[slot] = null;
+  }
+
+  private record ContentHash(long changes, String value) {
+
+  }
+}
@@ -0,0 +1,142 @@
+package com.bookfair.stall_service.cache;
+
+import com.bookfair.stall_service.entity.IdempotencyKeyEntity;
+import com.bookfair.stall_service.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Replays responses of POST requests sent with an {@code Idempotency-Key} header. The first
+ * request with a key runs and its successful response is kept for {@code idempotency.ttl-seconds};
+ * duplicates get that response back, and duplicates arriving while it is still running wait for
+ * it instead of running again. Failed requests are not kept, so the client can retry them.
+ *
+ * <p>Keys live in the {@code idempotency_keys} table, so a duplicate is recognised whichever
+ * replica it reaches. The key is claimed in the same transaction as the request's own writes: it
+ * only becomes visible once they commit, and disappears with them when they roll back.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+  public static final String HEADER = "Idempotency-Key";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final long ttlSeconds;
+  private final long waitSeconds;
+
+  public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+      ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+      @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+      @Value("${idempotency.wait-seconds:30}") long waitSeconds) {
+    this.idempotencyKeyRepository = idempotencyKeyRepository;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ttlSeconds = ttlSeconds;
+    this.waitSeconds = waitSeconds;
+  }
+
+  /**
+   * Runs {@code action} once per {@code scope} and key, in a transaction the action's own
+   * transactional calls join. {@code request} is compared with the request that first used the
+   * key, so a key cannot be reused for a different request. Replayed responses are read back as
+   * {@code type}.
+   */
+  public <T> T execute(String scope, String key, Object request, TypeReference<T> type,
+      Supplier<T> action) {
+    if (key == null || key.isBlank()) {
+      return action.get();
+    }
+    if (key.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(
+          HEADER + " must not be longer than " + MAX_KEY_LENGTH + " characters");
+    }
+
+    String storeKey = scope + ":" + key;
+    String requestHash = hash(request);
+    try {
+      return transactionTemplate.execute(status -> {
+        if (claim(storeKey, requestHash)) {
+          T response = action.get();
+          idempotencyKeyRepository.complete(storeKey, write(response));
+          return response;
+        }
+        IdempotencyKeyEntity claimed = idempotencyKeyRepository.findById(storeKey)
+            .orElseThrow();
+        if (!claimed.getRequestHash().equals(requestHash)) {
+          throw new IllegalArgumentException(
+              HEADER + " was already used for a different request");
+        }
+        log.info("Replaying response for {} {}", HEADER, storeKey);
+        return read(claimed.getResponse(), type);
+      });
+    } catch (PessimisticLockingFailureException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT,
+          "A request with this " + HEADER + " is still being processed");
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    Integer purged = transactionTemplate.execute(status ->
+        idempotencyKeyRepository.deleteExpired(Instant.now()));
+    if (purged != null && purged > 0) {
+      log.info("Purged {} expired idempotency keys", purged);
+    }
+  }
+
+  // Only the claim waits for a duplicate in flight; the action runs with the usual lock timeout
+  private boolean claim(String storeKey, String requestHash) {
+    String lockTimeout = idempotencyKeyRepository.findLockTimeout();
+    // lock_timeout 0 means no limit, so never go below 1ms
+    idempotencyKeyRepository.setLockTimeout(Math.max(waitSeconds * 1000, 1) + "ms");
+    Instant now = Instant.now();
+    int claimed = idempotencyKeyRepository.claim(storeKey, requestHash,
+        now.plusSeconds(ttlSeconds), now);
+    idempotencyKeyRepository.setLockTimeout(lockTimeout);
+    return claimed == 1;
+  }
+
+  private String hash(Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String write(Object response) {
+    try {
+      return objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private <T> T read(String response, TypeReference<T> type) {
+    try {
+      return objectMapper.readValue(response, type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
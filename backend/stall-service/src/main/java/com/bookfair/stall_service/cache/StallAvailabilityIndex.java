@@ -0,0 +1,177 @@
+package com.bookfair.stall_service.cache;
+
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.entity.HallEntity;
+import com.bookfair.stall_service.entity.HallStallEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.layout.HallGeometry;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.repository.HallRepository;
+import com.bookfair.stall_service.repository.HallStallRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory stall availability per book fair. Reads are answered from {@link FairAvailability}
+ * snapshots; the allocation, reservation and hall write paths report the allocations they
+ * changed here, and only those rows are re-read so snapshots stay current without reloading the
+ * whole fair. Every change is also broadcast to
+ * the other replicas, which drop their snapshot of the fair; snapshots older than
+ * {@code stall-availability.max-age-seconds} are reloaded in case such a message was lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StallAvailabilityIndex {
+
+  private final BookFairRepository bookFairRepository;
+  private final HallRepository hallRepository;
+  private final HallStallRepository hallStallRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final AvailabilityBroadcaster availabilityBroadcaster;
+
+  @Value("${stall-availability.max-age-seconds:300}")
+  private long maxAgeSeconds;
+
+  private final ConcurrentHashMap<Long, FairAvailability> fairs = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    fairs.clear();
+    List<Long> bookFairIds = bookFairRepository.findAllIds();
+    for (Long bookFairId : bookFairIds) {
+      fairs.computeIfAbsent(bookFairId, this::load);
+    }
+    log.info("Stall availability index built for {} book fairs", bookFairIds.size());
+  }
+
+  /**
+   * Snapshot of the fair, loaded on first use. Empty when the book fair does not exist.
+   */
+  public Optional<FairAvailability> find(Long bookFairId) {
+    FairAvailability fair = fairs.get(bookFairId);
+    if (fair != null && !fair.isOlderThan(maxAgeSeconds)) {
+      return Optional.of(fair);
+    }
+    if (fair == null && !bookFairRepository.existsById(bookFairId)) {
+      return Optional.empty();
+    }
+    return Optional.of(fairs.compute(bookFairId, (id, current) ->
+        current == null || current.isOlderThan(maxAgeSeconds) ? load(id) : current));
+  }
+
+  public void allocationsSaved(Long bookFairId, Collection<StallAllocationEntity> allocations) {
+    Map<Long, Long> materialized = new HashMap<>();
+    for (StallAllocationEntity allocation : allocations) {
+      HallStallEntity hallStall = allocation.getHallStall();
+      if (hallStall.getSlotIndex() != null) {
+        materialized.put(HallGeometry.virtualId(hallStall.getHallEntity().getId(),
+            hallStall.getSlotIndex()), hallStall.getId());
+      }
+    }
+    List<Long> ids = allocations.stream()
+        .map(StallAllocationEntity::getId)
+        .toList();
+    changed(bookFairId, () -> fairs.computeIfPresent(bookFairId, (id, fair) -> {
+      fair.materialized(materialized);
+      return refresh(fair, ids);
+    }));
+  }
+
+  /**
+   * Re-reads the given allocations of the fair once the transaction commits, so callbacks of
+   * concurrent transactions may run in any order: each applies what is committed by then.
+   * Allocations that no longer exist are removed.
+   */
+  public void allocationsChanged(Long bookFairId, Collection<Long> allocationIds) {
+    List<Long> ids = List.copyOf(allocationIds);
+    changed(bookFairId, () -> fairs.computeIfPresent(bookFairId,
+        (id, fair) -> refresh(fair, ids)));
+  }
+
+  /**
+   * Same as {@link #allocationsChanged(Long, Collection)} for rows of any fairs. Only their ids
+   * are used; the values are re-read after commit.
+   */
+  public void allocationsChanged(Collection<AllocationRow> rows) {
+    rows.stream()
+        .collect(Collectors.groupingBy(AllocationRow::bookFairId,
+            Collectors.mapping(AllocationRow::id, Collectors.toList())))
+        .forEach(this::allocationsChanged);
+  }
+
+  /**
+   * Drops the snapshot of the fair, e.g. after its halls changed. It is reloaded on next read.
+   */
+  public void evict(Long bookFairId) {
+    changed(bookFairId, () -> fairs.remove(bookFairId));
+  }
+
+  /**
+   * Drops this instance's snapshot of the fair straight away, without telling other replicas.
+   * Used when another replica reports a change.
+   */
+  public void drop(Long bookFairId) {
+    fairs.remove(bookFairId);
+  }
+
+  private FairAvailability load(Long bookFairId) {
+    List<HallEntity> halls = hallRepository.findByBookFairId(bookFairId);
+    return new FairAvailability(bookFairId,
+        halls.stream()
+            .map(HallGeometry::of)
+            .sorted(Comparator.comparing(HallGeometry::hallId))
+            .toList(),
+        HallGeometry.expand(bookFairId, halls,
+            hallStallRepository.findRowsByBookFairId(bookFairId)),
+        stallAllocationRepository.findRowsByBookFairId(bookFairId));
+  }
+
+  // Runs inside compute, so re-reads of one fair apply in the order they read
+  private FairAvailability refresh(FairAvailability fair, List<Long> allocationIds) {
+    List<AllocationRow> rows = stallAllocationRepository.findRowsByIdIn(allocationIds);
+    Set<Long> found = rows.stream()
+        .map(AllocationRow::id)
+        .collect(Collectors.toSet());
+    allocationIds.stream()
+        .filter(allocationId -> !found.contains(allocationId))
+        .forEach(fair::remove);
+    return fair.upsert(rows) ? fair : null;
+  }
+
+  private void changed(Long bookFairId, Runnable action) {
+    afterCommit(() -> {
+      action.run();
+      availabilityBroadcaster.fairChanged(bookFairId);
+    });
+  }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,55 @@
+package com.bookfair.stall_service.client;
+
+import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.dto.response.UserServiceResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache in front of {@link UserServiceClient}. Entries expire after
+ * {@code user-cache.ttl-seconds} and are evicted straight away when user-service publishes a
+ * change for the user, so a disabled account stops passing validation within seconds.
+ */
+@Component
+@Slf4j
+public class UserLookupCache {
+
+  private final UserServiceClient userServiceClient;
+  private final Cache<Long, UserServiceRequest> users;
+
+  public UserLookupCache(UserServiceClient userServiceClient, MeterRegistry meterRegistry,
+      @Value("${user-cache.ttl-seconds:30}") long ttlSeconds,
+      @Value("${user-cache.max-size:10000}") long maxSize) {
+    this.userServiceClient = userServiceClient;
+    this.users = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, users, "user-service.users");
+  }
+
+  /**
+   * The user from cache or user-service, or null when user-service does not know the user.
+   * Lookups that fail or return nothing are not cached.
+   */
+  public UserServiceRequest getUser(Long userId) {
+    return users.get(userId, this::load);
+  }
+
+  public void evict(Long userId) {
+    users.invalidate(userId);
+  }
+
+  private UserServiceRequest load(Long userId) {
+    log.info("Fetching user with ID: {} from user-service", userId);
+    UserServiceResponse<UserServiceRequest> response = userServiceClient.getUserById(userId);
+    return response != null ? response.getData() : null;
+  }
+}
@@ -1,6 +1,13 @@
 package com.bookfair.stall_service.configuration;
 
+import com.bookfair.stall_service.cache.AvailabilityBroadcaster;
+import java.util.Arrays;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -11,12 +18,60 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
 
   public static final String RESERVATION_EMAIL_QUEUE = "reservation.email.queue";
+  public static final String USER_EXCHANGE = "user.exchange";
+  public static final String BOOK_FAIR_EXCHANGE = "bookfair.exchange";
+  public static final String AVAILABILITY_EXCHANGE = "stall.availability.exchange";
+  public static final String[] USER_CHANGED_ROUTING_KEYS = {
+      "user.updated", "user.enabled", "user.disabled", "user.deleted"
+  };
 
   @Bean
   public Queue reservationEmailQueue() {
     return new Queue(RESERVATION_EMAIL_QUEUE, true);
   }
 
+  @Bean
+  public TopicExchange userExchange() {
+    return new TopicExchange(USER_EXCHANGE);
+  }
+
+  @Bean
+  public TopicExchange bookFairExchange() {
+    return new TopicExchange(BOOK_FAIR_EXCHANGE);
+  }
+
+  // Each instance needs every user change to evict its own cache, so it gets a private
+  // auto-delete queue instead of competing on a shared one.
+  @Bean
+  public Queue userChangedQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  public Declarables userChangedBindings(Queue userChangedQueue, TopicExchange userExchange) {
+    return new Declarables(Arrays.stream(USER_CHANGED_ROUTING_KEYS)
+        .map(routingKey -> BindingBuilder.bind(userChangedQueue).to(userExchange).with(routingKey))
+        .toList());
+  }
+
+  @Bean
+  public TopicExchange availabilityExchange() {
+    return new TopicExchange(AVAILABILITY_EXCHANGE);
+  }
+
+  // Like user changes, every replica has to see every availability change
+  @Bean
+  public Queue availabilityChangedQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  public Binding availabilityChangedBinding(Queue availabilityChangedQueue,
+      TopicExchange availabilityExchange) {
+    return BindingBuilder.bind(availabilityChangedQueue).to(availabilityExchange)
+        .with(AvailabilityBroadcaster.ROUTING_KEY);
+  }
+
   @Bean
   public Jackson2JsonMessageConverter messageConverter() {
     return new Jackson2JsonMessageConverter();
@@ -0,0 +1,15 @@
+package com.bookfair.stall_service.configuration;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Signing keys for reservation tokens, bound from {@code reservation-token.*}. New tokens are
+ * signed with {@code active-key-id}; every key in {@code keys} is still accepted, so a key is
+ * rotated by adding a new one, switching the active id, and removing the old key once the
+ * tokens signed with it are no longer needed.
+ */
+@ConfigurationProperties("reservation-token")
+public record ReservationTokenProperties(String activeKeyId, Map<String, String> keys) {
+
+}
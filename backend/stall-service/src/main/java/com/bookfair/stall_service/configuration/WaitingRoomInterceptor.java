@@ -0,0 +1,61 @@
+package com.bookfair.stall_service.configuration;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.response.WaitingRoomTicketResponse;
+import com.bookfair.stall_service.enums.RequestStatus;
+import com.bookfair.stall_service.service.ReservationWaitingRoom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomInterceptor implements HandlerInterceptor {
+
+  public static final String TICKET_HEADER = "X-Waiting-Room-Ticket";
+  private static final String ADMITTED_ATTRIBUTE = WaitingRoomInterceptor.class.getName() + ".admitted";
+
+  private final ReservationWaitingRoom waitingRoom;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) throws Exception {
+    if (!waitingRoom.isEnabled() || !HttpMethod.POST.matches(request.getMethod())) {
+      return true;
+    }
+    WaitingRoomTicketResponse ticket = waitingRoom.enter(request.getHeader(TICKET_HEADER));
+    if (ticket == null) {
+      request.setAttribute(ADMITTED_ATTRIBUTE, Boolean.TRUE);
+      return true;
+    }
+
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ticket.getRetryAfterSeconds()));
+    response.setHeader(TICKET_HEADER, ticket.getTicketId());
+    objectMapper.writeValue(response.getOutputStream(), new ContentResponse<>(
+        "WaitingRoom",
+        "Reservations are busy, you are number " + ticket.getPosition() + " in the queue",
+        RequestStatus.FAILURE.getStatus(),
+        "429",
+        ticket
+    ));
+    return false;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+      waitingRoom.leave();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.bookfair.stall_service.configuration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final WaitingRoomInterceptor waitingRoomInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(waitingRoomInterceptor)
+        .addPathPatterns("/api/stall-reservation", "/api/stall-reservation/hold/**");
+  }
+}
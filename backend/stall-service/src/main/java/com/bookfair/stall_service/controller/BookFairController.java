@@ -2,6 +2,7 @@ package com.bookfair.stall_service.controller;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateBookFairRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateBookFairRequest;
 import com.bookfair.stall_service.dto.response.BookFairResponse;
 import com.bookfair.stall_service.enums.BookFairStatus;
@@ -12,11 +13,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -38,8 +41,10 @@ public class BookFairController {
   }
 
   @GetMapping("/getAll")
-  public ResponseEntity<ContentResponse<List<BookFairResponse>>> getAllBookFairs() {
-    return ResponseEntity.ok(bookFairService.getAll());
+  public ResponseEntity<ContentResponse<List<BookFairResponse>>> getAllBookFairs(
+      @RequestParam(required = false) BookFairStatus status,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    return ResponseEntity.ok(bookFairService.getAll(status, page));
   }
 
   @PutMapping("/{id}")
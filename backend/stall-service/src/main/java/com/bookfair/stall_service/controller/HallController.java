@@ -2,21 +2,32 @@ package com.bookfair.stall_service.controller;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.HallLayoutRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.response.HallLayoutResponse;
 import com.bookfair.stall_service.dto.response.HallResponse;
 import com.bookfair.stall_service.dto.response.HallSizeResponse;
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.service.BulkImportService;
 import com.bookfair.stall_service.service.HallService;
+import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequiredArgsConstructor
@@ -24,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class HallController {
 
   private final HallService hallService;
+  private final BulkImportService bulkImportService;
 
   @PostMapping
   public ResponseEntity<ContentResponse<HallResponse>> createHall(
@@ -32,9 +44,19 @@ public class HallController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<ContentResponse<ImportReportResponse>> importHalls(
+      @RequestParam("file") MultipartFile file) {
+    return ResponseEntity.ok(bulkImportService.importHalls(file));
+  }
+
   @GetMapping
-  public ResponseEntity<ContentResponse<List<HallResponse>>> getAllHalls() {
-    ContentResponse<List<HallResponse>> response = hallService.getAllHalls();
+  public ResponseEntity<ContentResponse<List<HallResponse>>> getAllHalls(
+      @RequestParam(required = false) Long bookFairId,
+      @RequestParam(required = false) Hall hallName,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    ContentResponse<List<HallResponse>> response = hallService.getAllHalls(bookFairId, hallName,
+        page);
     return ResponseEntity.ok(response);
   }
 
@@ -44,6 +66,13 @@ public class HallController {
     return ResponseEntity.ok(response);
   }
 
+  @PutMapping("/{id}/layout")
+  public ResponseEntity<ContentResponse<HallLayoutResponse>> relayoutHall(
+      @PathVariable Long id,
+      @RequestBody HallLayoutRequest request) {
+    return ResponseEntity.ok(hallService.relayoutHall(id, request));
+  }
+
   @PutMapping("updateHall/{id}")
   public ResponseEntity<ContentResponse<HallResponse>> updateHall(
       @PathVariable Long id,
@@ -1,14 +1,17 @@
 package com.bookfair.stall_service.controller;
 
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.response.FloorPlanResponse;
 import com.bookfair.stall_service.dto.response.HallStallResponse;
 import com.bookfair.stall_service.service.HallStallService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,4 +24,16 @@ public class HallStallController {
   public List<HallStallResponse> getHallStallsByBookFairId(@PathVariable Long bookFairId) {
     return hallStallService.getHallStallsByBookFairId(bookFairId);
   }
+
+  // Clients send the version they hold as If-None-Match and get 304 while the fair is unchanged
+  @GetMapping("/floorPlan/{bookFairId}")
+  public ResponseEntity<ContentResponse<FloorPlanResponse>> getFloorPlan(
+      @PathVariable Long bookFairId, WebRequest webRequest) {
+    ContentResponse<FloorPlanResponse> plan = hallStallService.getFloorPlan(bookFairId);
+    String etag = "\"" + plan.getData().getVersion() + "\"";
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(plan);
+  }
 }
@@ -1,26 +1,47 @@
 package com.bookfair.stall_service.controller;
 
+import com.bookfair.stall_service.cache.IdempotencyStore;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.AutoAllocationRequest;
 import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
 import com.bookfair.stall_service.dto.request.CreateStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.request.RepricingRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallAllocationPrice;
+import com.bookfair.stall_service.dto.response.AutoAllocationResponse;
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
+import com.bookfair.stall_service.dto.response.RepricingResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.ExportFormat;
+import com.bookfair.stall_service.enums.Size;
 import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.service.AllocationExportService;
+import com.bookfair.stall_service.service.BulkImportService;
 import com.bookfair.stall_service.service.StallAllocationService;
+import com.bookfair.stall_service.service.StallAutoAllocationService;
+import com.bookfair.stall_service.service.StallPricingService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/stall-allocations")
@@ -28,6 +49,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class StallAllocationController {
 
   private final StallAllocationService stallAllocationService;
+  private final StallAutoAllocationService stallAutoAllocationService;
+  private final StallPricingService stallPricingService;
+  private final AllocationExportService allocationExportService;
+  private final BulkImportService bulkImportService;
+  private final IdempotencyStore idempotencyStore;
 
   @PostMapping
   public ResponseEntity<ContentResponse<StallAllocationResponse>> createStallAllocation(
@@ -37,8 +63,43 @@ public class StallAllocationController {
 
   @PostMapping("/multipleStallAllocations")
   public ResponseEntity<ContentResponse<List<StallAllocationResponse>>> createMultipleStallAllocation(
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
       @Valid @RequestBody CreateMultipleStallAllocationRequest request) {
-    return ResponseEntity.ok(stallAllocationService.createMultipleStallAllocation(request));
+    return ResponseEntity.ok(idempotencyStore.execute("multiple-stall-allocations",
+        idempotencyKey, request, new TypeReference<>() {},
+        () -> stallAllocationService.createMultipleStallAllocation(request)));
+  }
+
+  @PostMapping("/auto")
+  public ResponseEntity<ContentResponse<AutoAllocationResponse>> autoAllocate(
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+      @Valid @RequestBody AutoAllocationRequest request) {
+    return ResponseEntity.ok(idempotencyStore.execute("auto-allocations", idempotencyKey,
+        request, new TypeReference<>() {}, () -> stallAutoAllocationService.autoAllocate(request)));
+  }
+
+  @PostMapping("/repricing")
+  public ResponseEntity<ContentResponse<RepricingResponse>> reprice(
+      @Valid @RequestBody RepricingRequest request) {
+    return ResponseEntity.ok(stallPricingService.reprice(request));
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<ContentResponse<ImportReportResponse>> importAllocations(
+      @RequestParam("file") MultipartFile file) {
+    return ResponseEntity.ok(bulkImportService.importAllocations(file));
+  }
+
+  @GetMapping("/export/{bookFairId}")
+  public ResponseEntity<StreamingResponseBody> exportAllocations(@PathVariable Long bookFairId,
+      @RequestParam(required = false) StallAllocationStatus status,
+      @RequestParam(defaultValue = "CSV") ExportFormat format) {
+    String filename = "book-fair-" + bookFairId + "-allocations." + format.getExtension();
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(format.getContentType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString())
+        .body(allocationExportService.exportAllocations(bookFairId, status, format));
   }
 
   @GetMapping("/{id}")
@@ -48,8 +109,13 @@ public class StallAllocationController {
   }
 
   @GetMapping("/getAll")
-  public ResponseEntity<ContentResponse<List<StallAllocationResponse>>> getAllStallAllocations() {
-    return ResponseEntity.ok(stallAllocationService.getAllStallAllocation());
+  public ResponseEntity<ContentResponse<List<StallAllocationResponse>>> getAllStallAllocations(
+      @RequestParam(required = false) Long bookFairId,
+      @RequestParam(required = false) Long hallId,
+      @RequestParam(required = false) StallAllocationStatus status,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    return ResponseEntity.ok(
+        stallAllocationService.getAllStallAllocation(bookFairId, hallId, status, page));
   }
 
   @DeleteMapping
@@ -78,8 +144,11 @@ public class StallAllocationController {
 
   @GetMapping("/availableStalls/{bookFairId}")
   public ResponseEntity<ContentResponse<List<StallEntity>>> getAvailableStallsByBookFairId(
-      @PathVariable Long bookFairId) {
-    return ResponseEntity.ok(stallAllocationService.getAvailableStallsByBookFairId(bookFairId));
+      @PathVariable Long bookFairId,
+      @RequestParam(required = false) Size size,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    return ResponseEntity.ok(
+        stallAllocationService.getAvailableStallsByBookFairId(bookFairId, size, page));
   }
 
   @GetMapping("/allocated/{bookFairId}")
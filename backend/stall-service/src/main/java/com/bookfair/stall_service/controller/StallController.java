@@ -2,21 +2,30 @@ package com.bookfair.stall_service.controller;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateStallRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallRequest;
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
 import com.bookfair.stall_service.dto.response.StallResponse;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.Status;
+import com.bookfair.stall_service.service.BulkImportService;
 import com.bookfair.stall_service.service.StallService;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/stalls")
@@ -24,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class StallController {
 
   private final StallService stallService;
+  private final BulkImportService bulkImportService;
 
   @PostMapping
   public ResponseEntity<ContentResponse<StallResponse>> createStall(
@@ -31,9 +41,18 @@ public class StallController {
     return ResponseEntity.ok(stallService.createStall(createStallRequest));
   }
 
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<ContentResponse<ImportReportResponse>> importStalls(
+      @RequestParam("file") MultipartFile file) {
+    return ResponseEntity.ok(bulkImportService.importStalls(file));
+  }
+
   @GetMapping("/getAll")
-  public ResponseEntity<ContentResponse<List<StallResponse>>> getAllStalls() {
-    return ResponseEntity.ok(stallService.getAllStalls());
+  public ResponseEntity<ContentResponse<List<StallResponse>>> getAllStalls(
+      @RequestParam(required = false) Status status,
+      @RequestParam(required = false) Size size,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    return ResponseEntity.ok(stallService.getAllStalls(status, size, page));
   }
 
   @GetMapping("/{id}")
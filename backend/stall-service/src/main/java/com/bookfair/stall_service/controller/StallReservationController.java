@@ -1,24 +1,40 @@
 package com.bookfair.stall_service.controller;
 
+import com.bookfair.stall_service.cache.IdempotencyStore;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.CheckInReconcileRequest;
+import com.bookfair.stall_service.dto.request.CheckInRequest;
+import com.bookfair.stall_service.dto.request.ContiguousStallSearchRequest;
 import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.response.CheckInResponse;
+import com.bookfair.stall_service.dto.response.CheckInSnapshotResponse;
+import com.bookfair.stall_service.dto.response.CheckInStatsResponse;
+import com.bookfair.stall_service.dto.response.ContiguousBlockResponse;
 import com.bookfair.stall_service.dto.response.QrReadResponse;
 import com.bookfair.stall_service.dto.response.ReservationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationUserResponse;
+import com.bookfair.stall_service.dto.response.StallHoldResponse;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.service.CheckInService;
 import com.bookfair.stall_service.service.StallReservationService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/stall-reservation")
@@ -26,11 +42,33 @@ import org.springframework.web.bind.annotation.RestController;
 public class StallReservationController {
 
   private final StallReservationService reservationService;
+  private final CheckInService checkInService;
+  private final IdempotencyStore idempotencyStore;
 
   @PostMapping
   public ResponseEntity<ContentResponse<ReservationResponse>> createReservation(
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
       @Valid @RequestBody CreateStallReservationRequest request) {
-    return ResponseEntity.ok(reservationService.createReservation(request));
+    return ResponseEntity.ok(idempotencyStore.execute("stall-reservation", idempotencyKey,
+        request, new TypeReference<>() {}, () -> reservationService.createReservation(request)));
+  }
+
+  @PostMapping("/hold")
+  public ResponseEntity<ContentResponse<StallHoldResponse>> holdStalls(
+      @Valid @RequestBody CreateStallReservationRequest request) {
+    return ResponseEntity.ok(reservationService.holdStalls(request));
+  }
+
+  @PostMapping("/hold/confirm")
+  public ResponseEntity<ContentResponse<ReservationResponse>> confirmHold(
+      @Valid @RequestBody CreateStallReservationRequest request) {
+    return ResponseEntity.ok(reservationService.confirmHold(request));
+  }
+
+  @DeleteMapping("/hold/{userId}")
+  public ResponseEntity<ContentResponse<Void>> releaseHold(@PathVariable Long userId,
+      @RequestParam List<Long> stallAllocationId) {
+    return ResponseEntity.ok(reservationService.releaseHold(userId, stallAllocationId));
   }
 
   @GetMapping("/{id}")
@@ -40,11 +78,21 @@ public class StallReservationController {
 
   @GetMapping("/bookfair/{bookFairId}")
   public ResponseEntity<ContentResponse<List<StallAllocationResponse>>> getAllReservationsForBookFair(
-      @PathVariable Long bookFairId) {
-    return ResponseEntity.ok(reservationService.getAllReservationsForBookFair(bookFairId));
+      @PathVariable Long bookFairId,
+      @RequestParam(required = false) Long hallId,
+      @RequestParam(required = false) StallAllocationStatus status,
+      @Valid @ModelAttribute KeysetPageRequest page) {
+    return ResponseEntity.ok(
+        reservationService.getAllReservationsForBookFair(bookFairId, hallId, status, page));
   }
 
 
+  @GetMapping("/contiguous/{bookFairId}")
+  public ResponseEntity<ContentResponse<List<ContiguousBlockResponse>>> findContiguousStalls(
+      @PathVariable Long bookFairId, @Valid @ModelAttribute ContiguousStallSearchRequest request) {
+    return ResponseEntity.ok(reservationService.findContiguousStalls(bookFairId, request));
+  }
+
   @GetMapping("/user/{userId}")
   public ResponseEntity<ContentResponse<List<StallAllocationUserResponse>>> getForUser(
       @PathVariable Long userId) {
@@ -59,8 +107,38 @@ public class StallReservationController {
 
   @GetMapping("token/{token}")
   public ResponseEntity<ContentResponse<QrReadResponse>> getReservationByToken(
-      @PathVariable String token) {
-    return ResponseEntity.ok(reservationService.getReservationByToken(token));
+      @PathVariable String token, @RequestParam(required = false) Long bookFairId) {
+    return ResponseEntity.ok(reservationService.getReservationByToken(token, bookFairId));
+  }
+
+  @PostMapping("/check-in")
+  public ResponseEntity<ContentResponse<CheckInResponse>> checkIn(
+      @Valid @RequestBody CheckInRequest request) {
+    return ResponseEntity.ok(checkInService.checkIn(request));
+  }
+
+  @PostMapping("/check-in/reconcile")
+  public ResponseEntity<ContentResponse<CheckInResponse>> reconcileCheckIns(
+      @Valid @RequestBody CheckInReconcileRequest request) {
+    return ResponseEntity.ok(checkInService.reconcile(request));
+  }
+
+  // Gate devices send the version they hold as If-None-Match and get 304 when it is current
+  @GetMapping("/check-in/snapshot/{bookFairId}")
+  public ResponseEntity<ContentResponse<CheckInSnapshotResponse>> getCheckInSnapshot(
+      @PathVariable Long bookFairId, WebRequest webRequest) {
+    ContentResponse<CheckInSnapshotResponse> snapshot = checkInService.getSnapshot(bookFairId);
+    String etag = "\"" + snapshot.getData().getVersion() + "\"";
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(snapshot);
+  }
+
+  @GetMapping("/check-in/stats/{bookFairId}")
+  public ResponseEntity<ContentResponse<CheckInStatsResponse>> getCheckInStats(
+      @PathVariable Long bookFairId) {
+    return ResponseEntity.ok(checkInService.getStats(bookFairId));
   }
 
 
@@ -0,0 +1,43 @@
+package com.bookfair.stall_service.controller;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.response.WaitingRoomTicketResponse;
+import com.bookfair.stall_service.service.ReservationWaitingRoom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+  private final ReservationWaitingRoom waitingRoom;
+
+  @PostMapping("/tickets")
+  public ResponseEntity<ContentResponse<WaitingRoomTicketResponse>> joinQueue() {
+    return ResponseEntity.ok(new ContentResponse<>(
+        "WaitingRoom",
+        "Joined the reservation queue",
+        "SUCCESS",
+        "200",
+        waitingRoom.join()
+    ));
+  }
+
+  @GetMapping("/tickets/{ticketId}")
+  public ResponseEntity<ContentResponse<WaitingRoomTicketResponse>> getTicket(
+      @PathVariable String ticketId) {
+    return ResponseEntity.ok(new ContentResponse<>(
+        "WaitingRoom",
+        "Queue position fetched successfully",
+        "SUCCESS",
+        "200",
+        waitingRoom.getTicket(ticketId)
+    ));
+  }
+}
@@ -1,8 +1,11 @@
 package com.bookfair.stall_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class ContentResponse<T> {
 
   private String status;
@@ -11,6 +14,10 @@ public class ContentResponse<T> {
   private String type;
   private T data;
 
+  // Set on keyset-paged lists while more rows follow
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long nextCursor;
+
   public ContentResponse(String type, String status, String statusCode, String message, T data) {
     this.type = type;
     this.status = status;
@@ -0,0 +1,28 @@
+package com.bookfair.stall_service.dto;
+
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import java.util.List;
+import java.util.function.Function;
+
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+
+  /**
+   * Cuts rows fetched with {@link KeysetPageRequest#fetchLimit()} down to the page size.
+   */
+  public static <T> KeysetPage<T> of(List<T> rows, KeysetPageRequest request,
+      Function<T, Long> id) {
+    if (rows.size() <= request.getLimit()) {
+      return new KeysetPage<>(rows, null);
+    }
+    List<T> items = rows.subList(0, request.getLimit());
+    return new KeysetPage<>(items, id.apply(items.get(items.size() - 1)));
+  }
+
+  public <R> ContentResponse<List<R>> toResponse(String type, String status, String statusCode,
+      String message, Function<T, R> mapper) {
+    ContentResponse<List<R>> response = new ContentResponse<>(type, status, statusCode, message,
+        items.stream().map(mapper).toList());
+    response.setNextCursor(nextCursor);
+    return response;
+  }
+}
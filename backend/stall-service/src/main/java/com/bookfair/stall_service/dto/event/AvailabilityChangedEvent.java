@@ -0,0 +1,17 @@
+package com.bookfair.stall_service.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityChangedEvent {
+
+  private Long bookFairId;
+  // Instance that made the change; it already updated its own snapshot
+  private String origin;
+}
@@ -0,0 +1,26 @@
+package com.bookfair.stall_service.dto.event;
+
+import com.bookfair.stall_service.enums.BookFairStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFairStatusChangedEvent {
+
+  private Long bookFairId;
+  private String name;
+  private BookFairStatus previousStatus;
+  private BookFairStatus status;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  // True when the change was made by the lifecycle scheduler rather than an organizer
+  private boolean automatic;
+  private Instant changedAt;
+}
@@ -0,0 +1,19 @@
+package com.bookfair.stall_service.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserChangedEvent {
+
+  private Long userId;
+  private String change;
+  private Boolean enabled;
+}
@@ -0,0 +1,22 @@
+package com.bookfair.stall_service.dto.projection;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+
+public record AllocationExportRow(
+    Long id,
+    Long bookFairId,
+    Hall hallName,
+    Long hallStallId,
+    String hallStallName,
+    Long stallId,
+    String stallName,
+    Size stallSize,
+    Long price,
+    StallAllocationStatus status,
+    Long bookingUserId,
+    String reservationToken
+) {
+
+}
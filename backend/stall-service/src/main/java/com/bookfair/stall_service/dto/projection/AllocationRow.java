@@ -0,0 +1,18 @@
+package com.bookfair.stall_service.dto.projection;
+
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+
+public record AllocationRow(
+    Long id,
+    Long bookFairId,
+    Long hallStallId,
+    Long stallId,
+    Long price,
+    StallAllocationStatus status,
+    Long bookingUserId,
+    String reservationToken,
+    Size stallSize
+) {
+
+}
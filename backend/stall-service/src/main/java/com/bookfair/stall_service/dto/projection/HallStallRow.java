@@ -0,0 +1,14 @@
+package com.bookfair.stall_service.dto.projection;
+
+import com.bookfair.stall_service.enums.Hall;
+
+public record HallStallRow(
+    Long hallStallId,
+    Long bookFairId,
+    Long hallId,
+    Hall hallName,
+    String stallName,
+    Integer slotIndex
+) {
+
+}
@@ -0,0 +1,10 @@
+package com.bookfair.stall_service.dto.projection;
+
+import java.time.Instant;
+
+public record HeldAllocationRow(
+    Long id,
+    Instant holdExpiresAt
+) {
+
+}
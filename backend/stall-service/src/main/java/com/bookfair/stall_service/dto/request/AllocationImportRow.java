@@ -0,0 +1,28 @@
+package com.bookfair.stall_service.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of an allocation import. Hall stalls and stalls are referenced by name so the same file
+ * can be used for any fair; the column names match the allocation export.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationImportRow {
+
+  @NotNull(message = "Book Fair ID is required")
+  private Long bookFairId;
+  @NotBlank(message = "Hall stall name is required")
+  private String hallStallName;
+  @NotBlank(message = "Stall name is required")
+  private String stallName;
+  @NotNull(message = "Price is required")
+  private Long price;
+}
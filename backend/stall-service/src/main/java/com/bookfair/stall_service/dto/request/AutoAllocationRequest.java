@@ -0,0 +1,44 @@
+package com.bookfair.stall_service.dto.request;
+
+import com.bookfair.stall_service.enums.Hall;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAllocationRequest {
+
+  @NotNull(message = "Book Fair ID is required")
+  private Long bookFairId;
+
+  @NotEmpty(message = "At least one stall is required")
+  @Size(max = 10000, message = "At most 10000 stalls can be auto-allocated at once")
+  private List<Long> stallIds;
+
+  // Halls each stall size may be placed in; sizes without an entry may go anywhere
+  private Map<com.bookfair.stall_service.enums.Size, List<Hall>> sizeHalls;
+
+  // Stalls of one vendor that must sit next to each other in the same row or ring
+  private List<List<Long>> adjacentGroups;
+
+  // First matching tier wins; defaultPrice applies when none match
+  private List<@Valid PriceTierRequest> priceTiers;
+
+  @NotNull(message = "Default price is required")
+  @PositiveOrZero(message = "Default price must be non-negative")
+  private Long defaultPrice;
+
+  // Compute and return the assignment without writing it
+  private boolean dryRun;
+}
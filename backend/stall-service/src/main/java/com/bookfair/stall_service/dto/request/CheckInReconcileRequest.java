@@ -0,0 +1,29 @@
+package com.bookfair.stall_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckInReconcileRequest {
+
+  @NotNull(message = "Book Fair ID is required")
+  private Long bookFairId;
+
+  private String deviceId;
+
+  // Snapshot version the device validated against, for logging
+  private String snapshotVersion;
+
+  @NotEmpty(message = "At least one buffered check-in is required")
+  @Size(max = 20000, message = "A reconciliation can hold at most 20000 tokens")
+  private List<String> tokens;
+}
@@ -0,0 +1,23 @@
+package com.bookfair.stall_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckInRequest {
+
+  // Optional, scans of other fairs are rejected when set
+  private Long bookFairId;
+
+  @NotEmpty(message = "At least one reservation token is required")
+  @Size(max = 500, message = "A check-in batch can hold at most 500 tokens")
+  private List<String> tokens;
+}
@@ -0,0 +1,33 @@
+package com.bookfair.stall_service.dto.request;
+
+import com.bookfair.stall_service.enums.Size;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Search for blocks of stalls that stand next to each other. {@code size} and {@code maxPrice}
+ * apply to every stall of a block and are ignored when not given. Bound from query parameters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContiguousStallSearchRequest {
+
+  public static final int MAX_LIMIT = 100;
+
+  @Min(value = 1, message = "Count must be at least 1")
+  @Max(value = 3, message = "You can reserve at most 3 stalls")
+  private int count = 2;
+
+  private Size size;
+
+  @Min(value = 0, message = "Max price must not be negative")
+  private Long maxPrice;
+
+  @Min(value = 1, message = "Limit must be at least 1")
+  @Max(value = MAX_LIMIT, message = "Limit must be at most " + MAX_LIMIT)
+  private int limit = 20;
+}
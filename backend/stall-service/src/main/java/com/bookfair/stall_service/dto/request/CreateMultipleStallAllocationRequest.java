@@ -1,5 +1,6 @@
 package com.bookfair.stall_service.dto.request;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -17,6 +18,6 @@ public class CreateMultipleStallAllocationRequest {
   private Long bookFairId;
 
   @NotNull(message = "Hall IDs and Stall IDs are required")
-  private List<HallStallAndStallIdsRequest> hallStallAndStallIds;
+  private List<@Valid HallStallAndStallIdsRequest> hallStallAndStallIds;
 
 }
@@ -3,11 +3,15 @@ package com.bookfair.stall_service.dto.request;
 import com.bookfair.stall_service.enums.Size;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class CreateStallRequest {
 
   @NotBlank(message = "Stall name is required")
@@ -0,0 +1,20 @@
+package com.bookfair.stall_service.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HallLayoutRequest {
+
+  private int row;
+  private int column;
+  private int innerRing;
+  private int outerRing;
+  // Report the changes without applying them
+  private boolean dryRun;
+}
@@ -0,0 +1,35 @@
+package com.bookfair.stall_service.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Keyset page of a list endpoint: rows are returned in ascending id order starting after
+ * {@code cursor}. Bound from the {@code cursor} and {@code limit} query parameters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageRequest {
+
+  public static final int MAX_LIMIT = 500;
+
+  private Long cursor;
+
+  @Min(value = 1, message = "Limit must be at least 1")
+  @Max(value = MAX_LIMIT, message = "Limit must be at most " + MAX_LIMIT)
+  private int limit = 100;
+
+  public long after() {
+    return cursor != null ? cursor : 0L;
+  }
+
+  // One extra row tells whether another page follows
+  public Limit fetchLimit() {
+    return Limit.of(limit + 1);
+  }
+}
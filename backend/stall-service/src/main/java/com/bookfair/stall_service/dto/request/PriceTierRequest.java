@@ -0,0 +1,25 @@
+package com.bookfair.stall_service.dto.request;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTierRequest {
+
+  // Null matches any hall / size
+  private Hall hall;
+  private Size size;
+
+  @NotNull(message = "Price is required")
+  @PositiveOrZero(message = "Price must be non-negative")
+  private Long price;
+}
@@ -0,0 +1,35 @@
+package com.bookfair.stall_service.dto.request;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.PriceAdjustment;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.layout.HallSlot;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleRequest {
+
+  // Matchers; null matches any
+  private Hall hall;
+  private HallSlot.Ring ring;
+  @Positive(message = "Row must be positive")
+  private Integer row;
+  @Positive(message = "Column must be positive")
+  private Integer column;
+  private Size size;
+
+  @NotNull(message = "Adjustment type is required")
+  private PriceAdjustment adjustment;
+
+  // Whole percent for PERCENT (e.g. 10 or -15), price delta for ABSOLUTE
+  @NotNull(message = "Amount is required")
+  private Long amount;
+}
@@ -0,0 +1,29 @@
+package com.bookfair.stall_service.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingRequest {
+
+  @NotNull(message = "Book Fair ID is required")
+  private Long bookFairId;
+
+  // Applied in order, each on top of the previous one
+  @NotEmpty(message = "At least one pricing rule is required")
+  @Size(max = 100, message = "At most 100 pricing rules can be applied at once")
+  private List<@Valid PricingRuleRequest> rules;
+
+  // Compute the new prices and roll back instead of committing
+  private boolean dryRun;
+}
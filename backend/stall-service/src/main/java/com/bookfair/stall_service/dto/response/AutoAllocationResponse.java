@@ -0,0 +1,32 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAllocationResponse {
+
+  private boolean committed;
+  private int placed;
+  private List<Assignment> assignments;
+  private List<String> unplaced;
+  private long solveMillis;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Assignment {
+
+    private Long stallId;
+    private Long hallStallId;
+    private String hallStallName;
+    private Long price;
+  }
+}
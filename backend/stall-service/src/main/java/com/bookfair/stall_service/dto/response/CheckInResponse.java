@@ -0,0 +1,19 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResponse {
+
+  private int checkedIn;
+  private int alreadyCheckedIn;
+  private int rejected;
+  private List<CheckInResult> results;
+}
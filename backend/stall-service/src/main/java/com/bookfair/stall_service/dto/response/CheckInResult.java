@@ -0,0 +1,21 @@
+package com.bookfair.stall_service.dto.response;
+
+import com.bookfair.stall_service.enums.CheckInStatus;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResult {
+
+  private String token;
+  private CheckInStatus status;
+  private Long bookFairId;
+  private Long userId;
+  private List<Long> stallAllocationIds;
+}
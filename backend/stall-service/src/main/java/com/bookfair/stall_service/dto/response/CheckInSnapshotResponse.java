@@ -0,0 +1,28 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Offline check-in data of one fair. {@code tokenHashes} is the base64 of the ascending, signed
+ * big-endian 64-bit prefixes of SHA-256(token); a scanned token is valid when its prefix is
+ * found by binary search. Bit {@code i} of {@code approvedBitset} (base64 of
+ * {@link java.util.BitSet#toByteArray()}) is set when the reservation at index {@code i} has
+ * not been checked in yet.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInSnapshotResponse {
+
+  private Long bookFairId;
+  private String version;
+  private Instant generatedAt;
+  private int tokenCount;
+  private String tokenHashes;
+  private String approvedBitset;
+}
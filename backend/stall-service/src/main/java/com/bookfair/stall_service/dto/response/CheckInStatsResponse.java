@@ -0,0 +1,22 @@
+package com.bookfair.stall_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInStatsResponse {
+
+  private Long bookFairId;
+  private long checkedInStalls;
+  private long awaitingStalls;
+  // Scan counters since service start
+  private long scans;
+  private long checkIns;
+  private long duplicateScans;
+  private long rejectedScans;
+}
@@ -0,0 +1,35 @@
+package com.bookfair.stall_service.dto.response;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContiguousBlockResponse {
+
+  private Long hallId;
+  private Hall hallName;
+  private Long totalPrice;
+  private List<BlockStall> stalls;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class BlockStall {
+
+    private Long stallAllocationId;
+    private Long hallStallId;
+    private String hallStallName;
+    private Long stallId;
+    private Size stallSize;
+    private Long price;
+  }
+}
@@ -0,0 +1,43 @@
+package com.bookfair.stall_service.dto.response;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything needed to draw a fair's map. Slots are sent as parallel arrays per hall, in slot
+ * index order; status, price and stall id are null for slots without an allocation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FloorPlanResponse {
+
+  private Long bookFairId;
+  private String version;
+  private List<FloorPlanHall> halls;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class FloorPlanHall {
+
+    private Long hallId;
+    private Hall hallName;
+    private int row;
+    private int column;
+    private int innerRing;
+    private int outerRing;
+    private List<Long> hallStallIds;
+    private List<String> stallNames;
+    private List<StallAllocationStatus> statuses;
+    private List<Long> prices;
+    private List<Long> stallIds;
+  }
+}
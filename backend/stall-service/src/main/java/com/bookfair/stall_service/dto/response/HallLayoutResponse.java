@@ -0,0 +1,36 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HallLayoutResponse {
+
+  private boolean applied;
+  private HallResponse hall;
+  private int slotsBefore;
+  private int slotsAfter;
+  // Stored hall stalls that keep their position under a new slot index or name
+  private List<SlotMove> moved;
+  // Stored hall stalls deleted because their position is outside the new geometry
+  private List<String> removed;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class SlotMove {
+
+    private Long hallStallId;
+    private String fromName;
+    private String toName;
+    private int fromSlotIndex;
+    private int toSlotIndex;
+  }
+}
@@ -0,0 +1,33 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportResponse {
+
+  private long rows;
+  private long imported;
+  private long failed;
+  private long elapsedMillis;
+  private long rowsPerSecond;
+  // Only the first rejected rows are listed; failed holds the full count
+  private boolean errorsTruncated;
+  private List<RowError> errors;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class RowError {
+
+    private long row;
+    private String message;
+  }
+}
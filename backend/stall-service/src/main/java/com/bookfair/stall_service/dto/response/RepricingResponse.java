@@ -0,0 +1,32 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingResponse {
+
+  private boolean applied;
+  // Rows matched by each rule, in rule order
+  private List<Integer> matchedPerRule;
+  private List<PriceChange> changes;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PriceChange {
+
+    private Long allocationId;
+    private Long hallStallId;
+    private Long stallId;
+    private Long oldPrice;
+    private Long newPrice;
+  }
+}
@@ -0,0 +1,20 @@
+package com.bookfair.stall_service.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StallHoldResponse {
+
+  private Long userId;
+  private Long bookFairId;
+  private List<Long> stallAllocationIds;
+  private Instant expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.bookfair.stall_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomTicketResponse {
+
+  private String ticketId;
+  private long position;
+  private long estimatedWaitSeconds;
+  private boolean admitted;
+  private long retryAfterSeconds;
+}
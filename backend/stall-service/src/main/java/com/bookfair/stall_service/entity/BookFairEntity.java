@@ -8,6 +8,8 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
@@ -20,11 +22,16 @@ import lombok.NoArgsConstructor;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "book_fairs")
+@Table(name = "book_fairs", indexes = {
+    @Index(name = "idx_book_fair_status_start_date", columnList = "status, start_date"),
+    @Index(name = "idx_book_fair_status_end_date", columnList = "status, end_date")
+})
 public class BookFairEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_fair_entity_seq")
+  @SequenceGenerator(name = "book_fair_entity_seq", sequenceName = "book_fair_entity_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -2,12 +2,15 @@ package com.bookfair.stall_service.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,22 +21,30 @@ import lombok.NoArgsConstructor;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "hall_stall")
+@Table(name = "hall_stall", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_hall_stall_hall_slot", columnNames = {"hall_id", "slot_index"})
+})
 public class HallStallEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hall_stall_entity_seq")
+  @SequenceGenerator(name = "hall_stall_entity_seq", sequenceName = "hall_stall_entity_seq",
+      allocationSize = 50)
   private Long id;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "book_fairs_id", nullable = false)
   private BookFairEntity bookFair;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "hall_id", nullable = false)
   private HallEntity hallEntity;
 
   @Column(nullable = false)
   private String stallName;
 
+  // Position in the hall geometry, see HallGeometry
+  @Column(name = "slot_index")
+  private Integer slotIndex;
+
 }
@@ -0,0 +1,43 @@
+package com.bookfair.stall_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An {@code Idempotency-Key} claimed by a request, shared by all replicas. The row is inserted in
+ * the transaction of the request it guards, so it only exists once that request has committed,
+ * together with the response to replay.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyKeyEntity {
+
+  // Scope and key, e.g. "stall-reservation:<key>"
+  @Id
+  @Column(name = "idempotency_key", length = 320)
+  private String idempotencyKey;
+
+  // Hex SHA-256 of the request body, so a key cannot be reused for a different request
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(columnDefinition = "text")
+  private String response;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+}
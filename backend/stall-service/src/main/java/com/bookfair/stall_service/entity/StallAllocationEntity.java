@@ -5,20 +5,29 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "stall_allocations")
+@Table(name = "stall_allocations", indexes = {
+    @Index(name = "idx_stall_allocations_user_fair", columnList = "booking_user_id, book_fairs_id"),
+    @Index(name = "idx_stall_allocations_reservation_token", columnList = "reservation_token"),
+    @Index(name = "idx_stall_allocations_fair_stall", columnList = "book_fairs_id, stall_entity_id"),
+    @Index(name = "idx_stall_allocations_hold_expires_at", columnList = "hold_expires_at")
+})
 @Data
 @Builder
 @AllArgsConstructor
@@ -26,18 +35,20 @@ import lombok.NoArgsConstructor;
 public class StallAllocationEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stall_allocation_entity_seq")
+  @SequenceGenerator(name = "stall_allocation_entity_seq",
+      sequenceName = "stall_allocation_entity_seq", allocationSize = 50)
   private Long id;
 
-  @OneToOne
+  @OneToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "hall_stall_id", nullable = false)
   private HallStallEntity hallStall;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "stall_entity_id", nullable = false)
   private StallEntity stall;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "book_fairs_id", nullable = false)
   private BookFairEntity bookFair;
 
@@ -54,5 +65,8 @@ public class StallAllocationEntity {
   @Column
   private String reservationToken;
 
+  @Column
+  private Instant holdExpiresAt;
+
 
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.bookfair.stall_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row holding the highest admitted ticket number, shared by all replicas.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "waiting_room_state")
+public class WaitingRoomStateEntity {
+
+  public static final long ID = 1L;
+
+  @Id
+  private Long id;
+
+  @Column(nullable = false)
+  private Long admitted;
+}
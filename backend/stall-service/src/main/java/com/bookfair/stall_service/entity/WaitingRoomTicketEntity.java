@@ -0,0 +1,42 @@
+package com.bookfair.stall_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A caller waiting for admission. The id is the caller's place in the queue, so it is drawn one
+ * at a time from the sequence; the secret keeps other callers from presenting the ticket.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "waiting_room_tickets", indexes = {
+    @Index(name = "idx_waiting_room_ticket_last_seen", columnList = "last_seen_at")
+})
+public class WaitingRoomTicketEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waiting_room_ticket_seq")
+  @SequenceGenerator(name = "waiting_room_ticket_seq", sequenceName = "waiting_room_ticket_seq",
+      allocationSize = 1)
+  private Long id;
+
+  @Column(nullable = false, length = 36)
+  private String secret;
+
+  @Column(name = "last_seen_at", nullable = false)
+  private Instant lastSeenAt;
+}
@@ -0,0 +1,10 @@
+package com.bookfair.stall_service.enums;
+
+public enum CheckInStatus {
+  CHECKED_IN,
+  ALREADY_CHECKED_IN,
+  NOT_APPROVED,
+  NOT_FOUND,
+  WRONG_BOOK_FAIR,
+  INVALID
+}
@@ -0,0 +1,11 @@
+package com.bookfair.stall_service.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum PriceAdjustment {
+  PERCENT,
+  ABSOLUTE
+}
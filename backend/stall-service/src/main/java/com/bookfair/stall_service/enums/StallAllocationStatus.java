@@ -3,11 +3,13 @@ package com.bookfair.stall_service.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+// Stored by name under a check constraint; new values also go into schema.sql
 @Getter
 @AllArgsConstructor
 public enum StallAllocationStatus {
   PENDING,
   APPROVED,
   CANCELLED,
-  COMPLETED;
+  COMPLETED,
+  HELD;
 }
@@ -0,0 +1,153 @@
+package com.bookfair.stall_service.importer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an uploaded import file one record at a time, so only the current record is held in
+ * memory. CSV files start with a header row naming the fields; JSON files hold either a top-level
+ * array of objects or one object per line. Blank CSV values are treated as missing.
+ */
+public final class ImportRowReader implements Closeable {
+
+  /**
+   * One record of the file. {@code error} is set when the record could not be split into fields,
+   * in which case {@code values} is empty.
+   */
+  public record Row(long number, Map<String, Object> values, String error) {
+
+  }
+
+  private final InputStream in;
+  private final BufferedReader csv;
+  private final MappingIterator<Map<String, Object>> json;
+  private List<String> header;
+  private long rowNumber;
+
+  private ImportRowReader(InputStream in, BufferedReader csv,
+      MappingIterator<Map<String, Object>> json) {
+    this.in = in;
+    this.csv = csv;
+    this.json = json;
+  }
+
+  public static ImportRowReader csv(InputStream in) {
+    return new ImportRowReader(in,
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), null);
+  }
+
+  public static ImportRowReader json(InputStream in, ObjectMapper objectMapper)
+      throws IOException {
+    MappingIterator<Map<String, Object>> values = objectMapper
+        .readerFor(new TypeReference<Map<String, Object>>() {
+        })
+        .readValues(in);
+    return new ImportRowReader(in, null, values);
+  }
+
+  /**
+   * Returns the next record, or null at the end of the file.
+   */
+  public Row next() throws IOException {
+    return json != null ? nextJson() : nextCsv();
+  }
+
+  private Row nextJson() throws IOException {
+    try {
+      if (!json.hasNextValue()) {
+        return null;
+      }
+      Map<String, Object> values = json.nextValue();
+      return new Row(++rowNumber, values, null);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed JSON after row " + rowNumber);
+    }
+  }
+
+  private Row nextCsv() throws IOException {
+    if (header == null) {
+      List<String> names = readRecord();
+      if (names == null) {
+        return null;
+      }
+      header = new ArrayList<>(names.size());
+      for (String name : names) {
+        header.add(name.replace("\uFEFF", "").trim());
+      }
+    }
+    List<String> fields = readRecord();
+    while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+      fields = readRecord();
+    }
+    if (fields == null) {
+      return null;
+    }
+    rowNumber++;
+    if (fields.size() != header.size()) {
+      return new Row(rowNumber, Map.of(), "Expected " + header.size() + " columns but found "
+          + fields.size());
+    }
+    Map<String, Object> values = new HashMap<>();
+    for (int i = 0; i < fields.size(); i++) {
+      String value = fields.get(i).trim();
+      if (!value.isEmpty()) {
+        values.put(header.get(i), value);
+      }
+    }
+    return new Row(rowNumber, values, null);
+  }
+
+  // RFC 4180 fields: quoted fields may contain commas, line breaks and doubled quotes
+  private List<String> readRecord() throws IOException {
+    int c = csv.read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new IllegalArgumentException("Unterminated quoted field in row " + (rowNumber + 1));
+        }
+        if (c == '"') {
+          c = csv.read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        field.append((char) c);
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        break;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = csv.read();
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,133 @@
+package com.bookfair.stall_service.layout;
+
+import com.bookfair.stall_service.enums.Hall;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Greedy best-fit placement of stalls onto free hall stalls. Free slots are cut into runs of
+ * consecutive positions per lane, and runs are bucketed by length per hall, so each unit is placed
+ * with a {@link TreeMap#ceilingEntry} lookup per allowed hall. Units are placed largest first and
+ * always into the shortest run that fits, which keeps long runs free for adjacent groups.
+ */
+public final class AllocationSolver {
+
+  public record Slot(Long hallStallId, String name, Long hallId, Hall hall, HallSlot position) {
+
+  }
+
+  /**
+   * Stalls to place side by side. An empty {@code allowedHalls} means any hall.
+   */
+  public record Unit(List<Long> stallIds, Set<Hall> allowedHalls) {
+
+  }
+
+  public record Result(Map<Long, Slot> placements, List<Unit> unplaced) {
+
+  }
+
+  private final Map<Hall, TreeMap<Integer, ArrayDeque<Run>>> runsByHall = new EnumMap<>(Hall.class);
+
+  public AllocationSolver(Collection<Slot> freeSlots) {
+    Map<String, List<Slot>> lanes = freeSlots.stream()
+        .collect(Collectors.groupingBy(
+            slot -> slot.hallId() + ":" + slot.position().lane(),
+            LinkedHashMap::new,
+            Collectors.toList()));
+    for (List<Slot> lane : lanes.values()) {
+      lane.sort(Comparator.comparingInt(slot -> slot.position().position()));
+      int start = 0;
+      for (int i = 1; i <= lane.size(); i++) {
+        if (i == lane.size()
+            || lane.get(i).position().position() != lane.get(i - 1).position().position() + 1) {
+          addRun(new Run(lane.subList(start, i)));
+          start = i;
+        }
+      }
+    }
+  }
+
+  public Result solve(List<Unit> units) {
+    List<Unit> ordered = new ArrayList<>(units);
+    ordered.sort(Comparator.comparingInt((Unit unit) -> unit.stallIds().size()).reversed());
+
+    Map<Long, Slot> placements = new HashMap<>();
+    List<Unit> unplaced = new ArrayList<>();
+    for (Unit unit : ordered) {
+      int length = unit.stallIds().size();
+      Run best = null;
+      for (Map.Entry<Hall, TreeMap<Integer, ArrayDeque<Run>>> hall : runsByHall.entrySet()) {
+        if (!unit.allowedHalls().isEmpty() && !unit.allowedHalls().contains(hall.getKey())) {
+          continue;
+        }
+        Map.Entry<Integer, ArrayDeque<Run>> fit = hall.getValue().ceilingEntry(length);
+        if (fit != null && (best == null || fit.getKey() < best.length())) {
+          best = fit.getValue().peekFirst();
+        }
+      }
+      if (best == null) {
+        unplaced.add(unit);
+        continue;
+      }
+      removeRun(best);
+      List<Slot> taken = best.take(length);
+      for (int i = 0; i < length; i++) {
+        placements.put(unit.stallIds().get(i), taken.get(i));
+      }
+      if (best.length() > 0) {
+        addRun(best);
+      }
+    }
+    return new Result(placements, unplaced);
+  }
+
+  private void addRun(Run run) {
+    runsByHall.computeIfAbsent(run.hall(), hall -> new TreeMap<>())
+        .computeIfAbsent(run.length(), length -> new ArrayDeque<>())
+        .addLast(run);
+  }
+
+  private void removeRun(Run run) {
+    TreeMap<Integer, ArrayDeque<Run>> runs = runsByHall.get(run.hall());
+    ArrayDeque<Run> bucket = runs.get(run.length());
+    bucket.removeFirst();
+    if (bucket.isEmpty()) {
+      runs.remove(run.length());
+    }
+  }
+
+  private static final class Run {
+
+    private final List<Slot> slots;
+    private int start;
+
+    Run(List<Slot> slots) {
+      this.slots = slots;
+    }
+
+    Hall hall() {
+      return slots.get(0).hall();
+    }
+
+    int length() {
+      return slots.size() - start;
+    }
+
+    List<Slot> take(int count) {
+      List<Slot> taken = slots.subList(start, start + count);
+      start += count;
+      return taken;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.bookfair.stall_service.layout;
+
+import com.bookfair.stall_service.dto.projection.HallStallRow;
+import com.bookfair.stall_service.entity.HallEntity;
+import com.bookfair.stall_service.enums.Hall;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slots of a hall derived from its geometry. Grid halls number their slots row by row, ring halls
+ * number the inner ring first and then the outer ring, so every hall stall is identified by its
+ * hall and a slot index. A hall stall row is only stored once an allocation needs it; until then
+ * the slot is addressed by a negative virtual id that encodes the hall id and the slot index.
+ */
+public record HallGeometry(Long hallId, Hall hall, int rows, int columns, int innerRing,
+    int outerRing) {
+
+  private static final int SLOT_BITS = 24;
+  private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+
+  public static HallGeometry of(HallEntity hall) {
+    return new HallGeometry(hall.getId(), hall.getHallName(), hall.getRows(), hall.getColumns(),
+        hall.getInnerRing(), hall.getOuterRing());
+  }
+
+  public boolean isGrid() {
+    return rows > 0 && columns > 0;
+  }
+
+  public int size() {
+    return isGrid() ? rows * columns : innerRing + outerRing;
+  }
+
+  public HallSlot slot(int slotIndex) {
+    if (isGrid()) {
+      return new HallSlot(hall, null, slotIndex / columns + 1, slotIndex % columns + 1);
+    }
+    return slotIndex < innerRing
+        ? new HallSlot(hall, HallSlot.Ring.IR, 0, slotIndex + 1)
+        : new HallSlot(hall, HallSlot.Ring.OR, 0, slotIndex - innerRing + 1);
+  }
+
+  public String name(int slotIndex) {
+    return slot(slotIndex).format();
+  }
+
+  /**
+   * Slot index of the position, or -1 when the position lies outside this geometry.
+   */
+  public int indexOf(HallSlot slot) {
+    if (isGrid()) {
+      if (slot.isRing() || slot.row() < 1 || slot.row() > rows || slot.position() < 1
+          || slot.position() > columns) {
+        return -1;
+      }
+      return (slot.row() - 1) * columns + slot.position() - 1;
+    }
+    if (!slot.isRing() || slot.position() < 1) {
+      return -1;
+    }
+    if (slot.ring() == HallSlot.Ring.IR) {
+      return slot.position() <= innerRing ? slot.position() - 1 : -1;
+    }
+    return slot.position() <= outerRing ? innerRing + slot.position() - 1 : -1;
+  }
+
+  /**
+   * Slot index of the stall physically next to the given one in the same row or ring, or -1 at
+   * the end of a row. Rings are closed, so the last stall of a ring is followed by its first.
+   */
+  public int nextInLane(int slotIndex) {
+    if (isGrid()) {
+      return (slotIndex + 1) % columns != 0 ? slotIndex + 1 : -1;
+    }
+    int start = slotIndex < innerRing ? 0 : innerRing;
+    int length = slotIndex < innerRing ? innerRing : outerRing;
+    if (length < 3) {
+      return slotIndex + 1 < start + length ? slotIndex + 1 : -1;
+    }
+    return start + (slotIndex - start + 1) % length;
+  }
+
+  public long virtualId(int slotIndex) {
+    return virtualId(hallId, slotIndex);
+  }
+
+  public static long virtualId(long hallId, int slotIndex) {
+    return -((hallId << SLOT_BITS) | slotIndex);
+  }
+
+  public static boolean isVirtual(long hallStallId) {
+    return hallStallId < 0;
+  }
+
+  public static long hallIdOf(long virtualId) {
+    return -virtualId >>> SLOT_BITS;
+  }
+
+  public static int slotIndexOf(long virtualId) {
+    return (int) (-virtualId & SLOT_MASK);
+  }
+
+  /**
+   * Every slot of the fair's halls, ordered by hall and slot index. Slots that already have a
+   * stored hall stall row carry its id and name; stored rows outside the current geometry are kept
+   * at the end of their hall so their allocations stay visible.
+   */
+  public static List<HallStallRow> expand(Long bookFairId, Collection<HallEntity> halls,
+      Collection<HallStallRow> stored) {
+    Map<Long, Map<Integer, HallStallRow>> storedByHall = new HashMap<>();
+    Map<Long, List<HallStallRow>> unslotted = new HashMap<>();
+    for (HallStallRow row : stored) {
+      if (row.slotIndex() != null) {
+        storedByHall.computeIfAbsent(row.hallId(), id -> new HashMap<>())
+            .put(row.slotIndex(), row);
+      } else {
+        unslotted.computeIfAbsent(row.hallId(), id -> new ArrayList<>()).add(row);
+      }
+    }
+
+    List<HallEntity> ordered = new ArrayList<>(halls);
+    ordered.sort(Comparator.comparing(HallEntity::getId));
+    List<HallStallRow> rows = new ArrayList<>();
+    for (HallEntity hall : ordered) {
+      HallGeometry geometry = of(hall);
+      Map<Integer, HallStallRow> hallRows = new HashMap<>(
+          storedByHall.getOrDefault(hall.getId(), Map.of()));
+      for (int slotIndex = 0; slotIndex < geometry.size(); slotIndex++) {
+        HallStallRow row = hallRows.remove(slotIndex);
+        rows.add(row != null ? row : new HallStallRow(geometry.virtualId(slotIndex), bookFairId,
+            hall.getId(), hall.getHallName(), geometry.name(slotIndex), slotIndex));
+      }
+      hallRows.values().stream()
+          .sorted(Comparator.comparing(HallStallRow::slotIndex))
+          .forEach(rows::add);
+      rows.addAll(unslotted.getOrDefault(hall.getId(), List.of()));
+    }
+    return rows;
+  }
+}
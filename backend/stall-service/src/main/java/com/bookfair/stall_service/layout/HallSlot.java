@@ -0,0 +1,50 @@
+package com.bookfair.stall_service.layout;
+
+import com.bookfair.stall_service.enums.Hall;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Position of a hall stall parsed from its generated name: {@code TOP-R2C5} for grid halls,
+ * {@code RING-IR3} / {@code RING-OR7} for ring halls. Stalls in the same lane (a grid row or a
+ * ring) with consecutive positions are physically next to each other.
+ */
+public record HallSlot(Hall hall, Ring ring, int row, int position) {
+
+  private static final Pattern GRID = Pattern.compile("([A-Z]+)-R(\\d+)C(\\d+)");
+  private static final Pattern RING = Pattern.compile("([A-Z]+)-(IR|OR)(\\d+)");
+
+  public enum Ring {
+    IR,
+    OR
+  }
+
+  public static HallSlot parse(String stallName) {
+    Matcher grid = GRID.matcher(stallName);
+    if (grid.matches()) {
+      return new HallSlot(Hall.valueOf(grid.group(1)), null,
+          Integer.parseInt(grid.group(2)), Integer.parseInt(grid.group(3)));
+    }
+    Matcher ring = RING.matcher(stallName);
+    if (ring.matches()) {
+      return new HallSlot(Hall.valueOf(ring.group(1)), Ring.valueOf(ring.group(2)), 0,
+          Integer.parseInt(ring.group(3)));
+    }
+    throw new IllegalArgumentException("Unrecognised hall stall name: " + stallName);
+  }
+
+  public boolean isRing() {
+    return ring != null;
+  }
+
+  /**
+   * Key shared by all slots of the same row or ring within a hall.
+   */
+  public String lane() {
+    return isRing() ? ring.name() : "R" + row;
+  }
+
+  public String format() {
+    return isRing() ? hall + "-" + ring + position : hall + "-R" + row + "C" + position;
+  }
+}
@@ -0,0 +1,28 @@
+package com.bookfair.stall_service.listener;
+
+import com.bookfair.stall_service.cache.AvailabilityBroadcaster;
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.dto.event.AvailabilityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AvailabilityChangedListener {
+
+  private final AvailabilityBroadcaster availabilityBroadcaster;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+
+  @RabbitListener(queues = "#{availabilityChangedQueue.name}")
+  public void handleAvailabilityChanged(AvailabilityChangedEvent event) {
+    if (availabilityBroadcaster.getInstanceId().equals(event.getOrigin())) {
+      return;
+    }
+    log.debug("Book fair {} changed on another instance, dropping its snapshot",
+        event.getBookFairId());
+    stallAvailabilityIndex.drop(event.getBookFairId());
+  }
+}
@@ -0,0 +1,23 @@
+package com.bookfair.stall_service.listener;
+
+import com.bookfair.stall_service.client.UserLookupCache;
+import com.bookfair.stall_service.dto.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserChangedListener {
+
+  private final UserLookupCache userLookupCache;
+
+  @RabbitListener(queues = "#{userChangedQueue.name}")
+  public void handleUserChanged(UserChangedEvent event) {
+    log.info("Received {} for user {}, evicting cached user", event.getChange(),
+        event.getUserId());
+    userLookupCache.evict(event.getUserId());
+  }
+}
@@ -2,8 +2,13 @@ package com.bookfair.stall_service.repository;
 
 import com.bookfair.stall_service.entity.BookFairEntity;
 import com.bookfair.stall_service.enums.BookFairStatus;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +17,46 @@ public interface BookFairRepository extends JpaRepository<BookFairEntity, Long>
   boolean existsByName(String name);
 
   List<BookFairEntity> findByStatus(BookFairStatus bookFairStatus);
+
+  // Transaction-scoped advisory lock, so only one replica advances fair statuses at a time.
+  @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryLifecycleLock(@Param("key") long key);
+
+  @Query("""
+      select b from BookFairEntity b
+      where b.status = com.bookfair.stall_service.enums.BookFairStatus.UPCOMING
+        and b.startDate <= :today
+      order by b.startDate, b.id
+      """)
+  List<BookFairEntity> findDueToStart(@Param("today") LocalDate today, Limit limit);
+
+  @Query("""
+      select b from BookFairEntity b
+      where b.status = com.bookfair.stall_service.enums.BookFairStatus.ONGOING
+        and b.endDate < :today
+      order by b.endDate, b.id
+      """)
+  List<BookFairEntity> findDueToEnd(@Param("today") LocalDate today, Limit limit);
+
+  // Conditional status change: it only applies while the fair still has the status the caller
+  // read, so the lifecycle job and a manual change cannot overwrite each other.
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("""
+      update BookFairEntity b set b.status = :status
+      where b.id = :id and b.status = :expected
+      """)
+  int updateStatus(@Param("id") Long id, @Param("expected") BookFairStatus expected,
+      @Param("status") BookFairStatus status);
+
+  @Query("select b.id from BookFairEntity b")
+  List<Long> findAllIds();
+
+  @Query("""
+      select b from BookFairEntity b
+      where b.id > :after
+        and (:status is null or b.status = :status)
+      order by b.id
+      """)
+  List<BookFairEntity> findPage(@Param("status") BookFairStatus status,
+      @Param("after") long after, Limit limit);
 }
@@ -2,12 +2,33 @@ package com.bookfair.stall_service.repository;
 
 import com.bookfair.stall_service.entity.HallEntity;
 import com.bookfair.stall_service.enums.Hall;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface HallRepository extends JpaRepository<HallEntity, Long> {
 
   boolean existsByBookFairIdAndHallName(Long bookFairId, Hall hallName);
 
   List<HallEntity> findByBookFairId(Long bookFairId);
+
+  // Serialises hall stall materialisation per hall; locked in id order to avoid deadlocks
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select h from HallEntity h join fetch h.bookFair where h.id in :ids order by h.id")
+  List<HallEntity> findLockedByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query("""
+      select h from HallEntity h
+      where h.id > :after
+        and (:bookFairId is null or h.bookFair.id = :bookFairId)
+        and (:hallName is null or h.hallName = :hallName)
+      order by h.id
+      """)
+  List<HallEntity> findPage(@Param("bookFairId") Long bookFairId,
+      @Param("hallName") Hall hallName, @Param("after") long after, Limit limit);
 }
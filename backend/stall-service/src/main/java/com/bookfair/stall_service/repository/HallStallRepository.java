@@ -1,10 +1,40 @@
 package com.bookfair.stall_service.repository;
 
+import com.bookfair.stall_service.dto.projection.HallStallRow;
 import com.bookfair.stall_service.entity.HallStallEntity;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface HallStallRepository extends JpaRepository<HallStallEntity, Long> {
 
   List<HallStallEntity> findByBookFairId(Long bookFairId);
+
+  @Query("""
+      select new com.bookfair.stall_service.dto.projection.HallStallRow(
+          hs.id, h.bookFair.id, h.id, h.hallName, hs.stallName, hs.slotIndex)
+      from HallStallEntity hs join hs.hallEntity h
+      where h.bookFair.id = :bookFairId
+      """)
+  List<HallStallRow> findRowsByBookFairId(@Param("bookFairId") Long bookFairId);
+
+  @Query("""
+      select hs from HallStallEntity hs
+        join fetch hs.hallEntity h
+        join fetch h.bookFair
+      where hs.id in :ids
+      """)
+  List<HallStallEntity> findWithHallByIdIn(@Param("ids") Collection<Long> ids);
+
+  List<HallStallEntity> findByHallEntityId(Long hallId);
+
+  List<HallStallEntity> findByHallEntityIdAndSlotIndexIn(Long hallId,
+      Collection<Integer> slotIndexes);
+
+  // Rows stored before hall stalls were addressed by slot index
+  @EntityGraph(attributePaths = "hallEntity")
+  List<HallStallEntity> findBySlotIndexIsNull();
 }
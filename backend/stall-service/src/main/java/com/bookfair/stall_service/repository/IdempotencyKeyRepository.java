@@ -0,0 +1,45 @@
+package com.bookfair.stall_service.repository;
+
+import com.bookfair.stall_service.entity.IdempotencyKeyEntity;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+  // Inserts the key, or takes over an expired one. While another transaction holds an
+  // uncommitted claim on the key this waits for it, and returns 0 if that claim commits.
+  @Modifying
+  @Query(value = """
+      insert into idempotency_keys (idempotency_key, request_hash, expires_at)
+      values (:key, :requestHash, :expiresAt)
+      on conflict (idempotency_key) do update
+        set request_hash = excluded.request_hash, response = null,
+            expires_at = excluded.expires_at
+        where idempotency_keys.expires_at <= :now
+      """, nativeQuery = true)
+  int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+      @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+  @Modifying
+  @Query("""
+      update IdempotencyKeyEntity k set k.response = :response
+      where k.idempotencyKey = :key
+      """)
+  int complete(@Param("key") String key, @Param("response") String response);
+
+  @Query(value = "select current_setting('lock_timeout')", nativeQuery = true)
+  String findLockTimeout();
+
+  // Transaction-scoped, so the wait limit ends with the request
+  @Query(value = "select set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+  String setLockTimeout(@Param("timeout") String timeout);
+
+  @Modifying
+  @Query("delete from IdempotencyKeyEntity k where k.expiresAt <= :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -1,14 +1,50 @@
 package com.bookfair.stall_service.repository;
 
+import com.bookfair.stall_service.dto.projection.AllocationExportRow;
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.projection.HeldAllocationRow;
+import com.bookfair.stall_service.dto.response.StallAllocationUserResponse;
 import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.entity.StallEntity;
 import com.bookfair.stall_service.enums.StallAllocationStatus;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface StallAllocationRepository extends JpaRepository<StallAllocationEntity, Long> {
 
+  // Allocations of a fair matched by a pricing rule. Null parameters match anything; ring, row
+  // and column are read from the generated hall stall name (TOP-R2C5, RING-IR3).
+  String PRICING_RULE_MATCH = """
+      from hall_stall hs, hall h, stall_entity s
+      where a.book_fairs_id = :bookFairId
+        and a.stall_allocation_status not in ('HELD', 'APPROVED', 'COMPLETED')
+        and hs.id = a.hall_stall_id
+        and h.id = hs.hall_id
+        and s.id = a.stall_entity_id
+        and (cast(:hall as varchar) is null or h.hall_name = cast(:hall as varchar))
+        and (cast(:size as varchar) is null or s.size = cast(:size as varchar))
+        and (cast(:ring as varchar) is null
+          or hs.stall_name ~ ('-' || cast(:ring as varchar) || '[0-9]+$'))
+        and (cast(:row as integer) is null
+          or cast(substring(hs.stall_name from '-R([0-9]+)C') as integer) = cast(:row as integer))
+        and (cast(:col as integer) is null
+          or cast(substring(hs.stall_name from '-R[0-9]+C([0-9]+)$') as integer)
+            = cast(:col as integer))
+      """;
+
   boolean existsByStall_Id(Long stallId);
 
   boolean existsByHallStall_IdAndStall_Id(Long hallStallId, Long stallId);
@@ -29,5 +65,238 @@ public interface StallAllocationRepository extends JpaRepository<StallAllocation
       @NotNull(message = "Book Fair ID is required") Long bookFairId);
 
 
+  @EntityGraph(attributePaths = {"bookFair", "stall", "hallStall.hallEntity"})
   List<StallAllocationEntity> findByReservationToken(String token);
-}
\ No newline at end of file
+
+  @EntityGraph(attributePaths = "bookFair")
+  Optional<StallAllocationEntity> findWithBookFairById(Long id);
+
+  @Query("""
+      select new com.bookfair.stall_service.dto.response.StallAllocationUserResponse(
+          b.name, h.hallName, s.stallName, s.size, a.stallPrice, a.stallAllocationStatus)
+      from StallAllocationEntity a
+        join a.bookFair b
+        join a.stall s
+        join a.hallStall hs
+        join hs.hallEntity h
+      where a.bookingUserId = :userId
+      order by a.id
+      """)
+  List<StallAllocationUserResponse> findUserAllocations(@Param("userId") Long userId);
+
+  @Query("select a.stall from StallAllocationEntity a where a.bookFair.id = :bookFairId")
+  List<StallEntity> findAllocatedStalls(@Param("bookFairId") Long bookFairId);
+
+  // Everything reservation validation and the confirmation email need, in one round-trip.
+  @Query("""
+      select a from StallAllocationEntity a
+        join fetch a.bookFair
+        join fetch a.stall
+        join fetch a.hallStall hs
+        join fetch hs.hallEntity
+      where a.id in :ids
+      """)
+  List<StallAllocationEntity> findForReservation(@Param("ids") Collection<Long> ids);
+
+  @Query("select a.hallStall.id from StallAllocationEntity a where a.hallStall.id in :hallStallIds")
+  List<Long> findAllocatedHallStallIds(@Param("hallStallIds") Collection<Long> hallStallIds);
+
+  @Query("select distinct a.bookFair.id from StallAllocationEntity a where a.stall.id = :stallId")
+  List<Long> findBookFairIdsByStallId(@Param("stallId") Long stallId);
+
+  @Query("""
+      select a.stall.id from StallAllocationEntity a
+      where a.bookFair.id = :bookFairId
+        and a.stall.id in :stallIds
+      """)
+  List<Long> findAllocatedStallIds(@Param("bookFairId") Long bookFairId,
+      @Param("stallIds") Collection<Long> stallIds);
+
+  // Transaction-scoped advisory lock on (user, fair), held until commit so that two requests
+  // from the same user cannot both pass the per-fair limit. The two-key form keeps these locks
+  // apart from the single-key leader locks; ids that truncate alike only wait for each other.
+  @Query(value = "select 1 from pg_advisory_xact_lock(:userKey, :bookFairKey)",
+      nativeQuery = true)
+  int lockUserBookFair(@Param("userKey") int userKey, @Param("bookFairKey") int bookFairKey);
+
+  @Query("""
+      select count(a) from StallAllocationEntity a
+      where a.bookingUserId = :userId
+        and a.bookFair.id = :bookFairId
+        and a.stallAllocationStatus in :statuses
+      """)
+  long countByUserAndBookFair(@Param("userId") Long userId,
+      @Param("bookFairId") Long bookFairId,
+      @Param("statuses") Collection<StallAllocationStatus> statuses);
+
+  @Query("""
+      select new com.bookfair.stall_service.dto.projection.AllocationRow(
+          a.id, a.bookFair.id, a.hallStall.id, a.stall.id, a.stallPrice,
+          a.stallAllocationStatus, a.bookingUserId, a.reservationToken, a.stall.size)
+      from StallAllocationEntity a
+      where a.bookFair.id = :bookFairId
+      """)
+  List<AllocationRow> findRowsByBookFairId(@Param("bookFairId") Long bookFairId);
+
+  // Conditional status transition: only rows still in the expected status are claimed, so
+  // concurrent callers racing for the same allocation cannot both win it.
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = :to,
+             a.bookingUserId = :userId,
+             a.reservationToken = :token
+       where a.id in :ids
+         and a.stallAllocationStatus = :from
+      """)
+  int claimAllocations(@Param("ids") Collection<Long> ids,
+      @Param("from") StallAllocationStatus from,
+      @Param("to") StallAllocationStatus to,
+      @Param("userId") Long userId,
+      @Param("token") String token);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD,
+             a.bookingUserId = :userId,
+             a.holdExpiresAt = :expiresAt
+       where a.id in :ids
+         and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.PENDING
+      """)
+  int holdAllocations(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+      @Param("expiresAt") Instant expiresAt);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.APPROVED,
+             a.reservationToken = :token,
+             a.holdExpiresAt = null
+       where a.id in :ids
+         and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD
+         and a.bookingUserId = :userId
+         and a.holdExpiresAt > :now
+      """)
+  int confirmHeldAllocations(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+      @Param("token") String token, @Param("now") Instant now);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.PENDING,
+             a.bookingUserId = null,
+             a.holdExpiresAt = null
+       where a.id in :ids
+         and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD
+         and a.bookingUserId = :userId
+      """)
+  int releaseHeldAllocations(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.PENDING,
+             a.bookingUserId = null,
+             a.holdExpiresAt = null
+       where a.id in :ids
+         and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD
+         and a.holdExpiresAt <= :now
+      """)
+  int releaseExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+  @Query("""
+      select new com.bookfair.stall_service.dto.projection.AllocationRow(
+          a.id, a.bookFair.id, a.hallStall.id, a.stall.id, a.stallPrice,
+          a.stallAllocationStatus, a.bookingUserId, a.reservationToken, a.stall.size)
+      from StallAllocationEntity a
+      where a.id in :ids
+      """)
+  List<AllocationRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+  // Row locks for check-in, taken in id order so concurrent batches cannot deadlock.
+  @Query(value = "select id from stall_allocations where id in (:ids) order by id for update",
+      nativeQuery = true)
+  List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(value = """
+      select id from stall_allocations
+      where reservation_token in (:tokens)
+      order by id
+      for update
+      """, nativeQuery = true)
+  List<Long> lockByReservationTokenIn(@Param("tokens") Collection<String> tokens);
+
+  @Modifying(flushAutomatically = true)
+  @Query("""
+      update StallAllocationEntity a
+         set a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.COMPLETED
+       where a.id in :ids
+         and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.APPROVED
+      """)
+  int completeAllocations(@Param("ids") Collection<Long> ids);
+
+  @Query("""
+      select new com.bookfair.stall_service.dto.projection.HeldAllocationRow(a.id, a.holdExpiresAt)
+      from StallAllocationEntity a
+      where a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD
+      """)
+  List<HeldAllocationRow> findHeldAllocations();
+
+  // Transaction-scoped advisory lock, so only one replica sweeps expired holds at a time.
+  @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryHoldSweepLock(@Param("key") long key);
+
+  @Query("""
+      select a.id from StallAllocationEntity a
+      where a.holdExpiresAt <= :now
+        and a.stallAllocationStatus = com.bookfair.stall_service.enums.StallAllocationStatus.HELD
+      order by a.holdExpiresAt
+      """)
+  List<Long> findExpiredHoldIds(@Param("now") Instant now, Limit limit);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = """
+      update stall_allocations a
+         set stall_price = greatest(0, case
+             when :percent then round(a.stall_price * (100 + :amount) / 100.0)
+             else a.stall_price + :amount end)
+      """ + PRICING_RULE_MATCH, nativeQuery = true)
+  int applyPricingRule(@Param("bookFairId") Long bookFairId,
+      @Param("hall") String hall,
+      @Param("size") String size,
+      @Param("ring") String ring,
+      @Param("row") Integer row,
+      @Param("col") Integer column,
+      @Param("percent") boolean percent,
+      @Param("amount") long amount);
+
+  @Query("""
+      select a from StallAllocationEntity a
+      where a.id > :after
+        and (:bookFairId is null or a.bookFair.id = :bookFairId)
+        and (:hallId is null or a.hallStall.hallEntity.id = :hallId)
+        and (:status is null or a.stallAllocationStatus = :status)
+      order by a.id
+      """)
+  List<StallAllocationEntity> findPage(@Param("bookFairId") Long bookFairId,
+      @Param("hallId") Long hallId, @Param("status") StallAllocationStatus status,
+      @Param("after") long after, Limit limit);
+
+  // Server-side cursor for exports; must be consumed inside a transaction
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      select new com.bookfair.stall_service.dto.projection.AllocationExportRow(
+          a.id, a.bookFair.id, h.hallName, hs.id, hs.stallName, s.id, s.stallName, s.size,
+          a.stallPrice, a.stallAllocationStatus, a.bookingUserId, a.reservationToken)
+      from StallAllocationEntity a
+        join a.stall s
+        join a.hallStall hs
+        join hs.hallEntity h
+      where a.bookFair.id = :bookFairId
+        and (:status is null or a.stallAllocationStatus = :status)
+      order by a.id
+      """)
+  Stream<AllocationExportRow> streamExportRows(@Param("bookFairId") Long bookFairId,
+      @Param("status") StallAllocationStatus status);
+}
@@ -1,9 +1,45 @@
 package com.bookfair.stall_service.repository;
 
 import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.Status;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface StallRepository extends JpaRepository<StallEntity, Long> {
 
   boolean existsByStallName(String stallName);
+
+  List<StallEntity> findByStallNameIn(Collection<String> stallNames);
+
+  @Query("select s.stallName from StallEntity s where s.stallName in :names")
+  List<String> findExistingStallNames(@Param("names") Collection<String> names);
+
+  // Anti-join against the fair's allocations, paged by id so each page is an index range scan.
+  @Query("""
+      select s from StallEntity s
+      where s.status <> com.bookfair.stall_service.enums.Status.BLOCKED
+        and (:size is null or s.size = :size)
+        and s.id > :after
+        and not exists (
+          select 1 from StallAllocationEntity a
+          where a.stall = s and a.bookFair.id = :bookFairId)
+      order by s.id
+      """)
+  List<StallEntity> findAvailableForBookFair(@Param("bookFairId") Long bookFairId,
+      @Param("size") Size size, @Param("after") long after, Limit limit);
+
+  @Query("""
+      select s from StallEntity s
+      where s.id > :after
+        and (:status is null or s.status = :status)
+        and (:size is null or s.size = :size)
+      order by s.id
+      """)
+  List<StallEntity> findPage(@Param("status") Status status, @Param("size") Size size,
+      @Param("after") long after, Limit limit);
 }
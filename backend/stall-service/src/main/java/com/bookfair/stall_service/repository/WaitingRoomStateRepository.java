@@ -0,0 +1,32 @@
+package com.bookfair.stall_service.repository;
+
+import com.bookfair.stall_service.entity.WaitingRoomStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WaitingRoomStateRepository extends JpaRepository<WaitingRoomStateEntity, Long> {
+
+  // Transaction-scoped advisory lock, so only one replica admits tickets at a time.
+  @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryAdmissionLock(@Param("key") long key);
+
+  @Modifying
+  @Query(value = """
+      insert into waiting_room_state (id, admitted) values (1, 0) on conflict (id) do nothing
+      """, nativeQuery = true)
+  void ensureState();
+
+  @Query("select s.admitted from WaitingRoomStateEntity s where s.id = 1")
+  long findAdmitted();
+
+  @Modifying
+  @Query("""
+      update WaitingRoomStateEntity s set s.admitted = least(s.admitted + :permits, :issued)
+      where s.id = 1
+      """)
+  int admit(@Param("permits") long permits, @Param("issued") long issued);
+}
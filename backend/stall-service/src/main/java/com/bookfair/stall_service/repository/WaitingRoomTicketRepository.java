@@ -0,0 +1,35 @@
+package com.bookfair.stall_service.repository;
+
+import com.bookfair.stall_service.entity.WaitingRoomTicketEntity;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WaitingRoomTicketRepository extends JpaRepository<WaitingRoomTicketEntity, Long> {
+
+  // Highest ticket number handed out so far; the sequence is not called until the first ticket
+  @Query(value = """
+      select case when is_called then last_value else 0 end from waiting_room_ticket_seq
+      """, nativeQuery = true)
+  long findIssued();
+
+  @Modifying
+  @Query("""
+      update WaitingRoomTicketEntity t set t.lastSeenAt = :now
+      where t.id = :id and t.secret = :secret
+      """)
+  int touch(@Param("id") Long id, @Param("secret") String secret, @Param("now") Instant now);
+
+  // Tickets are single use: only the caller whose delete succeeds is let through
+  @Modifying
+  @Query("delete from WaitingRoomTicketEntity t where t.id = :id and t.secret = :secret")
+  int consume(@Param("id") Long id, @Param("secret") String secret);
+
+  @Modifying
+  @Query("delete from WaitingRoomTicketEntity t where t.lastSeenAt < :cutoff")
+  int deleteAbandoned(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,11 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.enums.ExportFormat;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface AllocationExportService {
+
+  StreamingResponseBody exportAllocations(Long bookFairId, StallAllocationStatus status,
+      ExportFormat format);
+}
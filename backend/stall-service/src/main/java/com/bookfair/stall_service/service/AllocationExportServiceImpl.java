@@ -0,0 +1,117 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.projection.AllocationExportRow;
+import com.bookfair.stall_service.enums.ExportFormat;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams a fair's allocations straight from a database cursor to the response, one row at a
+ * time, so memory stays flat however large the fair is. The first rows are flushed immediately
+ * and then every {@value #FLUSH_EVERY} rows.
+ */
+@Service
+@Slf4j
+public class AllocationExportServiceImpl implements AllocationExportService {
+
+  private static final int FLUSH_EVERY = 500;
+  private static final String CSV_HEADER = "id,bookFairId,hallName,hallStallId,hallStallName,"
+      + "stallId,stallName,stallSize,price,status,bookingUserId,reservationToken";
+
+  private final BookFairRepository bookFairRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  public AllocationExportServiceImpl(BookFairRepository bookFairRepository,
+      StallAllocationRepository stallAllocationRepository,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager) {
+    this.bookFairRepository = bookFairRepository;
+    this.stallAllocationRepository = stallAllocationRepository;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @Override
+  public StreamingResponseBody exportAllocations(Long bookFairId, StallAllocationStatus status,
+      ExportFormat format) {
+    if (!bookFairRepository.existsById(bookFairId)) {
+      throw new IllegalArgumentException("Book Fair not found");
+    }
+    return out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      if (format == ExportFormat.CSV) {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        writer.flush();
+      }
+      long started = System.nanoTime();
+      // Postgres only honours the fetch size inside a transaction
+      Long written = transactionTemplate.execute(tx -> {
+        try (Stream<AllocationExportRow> rows =
+            stallAllocationRepository.streamExportRows(bookFairId, status)) {
+          long count = 0;
+          for (Iterator<AllocationExportRow> it = rows.iterator(); it.hasNext(); ) {
+            writeRow(writer, format, it.next());
+            count++;
+            if (count == 1 || count % FLUSH_EVERY == 0) {
+              writer.flush();
+            }
+          }
+          return count;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      writer.flush();
+      log.info("Exported {} allocations of book fair {} as {} in {} ms", written, bookFairId,
+          format, (System.nanoTime() - started) / 1_000_000);
+    };
+  }
+
+  private void writeRow(Writer writer, ExportFormat format, AllocationExportRow row)
+      throws IOException {
+    if (format == ExportFormat.NDJSON) {
+      writer.write(objectMapper.writeValueAsString(row));
+      writer.write('\n');
+      return;
+    }
+    Object[] values = {row.id(), row.bookFairId(), row.hallName(), row.hallStallId(),
+        row.hallStallName(), row.stallId(), row.stallName(), row.stallSize(), row.price(),
+        row.status(), row.bookingUserId(), row.reservationToken()};
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writer.write(csv(values[i]));
+    }
+    writer.write('\n');
+  }
+
+  private static String csv(Object value) {
+    String text = Objects.toString(value, "");
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0
+        && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return '"' + text.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,39 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.outbox.OutboxPublisher;
+import com.bookfair.stall_service.configuration.RabbitMQConfig;
+import com.bookfair.stall_service.dto.event.BookFairStatusChangedEvent;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import java.time.Instant;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes book fair status changes on {@code bookfair.exchange} with the routing key
+ * {@code bookfair.status.<status>}. Events go through the outbox, so they are only sent once the
+ * change has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookFairEventPublisher {
+
+  private final OutboxPublisher outboxPublisher;
+
+  public void statusChanged(BookFairEntity bookFair, BookFairStatus previousStatus,
+      boolean automatic) {
+    BookFairStatusChangedEvent event = BookFairStatusChangedEvent.builder()
+        .bookFairId(bookFair.getId())
+        .name(bookFair.getName())
+        .previousStatus(previousStatus)
+        .status(bookFair.getStatus())
+        .startDate(bookFair.getStartDate())
+        .endDate(bookFair.getEndDate())
+        .automatic(automatic)
+        .changedAt(Instant.now())
+        .build();
+    outboxPublisher.publish("bookfair", bookFair.getId(), RabbitMQConfig.BOOK_FAIR_EXCHANGE,
+        "bookfair.status." + bookFair.getStatus().name().toLowerCase(Locale.ROOT), event);
+  }
+}
@@ -0,0 +1,91 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves book fairs through their lifecycle by date: UPCOMING fairs become ONGOING on their start
+ * date and ONGOING fairs become COMPLETED the day after their end date. Each run only reads the
+ * fairs that are due, through the (status, date) indexes, and holds a cluster-wide advisory lock
+ * for its transaction, so only one replica changes statuses at a time.
+ */
+@Component
+@Slf4j
+public class BookFairLifecycleScheduler {
+
+  private static final long LIFECYCLE_LOCK_KEY = 0x626f6f6b666169L;
+  private static final int BATCH_SIZE = 100;
+
+  private final BookFairRepository bookFairRepository;
+  private final BookFairEventPublisher bookFairEventPublisher;
+  private final TransactionTemplate transactionTemplate;
+
+  public BookFairLifecycleScheduler(BookFairRepository bookFairRepository,
+      BookFairEventPublisher bookFairEventPublisher,
+      PlatformTransactionManager transactionManager) {
+    this.bookFairRepository = bookFairRepository;
+    this.bookFairEventPublisher = bookFairEventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${book-fair.lifecycle.interval-ms:60000}",
+      initialDelayString = "${book-fair.lifecycle.interval-ms:60000}")
+  public void advance() {
+    try {
+      int changed;
+      do {
+        changed = advanceBatch(LocalDate.now());
+      } while (changed == BATCH_SIZE);
+    } catch (Exception e) {
+      log.error("Book fair lifecycle run failed", e);
+    }
+  }
+
+  private int advanceBatch(LocalDate today) {
+    Integer changed = transactionTemplate.execute(status -> {
+      if (!bookFairRepository.tryLifecycleLock(LIFECYCLE_LOCK_KEY)) {
+        return 0;
+      }
+      List<BookFairEntity> starting = bookFairRepository.findDueToStart(today,
+          Limit.of(BATCH_SIZE));
+      int started = transition(starting, BookFairStatus.ONGOING);
+      if (starting.size() == BATCH_SIZE) {
+        return BATCH_SIZE;
+      }
+      List<BookFairEntity> ending = bookFairRepository.findDueToEnd(today,
+          Limit.of(BATCH_SIZE - starting.size()));
+      return started + transition(ending, BookFairStatus.COMPLETED);
+    });
+    if (changed != null && changed > 0) {
+      log.info("Advanced the status of {} book fairs", changed);
+    }
+    return changed != null ? changed : 0;
+  }
+
+  // A fair whose status was changed by hand since it was read is left alone and not announced.
+  // The update clears the persistence context, so the fairs read are detached from then on.
+  private int transition(List<BookFairEntity> bookFairs, BookFairStatus status) {
+    int changed = 0;
+    for (BookFairEntity bookFair : bookFairs) {
+      BookFairStatus previous = bookFair.getStatus();
+      if (bookFairRepository.updateStatus(bookFair.getId(), previous, status) == 1) {
+        bookFair.setStatus(status);
+        bookFairEventPublisher.statusChanged(bookFair, previous, true);
+        changed++;
+      }
+    }
+    return changed;
+  }
+}
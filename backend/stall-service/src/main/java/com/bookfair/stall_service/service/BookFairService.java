@@ -2,6 +2,7 @@ package com.bookfair.stall_service.service;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateBookFairRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateBookFairRequest;
 import com.bookfair.stall_service.dto.response.BookFairResponse;
 import com.bookfair.stall_service.enums.BookFairStatus;
@@ -13,7 +14,7 @@ public interface BookFairService {
 
   ContentResponse<BookFairResponse> getBookFairById(Long id);
 
-  ContentResponse<List<BookFairResponse>> getAll();
+  ContentResponse<List<BookFairResponse>> getAll(BookFairStatus status, KeysetPageRequest page);
 
   ContentResponse<BookFairResponse> updateBookFair(Long id, UpdateBookFairRequest request);
 
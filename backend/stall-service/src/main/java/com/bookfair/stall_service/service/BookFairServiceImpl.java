@@ -1,13 +1,17 @@
 package com.bookfair.stall_service.service;
 
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.KeysetPage;
 import com.bookfair.stall_service.dto.request.CreateBookFairRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateBookFairRequest;
 import com.bookfair.stall_service.dto.response.BookFairResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
 import com.bookfair.stall_service.enums.BookFairStatus;
 import com.bookfair.stall_service.repository.BookFairRepository;
 import com.bookfair.stall_service.repository.StallAllocationRepository;
+import jakarta.transaction.Transactional;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +22,8 @@ public class BookFairServiceImpl implements BookFairService {
 
   private final BookFairRepository bookFairRepository;
   private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final BookFairEventPublisher bookFairEventPublisher;
 
   @Override
   public ContentResponse<BookFairResponse> createBookFair(
@@ -52,18 +58,18 @@ public class BookFairServiceImpl implements BookFairService {
   }
 
   @Override
-  public ContentResponse<List<BookFairResponse>> getAll() {
-    List<BookFairEntity> bookFairEntities = bookFairRepository.findAll();
-    List<BookFairResponse> bookFairResponses = bookFairEntities.stream()
-        .map(this::mapToRespnse)
-        .toList();
-    return new ContentResponse<>(
-        "BookFair",
-        "Book fairs retrieved successfully",
-        "SUCCESS",
-        "200",
-        bookFairResponses
-    );
+  public ContentResponse<List<BookFairResponse>> getAll(BookFairStatus status,
+      KeysetPageRequest page) {
+    List<BookFairEntity> bookFairEntities = bookFairRepository.findPage(status, page.after(),
+        page.fetchLimit());
+    return KeysetPage.of(bookFairEntities, page, BookFairEntity::getId)
+        .toResponse(
+            "BookFair",
+            "Book fairs retrieved successfully",
+            "SUCCESS",
+            "200",
+            this::mapToRespnse
+        );
   }
 
 
@@ -129,6 +135,7 @@ public class BookFairServiceImpl implements BookFairService {
       throw new IllegalArgumentException("Cannot delete book fair with allocated stalls");
     }
     bookFairRepository.delete(bookFairEntity);
+    stallAvailabilityIndex.evict(id);
     return new ContentResponse<>(
         "BookFair",
         "Book fair deleted successfully",
@@ -139,6 +146,7 @@ public class BookFairServiceImpl implements BookFairService {
   }
 
   @Override
+  @Transactional
   public BookFairResponse setBookFairStatus(Long id, BookFairStatus status) {
     if (!bookFairRepository.existsById(id)) {
       throw new IllegalArgumentException("Book fair not found");
@@ -149,8 +157,14 @@ public class BookFairServiceImpl implements BookFairService {
       throw new IllegalArgumentException(
           "Cannot change status of completed or cancelled book fair");
     }
-    bookFairEntity.setStatus(status);
-    bookFairRepository.save(bookFairEntity);
+    BookFairStatus previous = bookFairEntity.getStatus();
+    if (previous != status) {
+      if (bookFairRepository.updateStatus(id, previous, status) == 0) {
+        throw new IllegalArgumentException("Book fair status changed concurrently, try again");
+      }
+      bookFairEntity.setStatus(status);
+      bookFairEventPublisher.statusChanged(bookFairEntity, previous, false);
+    }
     BookFairResponse bookFairResponse = mapToRespnse(bookFairEntity);
     return bookFairResponse;
 
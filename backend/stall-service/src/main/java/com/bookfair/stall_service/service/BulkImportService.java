@@ -0,0 +1,14 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface BulkImportService {
+
+  ContentResponse<ImportReportResponse> importStalls(MultipartFile file);
+
+  ContentResponse<ImportReportResponse> importHalls(MultipartFile file);
+
+  ContentResponse<ImportReportResponse> importAllocations(MultipartFile file);
+}
@@ -0,0 +1,342 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.AllocationImportRow;
+import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.CreateStallRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Status;
+import com.bookfair.stall_service.importer.ImportRowReader;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.repository.StallRepository;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Imports stalls, halls and allocations from an uploaded CSV or JSON file. Rows are streamed from
+ * the file and handled in chunks of {@value #CHUNK_SIZE}: each chunk is checked against lookup
+ * sets loaded with one IN query per table and its valid rows are written in a single transaction,
+ * so Hibernate sends them as JDBC batches. Invalid rows are reported by row number and do not
+ * stop the rest of the file.
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements BulkImportService {
+
+  private static final int CHUNK_SIZE = 1000;
+  private static final int MAX_REPORTED_ERRORS = 1000;
+
+  private final StallRepository stallRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final HallService hallService;
+  private final StallAllocationService stallAllocationService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final TransactionTemplate transactionTemplate;
+
+  public BulkImportServiceImpl(StallRepository stallRepository,
+      StallAvailabilityIndex stallAvailabilityIndex,
+      StallAllocationRepository stallAllocationRepository,
+      HallService hallService,
+      StallAllocationService stallAllocationService,
+      ObjectMapper objectMapper,
+      Validator validator,
+      PlatformTransactionManager transactionManager) {
+    this.stallRepository = stallRepository;
+    this.stallAvailabilityIndex = stallAvailabilityIndex;
+    this.stallAllocationRepository = stallAllocationRepository;
+    this.hallService = hallService;
+    this.stallAllocationService = stallAllocationService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public ContentResponse<ImportReportResponse> importStalls(MultipartFile file) {
+    return importFile("Stall Import", "stalls", file, CreateStallRequest.class,
+        this::importStallChunk);
+  }
+
+  @Override
+  public ContentResponse<ImportReportResponse> importHalls(MultipartFile file) {
+    return importFile("Hall Import", "halls", file, CreateHallRequest.class,
+        this::importHallChunk);
+  }
+
+  @Override
+  public ContentResponse<ImportReportResponse> importAllocations(MultipartFile file) {
+    return importFile("Stall Allocation Import", "allocations", file, AllocationImportRow.class,
+        this::importAllocationChunk);
+  }
+
+  private void importStallChunk(List<ParsedRow<CreateStallRequest>> chunk, Report report) {
+    Set<String> names = chunk.stream()
+        .map(row -> row.value().getStallName())
+        .collect(Collectors.toSet());
+    Set<String> existing = new HashSet<>(stallRepository.findExistingStallNames(names));
+
+    Set<String> seen = new HashSet<>();
+    List<ParsedRow<CreateStallRequest>> accepted = new ArrayList<>();
+    List<StallEntity> entities = new ArrayList<>();
+    for (ParsedRow<CreateStallRequest> row : chunk) {
+      String name = row.value().getStallName();
+      if (existing.contains(name)) {
+        report.fail(row.number(), "Stall name already exists: " + name);
+      } else if (!seen.add(name)) {
+        report.fail(row.number(), "Stall name appears more than once in the file: " + name);
+      } else {
+        accepted.add(row);
+        entities.add(StallEntity.builder()
+            .stallName(name)
+            .size(row.value().getSize())
+            .description(row.value().getDescription())
+            .status(Status.AVAILABLE)
+            .build());
+      }
+    }
+    if (entities.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(tx -> stallRepository.saveAll(entities));
+      report.imported += entities.size();
+    } catch (DataAccessException e) {
+      String message = "Chunk could not be saved: " + e.getMostSpecificCause().getMessage();
+      accepted.forEach(row -> report.fail(row.number(), message));
+    }
+  }
+
+  // A fair has at most one hall per hall name, so halls go through the regular create path,
+  // which already batches the generated hall stalls.
+  private void importHallChunk(List<ParsedRow<CreateHallRequest>> chunk, Report report) {
+    for (ParsedRow<CreateHallRequest> row : chunk) {
+      try {
+        hallService.createHall(row.value());
+        report.imported++;
+      } catch (IllegalArgumentException e) {
+        report.fail(row.number(), e.getMessage());
+      }
+    }
+  }
+
+  private void importAllocationChunk(List<ParsedRow<AllocationImportRow>> chunk,
+      Report report) {
+    Set<String> stallNames = chunk.stream()
+        .map(row -> row.value().getStallName())
+        .collect(Collectors.toSet());
+    Map<String, StallEntity> stalls = stallRepository.findByStallNameIn(stallNames)
+        .stream()
+        .collect(Collectors.toMap(StallEntity::getStallName, Function.identity()));
+
+    Map<Long, List<ParsedRow<AllocationImportRow>>> byFair = chunk.stream()
+        .collect(Collectors.groupingBy(row -> row.value().getBookFairId(), LinkedHashMap::new,
+            Collectors.toList()));
+    byFair.forEach((bookFairId, rows) -> importFairAllocations(bookFairId, rows, stalls, report));
+  }
+
+  private void importFairAllocations(Long bookFairId, List<ParsedRow<AllocationImportRow>> rows,
+      Map<String, StallEntity> stalls, Report report) {
+    Set<String> hallStallNames = rows.stream()
+        .map(row -> row.value().getHallStallName())
+        .collect(Collectors.toSet());
+    // Names resolve to stored or virtual hall stall ids; virtual ones are stored on allocation
+    Map<String, Long> hallStallIds = stallAvailabilityIndex.find(bookFairId)
+        .map(fair -> fair.hallStallIds(hallStallNames))
+        .orElseGet(Map::of);
+    Set<Long> stallIds = rows.stream()
+        .map(row -> stalls.get(row.value().getStallName()))
+        .filter(Objects::nonNull)
+        .map(StallEntity::getId)
+        .collect(Collectors.toSet());
+    Set<Long> allocatedHallStallIds = hallStallIds.isEmpty() ? Set.of()
+        : new HashSet<>(stallAllocationRepository.findAllocatedHallStallIds(hallStallIds.values()));
+    Set<Long> allocatedStallIds = stallIds.isEmpty() ? Set.of()
+        : new HashSet<>(stallAllocationRepository.findAllocatedStallIds(bookFairId, stallIds));
+
+    Set<Long> seenHallStallIds = new HashSet<>();
+    Set<Long> seenStallIds = new HashSet<>();
+    List<ParsedRow<AllocationImportRow>> accepted = new ArrayList<>();
+    List<HallStallAndStallIdsRequest> items = new ArrayList<>();
+    for (ParsedRow<AllocationImportRow> row : rows) {
+      AllocationImportRow value = row.value();
+      Long hallStallId = hallStallIds.get(value.getHallStallName());
+      StallEntity stall = stalls.get(value.getStallName());
+
+      List<String> errors = new ArrayList<>();
+      if (hallStallId == null) {
+        errors.add("Hall stall " + value.getHallStallName() + " not found in Book Fair "
+            + bookFairId);
+      } else if (allocatedHallStallIds.contains(hallStallId)) {
+        errors.add("Hall stall " + value.getHallStallName() + " is already allocated");
+      } else if (!seenHallStallIds.add(hallStallId)) {
+        errors.add("Hall stall " + value.getHallStallName() + " appears more than once");
+      }
+      if (stall == null) {
+        errors.add("Stall not found: " + value.getStallName());
+      } else if (stall.getStatus() == Status.BLOCKED) {
+        errors.add("Stall " + value.getStallName() + " is blocked and cannot be allocated");
+      } else if (allocatedStallIds.contains(stall.getId())) {
+        errors.add("Stall " + value.getStallName() + " is already allocated in this Book Fair");
+      } else if (!seenStallIds.add(stall.getId())) {
+        errors.add("Stall " + value.getStallName() + " appears more than once");
+      }
+      if (value.getPrice() < 0) {
+        errors.add("Price must be non-negative");
+      }
+
+      if (!errors.isEmpty()) {
+        report.fail(row.number(), String.join(", ", errors));
+        continue;
+      }
+      accepted.add(row);
+      items.add(new HallStallAndStallIdsRequest(hallStallId, stall.getId(), value.getPrice()));
+    }
+    if (items.isEmpty()) {
+      return;
+    }
+    // The allocation service re-checks the rows in its own transaction and keeps the
+    // availability index in step, so anything that changed since the lookups fails the chunk.
+    try {
+      stallAllocationService.createMultipleStallAllocation(
+          new CreateMultipleStallAllocationRequest(bookFairId, items));
+      report.imported += items.size();
+    } catch (IllegalArgumentException | DataAccessException e) {
+      accepted.forEach(row -> report.fail(row.number(), e.getMessage()));
+    }
+  }
+
+  private <T> ContentResponse<ImportReportResponse> importFile(String type, String kind,
+      MultipartFile file, Class<T> rowType, BiConsumer<List<ParsedRow<T>>, Report> importChunk) {
+    if (file == null || file.isEmpty()) {
+      throw new IllegalArgumentException("Import file is empty");
+    }
+    long started = System.nanoTime();
+    Report report = new Report();
+    try (ImportRowReader reader = open(file)) {
+      List<ParsedRow<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+      for (ImportRowReader.Row row = reader.next(); row != null; row = reader.next()) {
+        report.rows++;
+        T value = parse(row, rowType, report);
+        if (value != null) {
+          chunk.add(new ParsedRow<>(row.number(), value));
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          importChunk.accept(chunk, report);
+          chunk = new ArrayList<>(CHUNK_SIZE);
+        }
+      }
+      if (!chunk.isEmpty()) {
+        importChunk.accept(chunk, report);
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read import file: " + e.getMessage());
+    }
+
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+    ImportReportResponse response = ImportReportResponse.builder()
+        .rows(report.rows)
+        .imported(report.imported)
+        .failed(report.failed)
+        .elapsedMillis(elapsedMillis)
+        .rowsPerSecond(report.rows * 1000 / Math.max(elapsedMillis, 1))
+        .errorsTruncated(report.failed > report.errors.size())
+        .errors(report.errors)
+        .build();
+    log.info("Imported {} of {} {} rows in {} ms", report.imported, report.rows, kind,
+        elapsedMillis);
+    return new ContentResponse<>(
+        type,
+        "SUCCESS",
+        "200",
+        "Imported " + report.imported + " of " + report.rows + " rows",
+        response
+    );
+  }
+
+  private ImportRowReader open(MultipartFile file) throws IOException {
+    String name = Objects.toString(file.getOriginalFilename(), "").toLowerCase(Locale.ROOT);
+    String contentType = Objects.toString(file.getContentType(), "");
+    InputStream in = file.getInputStream();
+    if (name.endsWith(".json") || name.endsWith(".ndjson") || contentType.contains("json")) {
+      return ImportRowReader.json(in, objectMapper);
+    }
+    return ImportRowReader.csv(in);
+  }
+
+  private <T> T parse(ImportRowReader.Row row, Class<T> rowType, Report report) {
+    if (row.error() != null) {
+      report.fail(row.number(), row.error());
+      return null;
+    }
+    T value;
+    try {
+      value = objectMapper.convertValue(row.values(), rowType);
+    } catch (IllegalArgumentException e) {
+      report.fail(row.number(), describe(e));
+      return null;
+    }
+    Set<ConstraintViolation<T>> violations = validator.validate(value);
+    if (!violations.isEmpty()) {
+      report.fail(row.number(), violations.stream()
+          .map(ConstraintViolation::getMessage)
+          .sorted()
+          .collect(Collectors.joining(", ")));
+      return null;
+    }
+    return value;
+  }
+
+  private static String describe(IllegalArgumentException e) {
+    if (e.getCause() instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+      String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+      return "Invalid value for " + field;
+    }
+    return "Invalid row";
+  }
+
+  private record ParsedRow<T>(long number, T value) {
+
+  }
+
+  private static final class Report {
+
+    private final List<ImportReportResponse.RowError> errors = new ArrayList<>();
+    private long rows;
+    private long imported;
+    private long failed;
+
+    void fail(long row, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new ImportReportResponse.RowError(row, message));
+      }
+    }
+  }
+}
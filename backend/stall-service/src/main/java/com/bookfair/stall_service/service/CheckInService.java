@@ -0,0 +1,19 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.CheckInReconcileRequest;
+import com.bookfair.stall_service.dto.request.CheckInRequest;
+import com.bookfair.stall_service.dto.response.CheckInResponse;
+import com.bookfair.stall_service.dto.response.CheckInSnapshotResponse;
+import com.bookfair.stall_service.dto.response.CheckInStatsResponse;
+
+public interface CheckInService {
+
+  ContentResponse<CheckInResponse> checkIn(CheckInRequest request);
+
+  ContentResponse<CheckInStatsResponse> getStats(Long bookFairId);
+
+  ContentResponse<CheckInSnapshotResponse> getSnapshot(Long bookFairId);
+
+  ContentResponse<CheckInResponse> reconcile(CheckInReconcileRequest request);
+}
@@ -0,0 +1,348 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.cache.CheckInCounters;
+import com.bookfair.stall_service.cache.FairAvailability;
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.request.CheckInReconcileRequest;
+import com.bookfair.stall_service.dto.request.CheckInRequest;
+import com.bookfair.stall_service.dto.response.CheckInResponse;
+import com.bookfair.stall_service.dto.response.CheckInResult;
+import com.bookfair.stall_service.dto.response.CheckInSnapshotResponse;
+import com.bookfair.stall_service.dto.response.CheckInStatsResponse;
+import com.bookfair.stall_service.enums.CheckInStatus;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gate check-in in batches. Signatures are verified and rescans answered from a recent-scan cache
+ * without touching the database; the remaining tokens are locked, classified and moved to
+ * COMPLETED with a single set-based update per batch.
+ */
+@Service
+@Slf4j
+public class CheckInServiceImpl implements CheckInService {
+
+  private static final int BATCH_SIZE = 500;
+  private static final Set<CheckInStatus> FINAL_STATUSES = Set.of(
+      CheckInStatus.CHECKED_IN, CheckInStatus.ALREADY_CHECKED_IN, CheckInStatus.INVALID);
+
+  private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final ReservationTokenSigner reservationTokenSigner;
+  private final CheckInCounters checkInCounters;
+  private final TransactionTemplate transactionTemplate;
+  private final Cache<String, CheckInResult> recentScans;
+
+  public CheckInServiceImpl(StallAllocationRepository stallAllocationRepository,
+      StallAvailabilityIndex stallAvailabilityIndex,
+      ReservationTokenSigner reservationTokenSigner,
+      CheckInCounters checkInCounters,
+      PlatformTransactionManager transactionManager,
+      @Value("${check-in.recent-scan-ttl-seconds:600}") long recentScanTtlSeconds,
+      @Value("${check-in.recent-scan-max-size:200000}") long recentScanMaxSize) {
+    this.stallAllocationRepository = stallAllocationRepository;
+    this.stallAvailabilityIndex = stallAvailabilityIndex;
+    this.reservationTokenSigner = reservationTokenSigner;
+    this.checkInCounters = checkInCounters;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.recentScans = Caffeine.newBuilder()
+        .maximumSize(recentScanMaxSize)
+        .expireAfterWrite(Duration.ofSeconds(recentScanTtlSeconds))
+        .build();
+  }
+
+  @Override
+  public ContentResponse<CheckInResponse> checkIn(CheckInRequest request) {
+    List<CheckInResult> results = process(request.getBookFairId(), request.getTokens());
+    return toResponse(results);
+  }
+
+  /**
+   * Applies check-ins buffered by a gate that validated offline against a snapshot. Tokens that
+   * were already checked in are reported as such, so replaying a buffer is harmless.
+   */
+  @Override
+  public ContentResponse<CheckInResponse> reconcile(CheckInReconcileRequest request) {
+    List<String> tokens = request.getTokens().stream().distinct().toList();
+    List<CheckInResult> results = new ArrayList<>(tokens.size());
+    for (int from = 0; from < tokens.size(); from += BATCH_SIZE) {
+      results.addAll(process(request.getBookFairId(),
+          tokens.subList(from, Math.min(from + BATCH_SIZE, tokens.size()))));
+    }
+    log.info("Reconciled {} buffered check-ins from device {} (snapshot {})", tokens.size(),
+        request.getDeviceId(), request.getSnapshotVersion());
+    return toResponse(results);
+  }
+
+  @Override
+  public ContentResponse<CheckInSnapshotResponse> getSnapshot(Long bookFairId) {
+    FairAvailability fair = stallAvailabilityIndex.find(bookFairId)
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Book Fair with ID " + bookFairId + " does not exist"));
+    Map<String, Boolean> gateTokens = fair.gateTokens();
+
+    // 64-bit prefixes collide only in theory; a collision merges the two entries
+    Map<Long, Boolean> approvedByHash = new HashMap<>();
+    gateTokens.forEach((token, pending) ->
+        approvedByHash.merge(tokenHash(token), pending, Boolean::logicalOr));
+    long[] hashes = approvedByHash.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+    ByteBuffer hashBytes = ByteBuffer.allocate(hashes.length * Long.BYTES);
+    BitSet approved = new BitSet(hashes.length);
+    for (int i = 0; i < hashes.length; i++) {
+      hashBytes.putLong(hashes[i]);
+      if (approvedByHash.get(hashes[i])) {
+        approved.set(i);
+      }
+    }
+    byte[] bitset = approved.toByteArray();
+
+    CheckInSnapshotResponse response = CheckInSnapshotResponse.builder()
+        .bookFairId(bookFairId)
+        .version(version(hashBytes.array(), bitset))
+        .generatedAt(Instant.now())
+        .tokenCount(hashes.length)
+        .tokenHashes(Base64.getEncoder().encodeToString(hashBytes.array()))
+        .approvedBitset(Base64.getEncoder().encodeToString(bitset))
+        .build();
+    return new ContentResponse<>(
+        "CheckInSnapshot",
+        "SUCCESS",
+        "200",
+        "Check-in snapshot generated successfully",
+        response
+    );
+  }
+
+  private List<CheckInResult> process(Long bookFairId, List<String> requestedTokens) {
+    List<String> tokens = requestedTokens.stream().distinct().toList();
+    Map<String, CheckInResult> results = new HashMap<>();
+    Map<String, List<Long>> signedTokens = new LinkedHashMap<>();
+    List<String> legacyTokens = new ArrayList<>();
+
+    for (String token : tokens) {
+      CheckInResult recent = recentScans.getIfPresent(token);
+      if (recent != null) {
+        results.put(token, rescan(recent, bookFairId));
+        continue;
+      }
+      Optional<ReservationTokenSigner.Claims> claims;
+      try {
+        claims = reservationTokenSigner.verify(token);
+      } catch (IllegalArgumentException e) {
+        results.put(token, result(token, CheckInStatus.INVALID, bookFairId, null, List.of()));
+        continue;
+      }
+      if (claims.isEmpty()) {
+        legacyTokens.add(token);
+      } else if (bookFairId != null && !bookFairId.equals(claims.get().bookFairId())) {
+        results.put(token, result(token, CheckInStatus.WRONG_BOOK_FAIR, bookFairId,
+            claims.get().userId(), List.of()));
+      } else {
+        signedTokens.put(token, claims.get().allocationIds());
+      }
+    }
+
+    if (!signedTokens.isEmpty() || !legacyTokens.isEmpty()) {
+      results.putAll(transactionTemplate.execute(
+          status -> transition(signedTokens, legacyTokens, bookFairId)));
+    }
+
+    // Only committed outcomes are cached and counted
+    List<CheckInResult> ordered = tokens.stream().map(results::get).toList();
+    for (CheckInResult result : ordered) {
+      if (FINAL_STATUSES.contains(result.getStatus()) && !recentScans.asMap()
+          .containsKey(result.getToken())) {
+        recentScans.put(result.getToken(), result);
+      }
+      checkInCounters.record(result.getBookFairId(), result.getStatus());
+    }
+    return ordered;
+  }
+
+  private ContentResponse<CheckInResponse> toResponse(List<CheckInResult> results) {
+    Map<CheckInStatus, Long> counts = results.stream()
+        .collect(Collectors.groupingBy(CheckInResult::getStatus, Collectors.counting()));
+    int checkedIn = counts.getOrDefault(CheckInStatus.CHECKED_IN, 0L).intValue();
+    int alreadyCheckedIn = counts.getOrDefault(CheckInStatus.ALREADY_CHECKED_IN, 0L).intValue();
+    CheckInResponse response = CheckInResponse.builder()
+        .checkedIn(checkedIn)
+        .alreadyCheckedIn(alreadyCheckedIn)
+        .rejected(results.size() - checkedIn - alreadyCheckedIn)
+        .results(results)
+        .build();
+    return new ContentResponse<>(
+        "CheckIn",
+        "SUCCESS",
+        "200",
+        checkedIn + " of " + results.size() + " reservations checked in",
+        response
+    );
+  }
+
+  @Override
+  public ContentResponse<CheckInStatsResponse> getStats(Long bookFairId) {
+    FairAvailability fair = stallAvailabilityIndex.find(bookFairId)
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Book Fair with ID " + bookFairId + " does not exist"));
+    CheckInStatsResponse response = CheckInStatsResponse.builder()
+        .bookFairId(bookFairId)
+        .checkedInStalls(fair.countByStatus(StallAllocationStatus.COMPLETED))
+        .awaitingStalls(fair.countByStatus(StallAllocationStatus.APPROVED))
+        .scans(checkInCounters.scans(bookFairId))
+        .checkIns(checkInCounters.checkIns(bookFairId))
+        .duplicateScans(checkInCounters.duplicates(bookFairId))
+        .rejectedScans(checkInCounters.rejected(bookFairId))
+        .build();
+    return new ContentResponse<>(
+        "CheckInStats",
+        "SUCCESS",
+        "200",
+        "Check-in statistics fetched successfully",
+        response
+    );
+  }
+
+  private Map<String, CheckInResult> transition(Map<String, List<Long>> signedTokens,
+      List<String> legacyTokens, Long bookFairId) {
+    List<Long> lockedIds = new ArrayList<>();
+    List<Long> signedIds = signedTokens.values().stream()
+        .flatMap(List::stream)
+        .distinct()
+        .toList();
+    if (!signedIds.isEmpty()) {
+      lockedIds.addAll(stallAllocationRepository.lockByIdIn(signedIds));
+    }
+    if (!legacyTokens.isEmpty()) {
+      lockedIds.addAll(stallAllocationRepository.lockByReservationTokenIn(legacyTokens));
+    }
+    Map<String, List<AllocationRow>> rowsByToken = lockedIds.isEmpty()
+        ? Map.of()
+        : stallAllocationRepository.findRowsByIdIn(lockedIds).stream()
+            .filter(row -> row.reservationToken() != null)
+            .collect(Collectors.groupingBy(AllocationRow::reservationToken));
+
+    Map<String, CheckInResult> results = new HashMap<>();
+    List<AllocationRow> toComplete = new ArrayList<>();
+    List<String> pending = new ArrayList<>(signedTokens.keySet());
+    pending.addAll(legacyTokens);
+    for (String token : pending) {
+      List<AllocationRow> rows = rowsByToken.getOrDefault(token, List.of());
+      CheckInResult result = classify(token, rows, bookFairId);
+      if (result.getStatus() == CheckInStatus.CHECKED_IN) {
+        rows.stream()
+            .filter(row -> row.status() == StallAllocationStatus.APPROVED)
+            .forEach(toComplete::add);
+      }
+      results.put(token, result);
+    }
+
+    if (!toComplete.isEmpty()) {
+      List<Long> ids = toComplete.stream().map(AllocationRow::id).toList();
+      int completed = stallAllocationRepository.completeAllocations(ids);
+      if (completed != ids.size()) {
+        throw new IllegalStateException(
+            "Check-in updated " + completed + " of " + ids.size() + " locked allocations");
+      }
+      stallAvailabilityIndex.allocationsChanged(toComplete);
+    }
+    return results;
+  }
+
+  private CheckInResult classify(String token, List<AllocationRow> rows, Long bookFairId) {
+    if (rows.isEmpty()) {
+      return result(token, CheckInStatus.NOT_FOUND, bookFairId, null, List.of());
+    }
+    AllocationRow first = rows.get(0);
+    List<Long> ids = rows.stream().map(AllocationRow::id).toList();
+    if (bookFairId != null && !bookFairId.equals(first.bookFairId())) {
+      return result(token, CheckInStatus.WRONG_BOOK_FAIR, bookFairId, first.bookingUserId(),
+          List.of());
+    }
+    CheckInStatus status;
+    if (rows.stream().anyMatch(row -> row.status() == StallAllocationStatus.APPROVED)) {
+      status = CheckInStatus.CHECKED_IN;
+    } else if (rows.stream().allMatch(row -> row.status() == StallAllocationStatus.COMPLETED)) {
+      status = CheckInStatus.ALREADY_CHECKED_IN;
+    } else {
+      status = CheckInStatus.NOT_APPROVED;
+    }
+    return result(token, status, first.bookFairId(), first.bookingUserId(), ids);
+  }
+
+  private CheckInResult rescan(CheckInResult recent, Long bookFairId) {
+    if (recent.getStatus() == CheckInStatus.INVALID) {
+      return recent.toBuilder().bookFairId(bookFairId).build();
+    }
+    if (bookFairId != null && recent.getBookFairId() != null
+        && !bookFairId.equals(recent.getBookFairId())) {
+      return result(recent.getToken(), CheckInStatus.WRONG_BOOK_FAIR, bookFairId,
+          recent.getUserId(), List.of());
+    }
+    if (recent.getStatus() == CheckInStatus.CHECKED_IN) {
+      return recent.toBuilder().status(CheckInStatus.ALREADY_CHECKED_IN).build();
+    }
+    return recent;
+  }
+
+  // First 8 bytes of SHA-256, the same prefix gate devices compute for a scanned token
+  private static long tokenHash(String token) {
+    return ByteBuffer.wrap(sha256(token.getBytes(StandardCharsets.UTF_8))).getLong();
+  }
+
+  private static String version(byte[] hashes, byte[] bitset) {
+    MessageDigest digest = sha256Digest();
+    digest.update(hashes);
+    digest.update(bitset);
+    return HexFormat.of().formatHex(digest.digest(), 0, 8);
+  }
+
+  private static byte[] sha256(byte[] input) {
+    return sha256Digest().digest(input);
+  }
+
+  private static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private CheckInResult result(String token, CheckInStatus status, Long bookFairId, Long userId,
+      List<Long> stallAllocationIds) {
+    return CheckInResult.builder()
+        .token(token)
+        .status(status)
+        .bookFairId(bookFairId)
+        .userId(userId)
+        .stallAllocationIds(stallAllocationIds)
+        .build();
+  }
+}
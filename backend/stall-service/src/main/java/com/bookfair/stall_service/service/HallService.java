@@ -2,8 +2,12 @@ package com.bookfair.stall_service.service;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.HallLayoutRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.response.HallLayoutResponse;
 import com.bookfair.stall_service.dto.response.HallResponse;
 import com.bookfair.stall_service.dto.response.HallSizeResponse;
+import com.bookfair.stall_service.enums.Hall;
 import java.util.List;
 
 
@@ -11,7 +15,8 @@ public interface HallService {
 
   ContentResponse<HallResponse> createHall(CreateHallRequest request);
 
-  ContentResponse<List<HallResponse>> getAllHalls();
+  ContentResponse<List<HallResponse>> getAllHalls(Long bookFairId, Hall hallName,
+      KeysetPageRequest page);
 
   ContentResponse<HallResponse> getHallById(Long id);
 
@@ -19,6 +24,12 @@ public interface HallService {
 
   ContentResponse<HallResponse> updateHall(Long id, CreateHallRequest request);
 
+  /**
+   * Changes the geometry of a hall, keeping stored hall stalls at their position and deleting
+   * the ones that fall outside it. Fails when an allocated hall stall would be removed.
+   */
+  ContentResponse<HallLayoutResponse> relayoutHall(Long id, HallLayoutRequest request);
+
   HallSizeResponse getHallsize(Long bookFairId);
 
   List<HallResponse> getHallsByBookfairId(Long bookFairId);
@@ -1,7 +1,12 @@
 package com.bookfair.stall_service.service;
 
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.KeysetPage;
 import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.HallLayoutRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.response.HallLayoutResponse;
 import com.bookfair.stall_service.dto.response.HallResponse;
 import com.bookfair.stall_service.dto.response.HallSizeResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
@@ -9,11 +14,18 @@ import com.bookfair.stall_service.entity.HallEntity;
 import com.bookfair.stall_service.entity.HallStallEntity;
 import com.bookfair.stall_service.enums.BookFairStatus;
 import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.layout.HallGeometry;
 import com.bookfair.stall_service.repository.BookFairRepository;
 import com.bookfair.stall_service.repository.HallRepository;
 import com.bookfair.stall_service.repository.HallStallRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import jakarta.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -24,12 +36,12 @@ public class HallServiceImpl implements HallService {
   private final HallRepository hallRepository;
   private final BookFairRepository bookFairRepository;
   private final HallStallRepository hallStallRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
 
+  // Only the geometry is stored; hall stalls are derived from it (see HallGeometry)
   @Override
   public ContentResponse<HallResponse> createHall(CreateHallRequest request) {
-    if (request.getOuterRing() < request.getInnerRing()) {
-      throw new IllegalArgumentException("Inner ring stalls cannot be more than outer ring stalls");
-    }
     if (!bookFairRepository.existsById(request.getBookFairId())) {
       throw new IllegalArgumentException("Book fair ID does not exist");
     }
@@ -37,16 +49,8 @@ public class HallServiceImpl implements HallService {
         request.getHallName())) {
       throw new IllegalArgumentException("Hall with this name already exists in the book fair");
     }
-    int hallSize = 0;
-    if (request.getRow() > 0 && request.getColumn() > 0 && request.getInnerRing() == 0
-        && request.getOuterRing() == 0) {
-      hallSize = request.getRow() * request.getColumn();
-    } else if (request.getInnerRing() > 0 && request.getOuterRing() > 0 && request.getRow() == 0
-        && request.getColumn() == 0) {
-      hallSize = request.getInnerRing() + request.getOuterRing();
-    } else {
-      throw new IllegalArgumentException("Invalid hall size configuration");
-    }
+    int hallSize = hallSize(request.getRow(), request.getColumn(), request.getInnerRing(),
+        request.getOuterRing());
 
     BookFairEntity bookFairEntity = bookFairRepository.findById(request.getBookFairId()).get();
     if (!bookFairEntity.getStatus().equals(BookFairStatus.UPCOMING)) {
@@ -62,9 +66,7 @@ public class HallServiceImpl implements HallService {
         .hallSize(hallSize)
         .build();
     hallRepository.save(hallEntity);
-
-    List<HallStallEntity> hallStall = generateHallStalls(hallEntity, request);
-    hallStallRepository.saveAll(hallStall);
+    stallAvailabilityIndex.evict(bookFairEntity.getId());
 
     HallResponse hallResponse = mapToResponse(hallEntity);
     return new ContentResponse<>(
@@ -77,18 +79,18 @@ public class HallServiceImpl implements HallService {
   }
 
   @Override
-  public ContentResponse<List<HallResponse>> getAllHalls() {
-    List<HallEntity> hallEntities = hallRepository.findAll();
-    List<HallResponse> hallResponses = hallEntities.stream()
-        .map(this::mapToResponse)
-        .toList();
-    return new ContentResponse<>(
-        "Hall",
-        "SUCCESS",
-        "200",
-        "Halls retrieved successfully",
-        hallResponses
-    );
+  public ContentResponse<List<HallResponse>> getAllHalls(Long bookFairId, Hall hallName,
+      KeysetPageRequest page) {
+    List<HallEntity> hallEntities = hallRepository.findPage(bookFairId, hallName, page.after(),
+        page.fetchLimit());
+    return KeysetPage.of(hallEntities, page, HallEntity::getId)
+        .toResponse(
+            "Hall",
+            "SUCCESS",
+            "200",
+            "Halls retrieved successfully",
+            this::mapToResponse
+        );
   }
 
   @Override
@@ -109,10 +111,10 @@ public class HallServiceImpl implements HallService {
 
   @Override
   public ContentResponse<Void> deleteHallById(Long id) {
-    if (!hallRepository.existsById(id)) {
-      throw new IllegalArgumentException("Hall not found");
-    }
-    hallRepository.deleteById(id);
+    HallEntity hallEntity = hallRepository.findById(id)
+        .orElseThrow(() -> new IllegalArgumentException("Hall not found"));
+    hallRepository.delete(hallEntity);
+    stallAvailabilityIndex.evict(hallEntity.getBookFair().getId());
     return new ContentResponse<>(
         "Hall",
         "SUCCESS",
@@ -123,34 +125,17 @@ public class HallServiceImpl implements HallService {
   }
 
   @Override
+  @Transactional
   public ContentResponse<HallResponse> updateHall(Long id, CreateHallRequest request) {
-    if (!hallRepository.existsById(id)) {
-      throw new IllegalArgumentException("Hall not found");
-    }
-    if (!bookFairRepository.existsById(request.getBookFairId())) {
-      throw new IllegalArgumentException("Book fair ID does not exist");
-    }
-    if (request.getOuterRing() > request.getInnerRing()) {
-      throw new IllegalArgumentException("Outer ring stalls cannot be more than inner ring stalls");
-    }
-    HallEntity hallEntity = hallRepository.findById(id).get();
-    BookFairEntity bookFairEntity = bookFairRepository.findById(request.getBookFairId()).get();
-    hallEntity.setBookFair(bookFairEntity);
-    hallEntity.setHallName(request.getHallName());
-    hallEntity.setRows(request.getRow());
-    hallEntity.setColumns(request.getColumn());
-    hallEntity.setInnerRing(request.getInnerRing());
-    hallEntity.setOuterRing(request.getOuterRing());
-    int hallSize = 0;
-    if (request.getRow() > 0 && request.getColumn() > 0) {
-      hallSize = request.getRow() * request.getColumn();
-    } else if (request.getInnerRing() > 0 && request.getOuterRing() > 0) {
-      hallSize = request.getInnerRing() + request.getOuterRing();
-    } else {
-      throw new IllegalArgumentException("Invalid hall size configuration");
-    }
-    hallEntity.setHallSize(hallSize);
-    hallRepository.save(hallEntity);
+    HallEntity hallEntity = hallRepository.findById(id)
+        .orElseThrow(() -> new IllegalArgumentException("Hall not found"));
+    BookFairEntity bookFairEntity = bookFairRepository.findById(request.getBookFairId())
+        .orElseThrow(() -> new IllegalArgumentException("Book fair ID does not exist"));
+    Long previousBookFairId = hallEntity.getBookFair().getId();
+    relayout(hallEntity, bookFairEntity, request.getHallName(), request.getRow(),
+        request.getColumn(), request.getInnerRing(), request.getOuterRing(), false);
+    stallAvailabilityIndex.evict(previousBookFairId);
+    stallAvailabilityIndex.evict(bookFairEntity.getId());
     HallResponse hallResponse = mapToResponse(hallEntity);
     return new ContentResponse<>(
         "Hall",
@@ -161,6 +146,139 @@ public class HallServiceImpl implements HallService {
     );
   }
 
+  @Override
+  @Transactional
+  public ContentResponse<HallLayoutResponse> relayoutHall(Long id, HallLayoutRequest request) {
+    HallEntity hallEntity = hallRepository.findById(id)
+        .orElseThrow(() -> new IllegalArgumentException("Hall not found"));
+    HallLayoutResponse response = relayout(hallEntity, hallEntity.getBookFair(),
+        hallEntity.getHallName(), request.getRow(), request.getColumn(), request.getInnerRing(),
+        request.getOuterRing(), request.isDryRun());
+    if (response.isApplied()) {
+      stallAvailabilityIndex.evict(hallEntity.getBookFair().getId());
+    }
+    return new ContentResponse<>(
+        "Hall",
+        "SUCCESS",
+        "200",
+        response.isApplied() ? "Hall re-laid out successfully" : "Hall re-layout preview computed",
+        response
+    );
+  }
+
+  /**
+   * Diffs the stored hall stalls of the hall against the new geometry. Slots without a stored row
+   * are virtual, so growing a hall writes nothing but the hall itself; stored rows keep their id
+   * and are only rewritten when their slot index, name or book fair changes.
+   */
+  private HallLayoutResponse relayout(HallEntity hallEntity, BookFairEntity bookFairEntity,
+      Hall hallName, int rows, int columns, int innerRing, int outerRing, boolean dryRun) {
+    int hallSize = hallSize(rows, columns, innerRing, outerRing);
+    HallGeometry before = HallGeometry.of(hallEntity);
+    HallGeometry after = new HallGeometry(hallEntity.getId(), hallName, rows, columns, innerRing,
+        outerRing);
+    boolean fairChanged = !bookFairEntity.getId().equals(hallEntity.getBookFair().getId());
+
+    List<HallStallEntity> stored = hallStallRepository.findByHallEntityId(hallEntity.getId())
+        .stream()
+        .filter(hallStall -> hallStall.getSlotIndex() != null)
+        .toList();
+    Set<Long> allocated = stored.isEmpty() ? Set.of() : new HashSet<>(
+        stallAllocationRepository.findAllocatedHallStallIds(stored.stream()
+            .map(HallStallEntity::getId)
+            .toList()));
+
+    List<HallStallEntity> removed = new ArrayList<>();
+    List<HallStallEntity> changed = new ArrayList<>();
+    List<HallLayoutResponse.SlotMove> moves = new ArrayList<>();
+    List<String> conflicts = new ArrayList<>();
+    Map<Long, Integer> targetSlots = new HashMap<>();
+    for (HallStallEntity hallStall : stored) {
+      int from = hallStall.getSlotIndex();
+      int to = after.indexOf(before.slot(from));
+      boolean isAllocated = allocated.contains(hallStall.getId());
+      if (to < 0) {
+        if (isAllocated) {
+          conflicts.add(hallStall.getStallName());
+        }
+        removed.add(hallStall);
+        continue;
+      }
+      if (fairChanged && isAllocated) {
+        conflicts.add(hallStall.getStallName());
+      }
+      String name = after.name(to);
+      if (to != from || !name.equals(hallStall.getStallName())) {
+        moves.add(HallLayoutResponse.SlotMove.builder()
+            .hallStallId(hallStall.getId())
+            .fromName(hallStall.getStallName())
+            .toName(name)
+            .fromSlotIndex(from)
+            .toSlotIndex(to)
+            .build());
+      }
+      if (to != from || !name.equals(hallStall.getStallName()) || fairChanged) {
+        changed.add(hallStall);
+        targetSlots.put(hallStall.getId(), to);
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Cannot re-layout hall, these hall stalls have allocations: "
+              + String.join(", ", conflicts));
+    }
+
+    if (!dryRun) {
+      hallStallRepository.deleteAllByIdInBatch(removed.stream()
+          .map(HallStallEntity::getId)
+          .toList());
+      // Slot indexes are unique per hall and rows can swap positions, so moved rows first step
+      // aside to negative indexes and then take their final one; each step is one JDBC batch.
+      for (HallStallEntity hallStall : changed) {
+        hallStall.setSlotIndex(-1 - targetSlots.get(hallStall.getId()));
+      }
+      hallStallRepository.saveAllAndFlush(changed);
+      for (HallStallEntity hallStall : changed) {
+        int to = targetSlots.get(hallStall.getId());
+        hallStall.setSlotIndex(to);
+        hallStall.setStallName(after.name(to));
+        hallStall.setBookFair(bookFairEntity);
+      }
+      hallStallRepository.saveAll(changed);
+
+      hallEntity.setBookFair(bookFairEntity);
+      hallEntity.setHallName(hallName);
+      hallEntity.setRows(rows);
+      hallEntity.setColumns(columns);
+      hallEntity.setInnerRing(innerRing);
+      hallEntity.setOuterRing(outerRing);
+      hallEntity.setHallSize(hallSize);
+      hallRepository.save(hallEntity);
+    }
+
+    return HallLayoutResponse.builder()
+        .applied(!dryRun)
+        .hall(mapToResponse(hallEntity))
+        .slotsBefore(before.size())
+        .slotsAfter(after.size())
+        .moved(moves)
+        .removed(removed.stream().map(HallStallEntity::getStallName).toList())
+        .build();
+  }
+
+  private static int hallSize(int rows, int columns, int innerRing, int outerRing) {
+    if (outerRing < innerRing) {
+      throw new IllegalArgumentException("Inner ring stalls cannot be more than outer ring stalls");
+    }
+    if (rows > 0 && columns > 0 && innerRing == 0 && outerRing == 0) {
+      return rows * columns;
+    }
+    if (innerRing > 0 && outerRing > 0 && rows == 0 && columns == 0) {
+      return innerRing + outerRing;
+    }
+    throw new IllegalArgumentException("Invalid hall size configuration");
+  }
+
   @Override
   public HallSizeResponse getHallsize(Long bookFairId) {
     List<HallEntity> hallEntities = hallRepository.findByBookFairId(bookFairId);
@@ -228,41 +346,4 @@ public class HallServiceImpl implements HallService {
         .hallSize(hallEntity.getHallSize())
         .build();
   }
-
-  private List<HallStallEntity> generateHallStalls(HallEntity hallEntity,
-      CreateHallRequest request) {
-    List<HallStallEntity> hallStalls = new ArrayList<>();
-    Hall hallName = hallEntity.getHallName();
-
-    if (request.getRow() > 0 && request.getColumn() > 0) {
-      for (int r = 1; r <= request.getRow(); r++) {
-        for (int c = 1; c <= request.getColumn(); c++) {
-          String stallLocation = hallName + "-R" + r + "C" + c;
-          hallStalls.add(HallStallEntity.builder()
-              .hallEntity(hallEntity)
-              .stallName(stallLocation)
-              .bookFair(hallEntity.getBookFair())
-              .build());
-        }
-      }
-    } else if (request.getInnerRing() > 0 && request.getOuterRing() > 0) {
-      for (int i = 1; i <= request.getInnerRing(); i++) {
-        String stallLocation = hallName + "-IR" + i;
-        hallStalls.add(HallStallEntity.builder()
-            .hallEntity(hallEntity)
-            .stallName(stallLocation)
-            .bookFair(hallEntity.getBookFair())
-            .build());
-      }
-      for (int o = 1; o <= request.getOuterRing(); o++) {
-        String stallLocation = hallName + "-OR" + o;
-        hallStalls.add(HallStallEntity.builder()
-            .hallEntity(hallEntity)
-            .stallName(stallLocation)
-            .bookFair(hallEntity.getBookFair())
-            .build());
-      }
-    }
-    return hallStalls;
-  }
 }
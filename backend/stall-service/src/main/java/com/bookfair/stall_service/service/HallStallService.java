@@ -4,12 +4,29 @@ import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateHallRequest;
 import com.bookfair.stall_service.dto.response.HallResponse;
 import com.bookfair.stall_service.dto.response.HallSizeResponse;
+import com.bookfair.stall_service.dto.response.FloorPlanResponse;
 import com.bookfair.stall_service.dto.response.HallStallResponse;
+import com.bookfair.stall_service.entity.HallStallEntity;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 
 public interface HallStallService {
 
   List<HallStallResponse> getHallStallsByBookFairId(Long bookFairId);
 
+  /**
+   * Geometry, slot names, allocation status and price of every hall of the fair. The plan is
+   * rendered once per snapshot version and served from cache until the fair changes.
+   */
+  ContentResponse<FloorPlanResponse> getFloorPlan(Long bookFairId);
+
+  /**
+   * Hall stall rows for the given stored or virtual ids, keyed by the requested id. A row is
+   * stored for every virtual id that does not have one yet; ids that do not name a hall stall are
+   * left out.
+   */
+  Map<Long, HallStallEntity> materialize(Collection<Long> hallStallIds);
+
 }
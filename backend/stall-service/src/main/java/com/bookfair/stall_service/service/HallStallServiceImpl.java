@@ -1,7 +1,10 @@
 package com.bookfair.stall_service.service;
 
+import com.bookfair.stall_service.cache.FairAvailability;
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.response.FloorPlanResponse;
 import com.bookfair.stall_service.dto.response.HallResponse;
 import com.bookfair.stall_service.dto.response.HallSizeResponse;
 import com.bookfair.stall_service.dto.response.HallStallResponse;
@@ -10,38 +13,150 @@ import com.bookfair.stall_service.entity.HallEntity;
 import com.bookfair.stall_service.entity.HallStallEntity;
 import com.bookfair.stall_service.enums.BookFairStatus;
 import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.layout.HallGeometry;
+import com.bookfair.stall_service.layout.HallSlot;
 import com.bookfair.stall_service.repository.BookFairRepository;
 import com.bookfair.stall_service.repository.HallRepository;
 import com.bookfair.stall_service.repository.HallStallRepository;
+import jakarta.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class HallStallServiceImpl implements HallStallService {
 
   private final HallRepository hallRepository;
   private final HallStallRepository hallStallRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final ConcurrentHashMap<Long, FloorPlanResponse> floorPlans = new ConcurrentHashMap<>();
 
   @Override
   public List<HallStallResponse> getHallStallsByBookFairId(Long bookFairId) {
-    List<HallStallEntity> entities = hallStallRepository.findByBookFairId(bookFairId);
-    List<HallStallResponse> responses = new ArrayList<>();
-    for (HallStallEntity e : entities) {
-      HallStallResponse.HallStallResponseBuilder b = HallStallResponse.builder()
-          .id(e.getId())
-          .stallName(e.getStallName());
-      if (e.getHallEntity() != null) {
-        b.hallId(e.getHallEntity().getId());
-        b.hallName(e.getHallEntity().getHallName());
+    return stallAvailabilityIndex.find(bookFairId)
+        .map(FairAvailability::hallStalls)
+        .orElseGet(List::of);
+  }
+
+  @Override
+  public ContentResponse<FloorPlanResponse> getFloorPlan(Long bookFairId) {
+    FairAvailability fair = stallAvailabilityIndex.find(bookFairId).orElse(null);
+    if (fair == null) {
+      floorPlans.remove(bookFairId);
+      throw new IllegalArgumentException("Book Fair not found");
+    }
+    String version = fair.version();
+    FloorPlanResponse plan = floorPlans.get(bookFairId);
+    if (plan == null || !plan.getVersion().equals(version)) {
+      plan = fair.floorPlan();
+      floorPlans.put(bookFairId, plan);
+    }
+    return new ContentResponse<>(
+        "FloorPlan",
+        "SUCCESS",
+        "200",
+        "Floor plan fetched successfully",
+        plan);
+  }
+
+  @Override
+  @Transactional
+  public Map<Long, HallStallEntity> materialize(Collection<Long> hallStallIds) {
+    Map<Long, HallStallEntity> hallStalls = new HashMap<>();
+    List<Long> storedIds = hallStallIds.stream()
+        .filter(id -> !HallGeometry.isVirtual(id))
+        .toList();
+    if (!storedIds.isEmpty()) {
+      hallStallRepository.findWithHallByIdIn(storedIds)
+          .forEach(hallStall -> hallStalls.put(hallStall.getId(), hallStall));
+    }
+
+    Map<Long, List<Long>> virtualIdsByHall = hallStallIds.stream()
+        .filter(HallGeometry::isVirtual)
+        .distinct()
+        .collect(Collectors.groupingBy(HallGeometry::hallIdOf));
+    if (virtualIdsByHall.isEmpty()) {
+      return hallStalls;
+    }
+    // The hall lock makes concurrent requests for the same slot wait for the first row instead
+    // of failing on the unique (hall_id, slot_index) constraint.
+    List<HallStallEntity> created = new ArrayList<>();
+    for (HallEntity hall : hallRepository.findLockedByIdIn(virtualIdsByHall.keySet())) {
+      HallGeometry geometry = HallGeometry.of(hall);
+      Map<Integer, Long> virtualIdBySlot = new HashMap<>();
+      for (Long virtualId : virtualIdsByHall.get(hall.getId())) {
+        int slotIndex = HallGeometry.slotIndexOf(virtualId);
+        if (slotIndex < geometry.size()) {
+          virtualIdBySlot.put(slotIndex, virtualId);
+        }
+      }
+      if (virtualIdBySlot.isEmpty()) {
+        continue;
+      }
+      Map<Integer, HallStallEntity> stored = hallStallRepository
+          .findByHallEntityIdAndSlotIndexIn(hall.getId(), virtualIdBySlot.keySet())
+          .stream()
+          .collect(Collectors.toMap(HallStallEntity::getSlotIndex, Function.identity()));
+      virtualIdBySlot.forEach((slotIndex, virtualId) -> {
+        HallStallEntity hallStall = stored.get(slotIndex);
+        if (hallStall == null) {
+          hallStall = HallStallEntity.builder()
+              .hallEntity(hall)
+              .bookFair(hall.getBookFair())
+              .stallName(geometry.name(slotIndex))
+              .slotIndex(slotIndex)
+              .build();
+          created.add(hallStall);
+        }
+        hallStalls.put(virtualId, hallStall);
+      });
+    }
+    hallStallRepository.saveAll(created);
+    return hallStalls;
+  }
+
+  /**
+   * Gives hall stall rows stored before slot indexes existed the index of their position, so
+   * they replace the matching virtual slot. Runs before the availability index is built.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @Transactional
+  public void assignLegacySlotIndexes() {
+    List<HallStallEntity> legacy = hallStallRepository.findBySlotIndexIsNull();
+    Set<Long> taken = new HashSet<>();
+    int assigned = 0;
+    for (HallStallEntity hallStall : legacy) {
+      HallEntity hall = hallStall.getHallEntity();
+      int slotIndex;
+      try {
+        slotIndex = HallGeometry.of(hall).indexOf(HallSlot.parse(hallStall.getStallName()));
+      } catch (IllegalArgumentException e) {
+        continue;
       }
-      if (e.getBookFair() != null) {
-        b.bookFairId(e.getBookFair().getId());
+      if (slotIndex >= 0 && taken.add(HallGeometry.virtualId(hall.getId(), slotIndex))) {
+        hallStall.setSlotIndex(slotIndex);
+        assigned++;
       }
-      responses.add(b.build());
     }
-    return responses;
+    if (!legacy.isEmpty()) {
+      log.info("Assigned slot indexes to {} of {} legacy hall stalls", assigned, legacy.size());
+    }
   }
 }
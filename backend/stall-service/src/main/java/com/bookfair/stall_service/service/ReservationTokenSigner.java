@@ -0,0 +1,165 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.configuration.ReservationTokenProperties;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies self-contained reservation tokens of the form
+ * {@code <key id>.<payload>.<signature>} (base64url, no padding). The payload carries the book
+ * fair, the user, the issue time and the reserved allocation ids; the signature is a truncated
+ * HMAC-SHA256 over key id and payload. Verification is CPU only, so forged or tampered codes are
+ * rejected before any database access.
+ */
+@Component
+@Slf4j
+public class ReservationTokenSigner {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final byte VERSION = 1;
+  private static final int SIGNATURE_BYTES = 16;
+  private static final int MIN_KEY_BYTES = 32;
+  private static final int MAX_ALLOCATIONS = 64;
+  private static final String DEV_KEY_PREFIX = "dev-only-";
+  private static final String DEV_PROFILES = "dev | test";
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final String activeKeyId;
+  private final Map<String, SecretKeySpec> keys = new HashMap<>();
+
+  public ReservationTokenSigner(ReservationTokenProperties properties, Environment environment) {
+    if (properties.keys() == null || properties.keys().isEmpty()) {
+      throw new IllegalStateException("No reservation-token.keys configured");
+    }
+    properties.keys().forEach((keyId, secret) -> {
+      byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+      if (keyId.contains(".") || bytes.length < MIN_KEY_BYTES) {
+        throw new IllegalStateException("Reservation token key '" + keyId
+            + "' must not contain '.' and needs at least " + MIN_KEY_BYTES + " bytes");
+      }
+      if (secret.startsWith(DEV_KEY_PREFIX)) {
+        if (!environment.matchesProfiles(DEV_PROFILES)) {
+          throw new IllegalStateException("Reservation token key '" + keyId
+              + "' is a development key and is only accepted with the dev or test profile");
+        }
+        log.warn("Reservation token key '{}' is a development key, set a real secret", keyId);
+      }
+      keys.put(keyId, new SecretKeySpec(bytes, ALGORITHM));
+    });
+    if (!keys.containsKey(properties.activeKeyId())) {
+      throw new IllegalStateException(
+          "reservation-token.active-key-id '" + properties.activeKeyId() + "' has no key");
+    }
+    this.activeKeyId = properties.activeKeyId();
+  }
+
+  public String sign(Long bookFairId, Long userId, List<Long> allocationIds) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeLong(bookFairId);
+      out.writeLong(userId);
+      out.writeLong(Instant.now().getEpochSecond());
+      out.writeByte(allocationIds.size());
+      for (Long allocationId : allocationIds) {
+        out.writeLong(allocationId);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    String signed = activeKeyId + "." + ENCODER.encodeToString(bytes.toByteArray());
+    return signed + "." + ENCODER.encodeToString(signature(keys.get(activeKeyId), signed));
+  }
+
+  /**
+   * Claims of a signed token. Empty for tokens that predate signing (plain UUIDs), which can
+   * only be checked against the database. Throws when a signed token is malformed, tampered
+   * with or signed by an unknown key.
+   */
+  public Optional<Claims> verify(String token) {
+    if (token == null || token.indexOf('.') < 0) {
+      return Optional.empty();
+    }
+    String[] parts = token.split("\\.", -1);
+    if (parts.length != 3) {
+      throw invalid();
+    }
+    SecretKeySpec key = keys.get(parts[0]);
+    if (key == null) {
+      throw invalid();
+    }
+    try {
+      byte[] expected = signature(key, parts[0] + "." + parts[1]);
+      if (!MessageDigest.isEqual(expected, DECODER.decode(parts[2]))) {
+        throw invalid();
+      }
+      return Optional.of(readClaims(parts[0], DECODER.decode(parts[1])));
+    } catch (IllegalArgumentException | IOException e) {
+      throw invalid();
+    }
+  }
+
+  private Claims readClaims(String keyId, byte[] payload) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      if (in.readByte() != VERSION) {
+        throw invalid();
+      }
+      long bookFairId = in.readLong();
+      long userId = in.readLong();
+      Instant issuedAt = Instant.ofEpochSecond(in.readLong());
+      int count = in.readUnsignedByte();
+      if (count == 0 || count > MAX_ALLOCATIONS) {
+        throw invalid();
+      }
+      List<Long> allocationIds = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        allocationIds.add(in.readLong());
+      }
+      if (in.available() > 0) {
+        throw invalid();
+      }
+      return new Claims(keyId, bookFairId, userId, issuedAt, List.copyOf(allocationIds));
+    }
+  }
+
+  private static byte[] signature(SecretKeySpec key, String signed) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      byte[] digest = mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+      return Arrays.copyOf(digest, SIGNATURE_BYTES);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot compute reservation token signature", e);
+    }
+  }
+
+  private static IllegalArgumentException invalid() {
+    return new IllegalArgumentException("Invalid reservation token");
+  }
+
+  public record Claims(String keyId, Long bookFairId, Long userId, Instant issuedAt,
+                       List<Long> allocationIds) {
+
+  }
+}
@@ -0,0 +1,255 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.response.WaitingRoomTicketResponse;
+import com.bookfair.stall_service.entity.WaitingRoomTicketEntity;
+import com.bookfair.stall_service.repository.WaitingRoomStateRepository;
+import com.bookfair.stall_service.repository.WaitingRoomTicketRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Admission control for reservation openings. At most {@code max-concurrent} reservation
+ * requests run at once across all replicas; when that is exceeded callers get a numbered ticket
+ * and tickets are admitted in order at {@code admission-rate-per-second}.
+ *
+ * <p>The queue lives in the database so a ticket is honoured by whichever replica it reaches:
+ * ticket numbers come from a sequence, and one replica at a time (under an advisory lock)
+ * advances the shared admitted number. Every replica caches both numbers for a tick, so callers
+ * without a ticket are let through without a query while nobody is queued. The concurrency
+ * budget is split evenly between the replicas registered in service discovery.
+ */
+@Component
+@Slf4j
+public class ReservationWaitingRoom {
+
+  private static final long TICK_MILLIS = 100;
+  private static final long MAX_RETRY_AFTER_SECONDS = 30;
+  private static final long ADMISSION_LOCK_KEY = 0x77616974726f6fL;
+
+  @Getter
+  @Value("${waiting-room.enabled:true}")
+  private boolean enabled;
+
+  @Value("${waiting-room.admission-rate-per-second:20}")
+  private double admissionRatePerSecond;
+
+  @Value("${waiting-room.max-concurrent:10}")
+  private int maxConcurrent;
+
+  @Value("${waiting-room.admitted-wait-millis:2000}")
+  private long admittedWaitMillis;
+
+  @Value("${waiting-room.ticket-ttl-seconds:120}")
+  private long ticketTtlSeconds;
+
+  @Value("${spring.application.name}")
+  private String serviceId;
+
+  private final WaitingRoomTicketRepository ticketRepository;
+  private final WaitingRoomStateRepository stateRepository;
+  private final DiscoveryClient discoveryClient;
+  private final TransactionTemplate transactionTemplate;
+  private ResizableSemaphore inFlight;
+  private volatile long issued;
+  private volatile long admitted;
+  private double admissionCredit;
+
+  public ReservationWaitingRoom(WaitingRoomTicketRepository ticketRepository,
+      WaitingRoomStateRepository stateRepository, DiscoveryClient discoveryClient,
+      PlatformTransactionManager transactionManager) {
+    this.ticketRepository = ticketRepository;
+    this.stateRepository = stateRepository;
+    this.discoveryClient = discoveryClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @PostConstruct
+  void init() {
+    inFlight = new ResizableSemaphore(maxConcurrent);
+    if (enabled) {
+      transactionTemplate.executeWithoutResult(status -> stateRepository.ensureState());
+    }
+  }
+
+  /**
+   * Tries to let a reservation request through. Returns null when the caller may proceed, and
+   * must then call {@link #leave()} when done; otherwise returns the caller's queue status.
+   */
+  public WaitingRoomTicketResponse enter(String ticketId) throws InterruptedException {
+    Ticket ticket = Ticket.parse(ticketId);
+    if (ticket != null && ticket.number() <= admitted) {
+      if (!inFlight.tryAcquire(admittedWaitMillis, TimeUnit.MILLISECONDS)) {
+        return status(ticket);
+      }
+      if (consume(ticket)) {
+        return null;
+      }
+      // Unknown, expired or already used: the caller starts over like one without a ticket
+      inFlight.release();
+      ticket = null;
+    } else if (ticket != null && !touch(ticket)) {
+      ticket = null;
+    }
+    if (ticket == null) {
+      if (admitted >= issued && inFlight.tryAcquire()) {
+        return null;
+      }
+      ticket = issue();
+    }
+    return status(ticket);
+  }
+
+  public void leave() {
+    inFlight.release();
+  }
+
+  public WaitingRoomTicketResponse join() {
+    return status(issue());
+  }
+
+  public WaitingRoomTicketResponse getTicket(String ticketId) {
+    Ticket ticket = Ticket.parse(ticketId);
+    if (ticket == null || !touch(ticket)) {
+      throw new IllegalArgumentException("Waiting room ticket not found or expired");
+    }
+    return status(ticket);
+  }
+
+  @Scheduled(fixedRate = TICK_MILLIS)
+  public synchronized void admit() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        long currentIssued = ticketRepository.findIssued();
+        if (stateRepository.tryAdmissionLock(ADMISSION_LOCK_KEY)) {
+          advance(currentIssued, stateRepository.findAdmitted());
+        }
+        issued = currentIssued;
+        admitted = stateRepository.findAdmitted();
+      });
+    } catch (DataAccessException e) {
+      log.warn("Waiting room tick failed: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedRate = 10_000)
+  public void evictAbandonedTickets() {
+    if (!enabled) {
+      return;
+    }
+    Instant cutoff = Instant.now().minusSeconds(ticketTtlSeconds);
+    transactionTemplate.executeWithoutResult(status -> ticketRepository.deleteAbandoned(cutoff));
+  }
+
+  @Scheduled(fixedRate = 10_000)
+  public void shareConcurrency() {
+    int replicas = Math.max(1, discoveryClient.getInstances(serviceId).size());
+    inFlight.resize(Math.max(1, (maxConcurrent + replicas - 1) / replicas));
+  }
+
+  private void advance(long currentIssued, long currentAdmitted) {
+    long waiting = currentIssued - currentAdmitted;
+    if (waiting <= 0) {
+      admissionCredit = 0;
+      return;
+    }
+    admissionCredit += admissionRatePerSecond * TICK_MILLIS / 1000.0;
+    long permits = Math.min((long) admissionCredit, waiting);
+    if (permits > 0) {
+      stateRepository.admit(permits, currentIssued);
+      admissionCredit -= permits;
+    }
+  }
+
+  private Ticket issue() {
+    WaitingRoomTicketEntity entity = transactionTemplate.execute(status ->
+        ticketRepository.save(WaitingRoomTicketEntity.builder()
+            .secret(UUID.randomUUID().toString())
+            .lastSeenAt(Instant.now())
+            .build()));
+    if (entity.getId() > issued) {
+      issued = entity.getId();
+    }
+    return new Ticket(entity.getId(), entity.getSecret());
+  }
+
+  private boolean touch(Ticket ticket) {
+    Integer touched = transactionTemplate.execute(status ->
+        ticketRepository.touch(ticket.number(), ticket.secret(), Instant.now()));
+    return touched != null && touched > 0;
+  }
+
+  private boolean consume(Ticket ticket) {
+    Integer consumed = transactionTemplate.execute(status ->
+        ticketRepository.consume(ticket.number(), ticket.secret()));
+    return consumed != null && consumed > 0;
+  }
+
+  private WaitingRoomTicketResponse status(Ticket ticket) {
+    long position = Math.max(0, ticket.number() - admitted);
+    long etaSeconds = (long) Math.ceil(position / admissionRatePerSecond);
+    return WaitingRoomTicketResponse.builder()
+        .ticketId(ticket.id())
+        .position(position)
+        .estimatedWaitSeconds(etaSeconds)
+        .admitted(position == 0)
+        .retryAfterSeconds(Math.max(1, Math.min(etaSeconds, MAX_RETRY_AFTER_SECONDS)))
+        .build();
+  }
+
+  /**
+   * Ticket as handed to the caller: {@code <number>.<secret>}.
+   */
+  private record Ticket(long number, String secret) {
+
+    static Ticket parse(String ticketId) {
+      if (ticketId == null) {
+        return null;
+      }
+      int dot = ticketId.indexOf('.');
+      try {
+        return dot > 0 ? new Ticket(Long.parseLong(ticketId.substring(0, dot)),
+            ticketId.substring(dot + 1)) : null;
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    String id() {
+      return number + "." + secret;
+    }
+  }
+
+  private static final class ResizableSemaphore extends Semaphore {
+
+    private int limit;
+
+    ResizableSemaphore(int limit) {
+      super(limit);
+      this.limit = limit;
+    }
+
+    synchronized void resize(int newLimit) {
+      if (newLimit > limit) {
+        release(newLimit - limit);
+      } else if (newLimit < limit) {
+        reducePermits(limit - newLimit);
+      }
+      limit = newLimit;
+    }
+  }
+}
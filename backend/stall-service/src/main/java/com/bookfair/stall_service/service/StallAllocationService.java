@@ -3,9 +3,11 @@ package com.bookfair.stall_service.service;
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
 import com.bookfair.stall_service.dto.request.CreateStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallAllocationPrice;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Size;
 import com.bookfair.stall_service.enums.StallAllocationStatus;
 import java.util.List;
 
@@ -19,7 +21,8 @@ public interface StallAllocationService {
 
   ContentResponse<StallAllocationResponse> getStallAllocationById(Long id);
 
-  ContentResponse<List<StallAllocationResponse>> getAllStallAllocation();
+  ContentResponse<List<StallAllocationResponse>> getAllStallAllocation(Long bookFairId,
+      Long hallId, StallAllocationStatus status, KeysetPageRequest page);
 
   ContentResponse<StallAllocationResponse> updateStallAllocationById(Long id,
       UpdateStallAllocationPrice request);
@@ -31,7 +34,11 @@ public interface StallAllocationService {
   ContentResponse<List<StallAllocationResponse>> getStallAllocationsByBoofairIdAndStatus(
       Long bookFairId, StallAllocationStatus status);
 
-  ContentResponse<List<StallEntity>> getAvailableStallsByBookFairId(Long bookFairId);
+  /**
+   * Unallocated, non-blocked stalls of the fair, one keyset page at a time.
+   */
+  ContentResponse<List<StallEntity>> getAvailableStallsByBookFairId(Long bookFairId, Size size,
+      KeysetPageRequest page);
 
   ContentResponse<List<StallEntity>> getAllocatedStallsByBookFairId(Long bookFairId);
 }
\ No newline at end of file
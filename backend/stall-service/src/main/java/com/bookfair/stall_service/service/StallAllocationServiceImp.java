@@ -1,23 +1,36 @@
 package com.bookfair.stall_service.service;
 
+import com.bookfair.stall_service.cache.FairAvailability;
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.KeysetPage;
 import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
 import com.bookfair.stall_service.dto.request.CreateStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallAllocationPrice;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
 import com.bookfair.stall_service.entity.HallEntity;
+import com.bookfair.stall_service.entity.HallStallEntity;
 import com.bookfair.stall_service.entity.StallAllocationEntity;
 import com.bookfair.stall_service.entity.StallEntity;
 import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.enums.Size;
 import com.bookfair.stall_service.enums.StallAllocationStatus;
 import com.bookfair.stall_service.enums.Status;
 import com.bookfair.stall_service.repository.BookFairRepository;
 import com.bookfair.stall_service.repository.HallRepository;
-import com.bookfair.stall_service.repository.HallStallRepository;
 import com.bookfair.stall_service.repository.StallAllocationRepository;
 import com.bookfair.stall_service.repository.StallRepository;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -29,10 +42,12 @@ public class StallAllocationServiceImp implements StallAllocationService {
   private final StallAllocationRepository stallAllocationRepository;
   private final BookFairRepository bookFairRepository;
   private final StallRepository stallRepository;
-  private final HallStallRepository hallStallRepository;
+  private final HallStallService hallStallService;
   private final HallRepository hallRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
 
   @Override
+  @Transactional
   public ContentResponse<StallAllocationResponse> createStallAllocation(
       CreateStallAllocationRequest request) {
 
@@ -42,9 +57,13 @@ public class StallAllocationServiceImp implements StallAllocationService {
     StallEntity stallEntity = stallRepository.findById(request.getStallId())
         .orElseThrow(() -> new IllegalArgumentException("Stall not found"));
 
-    HallEntity hallEntity = hallStallRepository.findById(request.getHallStallID())
-        .orElseThrow(() -> new IllegalArgumentException("Hall Stall not found"))
-        .getHallEntity();
+    HallStallEntity hallStallEntity = hallStallService.materialize(
+            List.of(request.getHallStallID()))
+        .get(request.getHallStallID());
+    if (hallStallEntity == null) {
+      throw new IllegalArgumentException("Hall Stall not found");
+    }
+    HallEntity hallEntity = hallStallEntity.getHallEntity();
 
     if (!bookFairEntity.getId().equals(hallEntity.getBookFair().getId())) {
       throw new IllegalArgumentException("Hall does not belong to the Book Fair");
@@ -54,7 +73,7 @@ public class StallAllocationServiceImp implements StallAllocationService {
 //        throw new IllegalArgumentException("Stall is already allocated to this Hall Stall");
 //    }
 
-    if (stallAllocationRepository.existsByHallStall_Id(request.getHallStallID())) {
+    if (stallAllocationRepository.existsByHallStall_Id(hallStallEntity.getId())) {
       throw new IllegalArgumentException("A Hall stall is already allocated ");
     }
 
@@ -73,8 +92,15 @@ public class StallAllocationServiceImp implements StallAllocationService {
       throw new IllegalArgumentException("Stall is blocked and cannot be allocated");
     }
 
-    StallAllocationEntity entity = mapToEntity(request);
+    StallAllocationEntity entity = StallAllocationEntity.builder()
+        .bookFair(bookFairEntity)
+        .hallStall(hallStallEntity)
+        .stall(stallEntity)
+        .stallPrice(request.getPrice())
+        .stallAllocationStatus(StallAllocationStatus.PENDING)
+        .build();
     stallAllocationRepository.save(entity);
+    stallAvailabilityIndex.allocationsSaved(bookFairEntity.getId(), List.of(entity));
     StallAllocationResponse response = mapToResponse(entity);
     return new ContentResponse<>(
         "StallAllocation",
@@ -86,6 +112,7 @@ public class StallAllocationServiceImp implements StallAllocationService {
   }
 
   @Override
+  @Transactional
   public ContentResponse<List<StallAllocationResponse>> createMultipleStallAllocation(
       CreateMultipleStallAllocationRequest request) {
 
@@ -98,69 +125,84 @@ public class StallAllocationServiceImp implements StallAllocationService {
           "Cannot allocate stall to a completed or cancelled Book Fair");
     }
 
-    // Validate all hall stall IDs exist and belong to book fair, and that prices are provided
-    for (var hallStallAndStallIds : request.getHallStallAndStallIds()) {
-      if (!hallStallRepository.existsById(hallStallAndStallIds.getHallStallId())) {
-        throw new IllegalArgumentException(
-            "Hall Stall not found: " + hallStallAndStallIds.getHallStallId());
+    // Everything the validation needs is loaded up front with a few IN queries, and every
+    // problem is collected so the caller can fix the whole request in one round.
+    var items = request.getHallStallAndStallIds();
+    Set<Long> hallStallIds = items.stream()
+        .map(HallStallAndStallIdsRequest::getHallStallId)
+        .collect(Collectors.toSet());
+    Set<Long> stallIds = items.stream()
+        .map(HallStallAndStallIdsRequest::getStallId)
+        .collect(Collectors.toSet());
+
+    // Virtual hall stall ids get their row stored here; it is rolled back with the request
+    Map<Long, HallStallEntity> hallStalls = hallStallService.materialize(hallStallIds);
+    Map<Long, StallEntity> stalls = stallRepository.findAllById(stallIds)
+        .stream()
+        .collect(Collectors.toMap(StallEntity::getId, Function.identity()));
+    Set<Long> allocatedHallStallIds = new HashSet<>(
+        stallAllocationRepository.findAllocatedHallStallIds(hallStalls.values().stream()
+            .map(HallStallEntity::getId)
+            .toList()));
+    Set<Long> allocatedStallIds = new HashSet<>(
+        stallAllocationRepository.findAllocatedStallIds(bookFairEntity.getId(), stallIds));
+
+    List<String> errors = new ArrayList<>();
+    Set<Long> requestedHallStallIds = new HashSet<>();
+    Set<Long> requestedStallIds = new HashSet<>();
+    for (var item : items) {
+      Long hallStallId = item.getHallStallId();
+      Long stallId = item.getStallId();
+
+      HallStallEntity hallStall = hallStalls.get(hallStallId);
+      if (hallStall == null) {
+        errors.add("Hall Stall not found: " + hallStallId);
+      } else if (!bookFairEntity.getId()
+          .equals(hallStall.getHallEntity().getBookFair().getId())) {
+        errors.add("Hall Stall " + hallStallId + " does not belong to the Book Fair");
       }
-
-      if (stallAllocationRepository.existsByHallStall_Id(hallStallAndStallIds.getHallStallId())) {
-        throw new IllegalArgumentException(
-            "Hall stall " + hallStallAndStallIds.getHallStallId() + " is already allocated");
+      if (hallStall != null && allocatedHallStallIds.contains(hallStall.getId())) {
+        errors.add("Hall stall " + hallStallId + " is already allocated");
+      }
+      if (!requestedHallStallIds.add(hallStall != null ? hallStall.getId() : hallStallId)) {
+        errors.add("Hall stall " + hallStallId + " is requested more than once");
       }
 
-      var hallStall = hallStallRepository.findById(hallStallAndStallIds.getHallStallId())
-          .orElseThrow(() -> new IllegalArgumentException(
-              "Hall Stall not found: " + hallStallAndStallIds.getHallStallId()));
-
-      HallEntity hallEntity = hallStall.getHallEntity();
-      if (!bookFairEntity.getId().equals(hallEntity.getBookFair().getId())) {
-        throw new IllegalArgumentException("Hall Stall " + hallStallAndStallIds.getHallStallId()
-            + " does not belong to the Book Fair");
+      if (item.getPrice() == null) {
+        errors.add("Price is required for Hall Stall: " + hallStallId);
+      } else if (item.getPrice() < 0) {
+        errors.add("Price must be non-negative for Hall Stall: " + hallStallId);
       }
 
-      // Validate price provided for each hall-stall
-      var price = hallStallAndStallIds.getPrice();
-      if (price == null) {
-        throw new IllegalArgumentException(
-            "Price is required for Hall Stall: " + hallStallAndStallIds.getHallStallId());
+      StallEntity stall = stalls.get(stallId);
+      if (stall == null) {
+        errors.add("Stall not found: " + stallId);
+      } else if (stall.getStatus() == Status.BLOCKED) {
+        errors.add("Stall " + stallId + " is blocked and cannot be allocated");
+      }
+      if (allocatedStallIds.contains(stallId)) {
+        errors.add("Stall " + stallId + " is already allocated in this Book Fair");
       }
-      if (price instanceof Number && ((Number) price).doubleValue() < 0) {
-        throw new IllegalArgumentException(
-            "Price must be non-negative for Hall Stall: " + hallStallAndStallIds.getHallStallId());
+      if (!requestedStallIds.add(stallId)) {
+        errors.add("Stall " + stallId + " is requested more than once");
       }
     }
+    if (!errors.isEmpty()) {
+      throw new IllegalArgumentException(String.join(", ", errors));
+    }
 
-    List<StallAllocationEntity> entities = request.getHallStallAndStallIds().stream()
-        .map(hallStallAndStallIds -> {
-          StallEntity stallEntity = stallRepository.findById(hallStallAndStallIds.getStallId())
-              .orElseThrow(() -> new IllegalArgumentException(
-                  "Stall not found: " + hallStallAndStallIds.getStallId()));
-
-          if (stallEntity.getStatus() == Status.BLOCKED) {
-            throw new IllegalArgumentException(
-                "Stall " + hallStallAndStallIds.getStallId()
-                    + " is blocked and cannot be allocated");
-          }
-
-          if (stallAllocationRepository.existsByStall_IdAndBookFair_Id(
-              hallStallAndStallIds.getStallId(), request.getBookFairId())) {
-            throw new IllegalArgumentException("Stall " + hallStallAndStallIds.getStallId()
-                + " is already allocated in this Book Fair");
-          }
-
-          return StallAllocationEntity.builder()
-              .bookFair(bookFairEntity)
-              .hallStall(hallStallRepository.findById(hallStallAndStallIds.getHallStallId()).get())
-              .stall(stallEntity)
-              .stallPrice(hallStallAndStallIds.getPrice())
-              .stallAllocationStatus(StallAllocationStatus.PENDING)
-              .build();
-        })
+    List<StallAllocationEntity> entities = items.stream()
+        .map(item -> StallAllocationEntity.builder()
+            .bookFair(bookFairEntity)
+            .hallStall(hallStalls.get(item.getHallStallId()))
+            .stall(stalls.get(item.getStallId()))
+            .stallPrice(item.getPrice())
+            .stallAllocationStatus(StallAllocationStatus.PENDING)
+            .build())
         .toList();
 
     stallAllocationRepository.saveAll(entities);
+    stallAvailabilityIndex.allocationsSaved(bookFairEntity.getId(), entities);
 
     List<StallAllocationResponse> responses = entities.stream()
         .map(this::mapToResponse)
@@ -192,23 +234,23 @@ public class StallAllocationServiceImp implements StallAllocationService {
   }
 
   @Override
-  public ContentResponse<List<StallAllocationResponse>> getAllStallAllocation() {
-    List<StallAllocationEntity> entity = stallAllocationRepository.findAll();
-    List<StallAllocationResponse> response = entity.stream()
-        .map(this::mapToResponse)
-        .toList();
-    return new ContentResponse<>(
-        "StallAllocation",
-        "All Stall Allocations retrieved successfully",
-        "SUCCESS",
-        "200",
-        response
-    );
-
+  public ContentResponse<List<StallAllocationResponse>> getAllStallAllocation(Long bookFairId,
+      Long hallId, StallAllocationStatus status, KeysetPageRequest page) {
+    List<StallAllocationEntity> entity = stallAllocationRepository.findPage(bookFairId, hallId,
+        status, page.after(), page.fetchLimit());
+    return KeysetPage.of(entity, page, StallAllocationEntity::getId)
+        .toResponse(
+            "StallAllocation",
+            "All Stall Allocations retrieved successfully",
+            "SUCCESS",
+            "200",
+            this::mapToResponse
+        );
   }
 
 
   @Override
+  @Transactional
   public ContentResponse<StallAllocationResponse> updateStallAllocationById(Long id,
       UpdateStallAllocationPrice request) {
     StallAllocationEntity stallAllocationEntity = stallAllocationRepository.findById(id)
@@ -223,7 +265,10 @@ public class StallAllocationServiceImp implements StallAllocationService {
     stallAllocationEntity.setStallPrice(request.getPrice());
     stallAllocationEntity.setStallAllocationStatus(request.getStallAllocationStatus());
 
-    stallAllocationRepository.save(stallAllocationEntity);
+    stallAllocationRepository.saveAndFlush(stallAllocationEntity);
+    // The hall stall row already exists, so the index only needs the updated row
+    stallAvailabilityIndex.allocationsChanged(
+        stallAllocationRepository.findRowsByIdIn(List.of(id)));
     StallAllocationResponse response = mapToResponse(stallAllocationEntity);
     return new ContentResponse<>(
         "StallAllocation",
@@ -247,6 +292,7 @@ public class StallAllocationServiceImp implements StallAllocationService {
           "Cannot delete stall allocation from a completed or cancelled Book Fair");
     }
     stallAllocationRepository.deleteById(id);
+    stallAvailabilityIndex.allocationsChanged(bookFairEntity.getId(), List.of(id));
     return new ContentResponse<>(
         "StallAllocation",
         "Stall Allocation deleted successfully",
@@ -282,21 +328,12 @@ public class StallAllocationServiceImp implements StallAllocationService {
   @Override
   public ContentResponse<List<StallAllocationResponse>> getStallAllocationsByBoofairIdAndStatus(
       Long bookFairId, StallAllocationStatus status) {
-    if (!bookFairRepository.existsById(bookFairId)) {
-      throw new IllegalArgumentException("Book Fair not found");
-    }
-    if (!stallAllocationRepository.existsByBookFair_Id(bookFairId)) {
+    FairAvailability fair = stallAvailabilityIndex.find(bookFairId)
+        .orElseThrow(() -> new IllegalArgumentException("Book Fair not found"));
+    if (!fair.hasAllocations()) {
       throw new IllegalArgumentException("No Stall Allocations found for this Book Fair");
     }
-    List<StallAllocationEntity> entities = stallAllocationRepository
-        .findByBookFair_IdAndStallAllocationStatusIn(
-            bookFairId,
-            List.of(status)
-        );
-
-    List<StallAllocationResponse> responses = entities.stream()
-        .map(this::mapToResponse)
-        .toList();
+    List<StallAllocationResponse> responses = fair.allocations(status);
     return new ContentResponse<>(
         "StallAllocation",
         "SUCCESS",
@@ -307,29 +344,23 @@ public class StallAllocationServiceImp implements StallAllocationService {
   }
 
   @Override
-  public ContentResponse<List<StallEntity>> getAvailableStallsByBookFairId(Long bookFairId) {
+  public ContentResponse<List<StallEntity>> getAvailableStallsByBookFairId(Long bookFairId,
+      Size size, KeysetPageRequest page) {
     if (!bookFairRepository.existsById(bookFairId)) {
       throw new IllegalArgumentException("Book Fair not found");
     }
 
-    List<StallEntity> allocatedStalls = stallAllocationRepository
-        .findByBookFair_Id(bookFairId)
-        .stream()
-        .map(StallAllocationEntity::getStall)
-        .toList();
-
-    List<StallEntity> availableStalls = stallRepository.findAll()
-        .stream()
-        .filter(stall -> !allocatedStalls.contains(stall) && stall.getStatus() != Status.BLOCKED)
-        .toList();
+    List<StallEntity> availableStalls = stallRepository.findAvailableForBookFair(bookFairId,
+        size, page.after(), page.fetchLimit());
 
-    return new ContentResponse<>(
-        "Stall",
-        "SUCCESS",
-        "200",
-        "Available Stalls for Book Fair retrieved successfully",
-        availableStalls
-    );
+    return KeysetPage.of(availableStalls, page, StallEntity::getId)
+        .toResponse(
+            "Stall",
+            "SUCCESS",
+            "200",
+            "Available Stalls for Book Fair retrieved successfully",
+            stall -> stall
+        );
   }
 
   @Override
@@ -338,11 +369,7 @@ public class StallAllocationServiceImp implements StallAllocationService {
       throw new IllegalArgumentException("Book Fair not found");
     }
 
-    List<StallEntity> allocatedStalls = stallAllocationRepository
-        .findByBookFair_Id(bookFairId)
-        .stream()
-        .map(StallAllocationEntity::getStall)
-        .toList();
+    List<StallEntity> allocatedStalls = stallAllocationRepository.findAllocatedStalls(bookFairId);
 
     return new ContentResponse<>(
         "Stall",
@@ -353,16 +380,6 @@ public class StallAllocationServiceImp implements StallAllocationService {
     );
   }
 
-  private StallAllocationEntity mapToEntity(CreateStallAllocationRequest request) {
-    return StallAllocationEntity.builder()
-        .bookFair(bookFairRepository.findById(request.getBookFairId()).get())
-        .hallStall(hallStallRepository.findById(request.getHallStallID()).get())
-        .stall(stallRepository.findById(request.getStallId()).get())
-        .stallPrice(request.getPrice())
-        .stallAllocationStatus(StallAllocationStatus.PENDING)
-        .build();
-  }
-
   private StallAllocationResponse mapToResponse(StallAllocationEntity entity) {
     StallAllocationResponse response = new StallAllocationResponse();
     response.setId(entity.getId());
@@ -0,0 +1,10 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.AutoAllocationRequest;
+import com.bookfair.stall_service.dto.response.AutoAllocationResponse;
+
+public interface StallAutoAllocationService {
+
+  ContentResponse<AutoAllocationResponse> autoAllocate(AutoAllocationRequest request);
+}
@@ -0,0 +1,225 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.projection.HallStallRow;
+import com.bookfair.stall_service.dto.request.AutoAllocationRequest;
+import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.dto.request.PriceTierRequest;
+import com.bookfair.stall_service.dto.response.AutoAllocationResponse;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.Status;
+import com.bookfair.stall_service.layout.AllocationSolver;
+import com.bookfair.stall_service.layout.AllocationSolver.Slot;
+import com.bookfair.stall_service.layout.AllocationSolver.Unit;
+import com.bookfair.stall_service.layout.HallGeometry;
+import com.bookfair.stall_service.layout.HallSlot;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.repository.HallRepository;
+import com.bookfair.stall_service.repository.HallStallRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.repository.StallRepository;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pairs stalls with free hall stalls of a fair according to size-to-hall rules, vendor adjacency
+ * groups and price tiers. The assignment is computed in memory by {@link AllocationSolver} and
+ * written through the bulk allocation path, which re-validates it in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StallAutoAllocationServiceImpl implements StallAutoAllocationService {
+
+  private final BookFairRepository bookFairRepository;
+  private final StallRepository stallRepository;
+  private final HallRepository hallRepository;
+  private final HallStallRepository hallStallRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final StallAllocationService stallAllocationService;
+
+  @Override
+  public ContentResponse<AutoAllocationResponse> autoAllocate(AutoAllocationRequest request) {
+    BookFairEntity bookFairEntity = bookFairRepository.findById(request.getBookFairId())
+        .orElseThrow(() -> new IllegalArgumentException("Book Fair not found"));
+    if (bookFairEntity.getStatus() == BookFairStatus.COMPLETED
+        || bookFairEntity.getStatus() == BookFairStatus.CANCELLED) {
+      throw new IllegalArgumentException(
+          "Cannot allocate stall to a completed or cancelled Book Fair");
+    }
+
+    Set<Long> stallIds = new LinkedHashSet<>(request.getStallIds());
+    Map<Long, StallEntity> stalls = stallRepository.findAllById(stallIds)
+        .stream()
+        .collect(Collectors.toMap(StallEntity::getId, Function.identity()));
+    Set<Long> allocatedStallIds = new HashSet<>(
+        stallAllocationRepository.findAllocatedStallIds(bookFairEntity.getId(), stallIds));
+
+    List<String> errors = new ArrayList<>();
+    for (Long stallId : stallIds) {
+      StallEntity stall = stalls.get(stallId);
+      if (stall == null) {
+        errors.add("Stall not found: " + stallId);
+      } else if (stall.getStatus() == Status.BLOCKED) {
+        errors.add("Stall " + stallId + " is blocked and cannot be allocated");
+      }
+      if (allocatedStallIds.contains(stallId)) {
+        errors.add("Stall " + stallId + " is already allocated in this Book Fair");
+      }
+    }
+    List<Unit> units = buildUnits(request, stallIds, stalls, errors);
+    if (!errors.isEmpty()) {
+      throw new IllegalArgumentException(String.join(", ", errors));
+    }
+
+    Set<Long> allocatedHallStallIds = stallAllocationRepository
+        .findRowsByBookFairId(bookFairEntity.getId())
+        .stream()
+        .map(AllocationRow::hallStallId)
+        .collect(Collectors.toSet());
+    List<Slot> freeSlots = HallGeometry.expand(bookFairEntity.getId(),
+            hallRepository.findByBookFairId(bookFairEntity.getId()),
+            hallStallRepository.findRowsByBookFairId(bookFairEntity.getId()))
+        .stream()
+        .filter(row -> !allocatedHallStallIds.contains(row.hallStallId()))
+        .map(this::toSlot)
+        .toList();
+    long started = System.nanoTime();
+    AllocationSolver.Result result = new AllocationSolver(freeSlots).solve(units);
+    long solveMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+    List<AutoAllocationResponse.Assignment> assignments = stallIds.stream()
+        .filter(result.placements()::containsKey)
+        .map(stallId -> {
+          Slot slot = result.placements().get(stallId);
+          return AutoAllocationResponse.Assignment.builder()
+              .stallId(stallId)
+              .hallStallId(slot.hallStallId())
+              .hallStallName(slot.name())
+              .price(priceFor(request, slot.hall(), stalls.get(stallId).getSize()))
+              .build();
+        })
+        .toList();
+    List<String> unplaced = result.unplaced().stream()
+        .map(unit -> unit.stallIds().size() == 1
+            ? "Stall " + unit.stallIds().get(0) + " has no free hall stall in its allowed halls"
+            : "Stalls " + unit.stallIds() + " have no " + unit.stallIds().size()
+                + " adjacent free hall stalls in their allowed halls")
+        .toList();
+    log.info("Auto-allocation for book fair {} placed {}/{} stalls on {} free slots in {} ms",
+        bookFairEntity.getId(), assignments.size(), stallIds.size(), freeSlots.size(),
+        solveMillis);
+
+    boolean commit = !request.isDryRun();
+    if (commit && !unplaced.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Auto-allocation could not place every stall: " + String.join(", ", unplaced));
+    }
+    if (commit) {
+      stallAllocationService.createMultipleStallAllocation(
+          CreateMultipleStallAllocationRequest.builder()
+              .bookFairId(bookFairEntity.getId())
+              .hallStallAndStallIds(assignments.stream()
+                  .map(assignment -> HallStallAndStallIdsRequest.builder()
+                      .hallStallId(assignment.getHallStallId())
+                      .stallId(assignment.getStallId())
+                      .price(assignment.getPrice())
+                      .build())
+                  .toList())
+              .build());
+    }
+
+    AutoAllocationResponse response = AutoAllocationResponse.builder()
+        .committed(commit)
+        .placed(assignments.size())
+        .assignments(assignments)
+        .unplaced(unplaced)
+        .solveMillis(solveMillis)
+        .build();
+    return new ContentResponse<>(
+        "StallAllocation",
+        "SUCCESS",
+        "200",
+        commit ? "Stalls auto-allocated successfully" : "Auto-allocation preview computed",
+        response
+    );
+  }
+
+  private List<Unit> buildUnits(AutoAllocationRequest request, Set<Long> stallIds,
+      Map<Long, StallEntity> stalls, List<String> errors) {
+    List<Unit> units = new ArrayList<>();
+    Set<Long> grouped = new HashSet<>();
+    if (request.getAdjacentGroups() != null) {
+      for (List<Long> group : request.getAdjacentGroups()) {
+        List<Long> members = group.stream().distinct().toList();
+        for (Long stallId : members) {
+          if (!stallIds.contains(stallId)) {
+            errors.add("Adjacent group stall " + stallId + " is not in the stall list");
+          } else if (!grouped.add(stallId)) {
+            errors.add("Stall " + stallId + " is in more than one adjacent group");
+          }
+        }
+        Set<Hall> allowed = EnumSet.allOf(Hall.class);
+        for (Long stallId : members) {
+          StallEntity stall = stalls.get(stallId);
+          if (stall != null) {
+            allowed.retainAll(allowedHalls(request, stall.getSize()));
+          }
+        }
+        if (allowed.isEmpty()) {
+          errors.add("Adjacent group " + members + " has no hall allowed for all its sizes");
+        }
+        units.add(new Unit(members, allowed));
+      }
+    }
+    for (Long stallId : stallIds) {
+      StallEntity stall = stalls.get(stallId);
+      if (!grouped.contains(stallId) && stall != null) {
+        units.add(new Unit(List.of(stallId), allowedHalls(request, stall.getSize())));
+      }
+    }
+    return units;
+  }
+
+  private Set<Hall> allowedHalls(AutoAllocationRequest request, Size size) {
+    if (request.getSizeHalls() == null || request.getSizeHalls().get(size) == null
+        || request.getSizeHalls().get(size).isEmpty()) {
+      return EnumSet.allOf(Hall.class);
+    }
+    return EnumSet.copyOf(request.getSizeHalls().get(size));
+  }
+
+  private Long priceFor(AutoAllocationRequest request, Hall hall, Size size) {
+    if (request.getPriceTiers() != null) {
+      for (PriceTierRequest tier : request.getPriceTiers()) {
+        if ((tier.getHall() == null || tier.getHall() == hall)
+            && (tier.getSize() == null || tier.getSize() == size)) {
+          return tier.getPrice();
+        }
+      }
+    }
+    return request.getDefaultPrice();
+  }
+
+  private Slot toSlot(HallStallRow row) {
+    return new Slot(row.hallStallId(), row.stallName(), row.hallId(), row.hallName(),
+        HallSlot.parse(row.stallName()));
+  }
+}
@@ -0,0 +1,152 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Releases expired stall holds. Every hold is queued in a {@link DelayQueue} keyed by its expiry
+ * time, so a single worker thread sleeps until the next hold is due instead of polling the table.
+ * Release is a conditional update, so holds that were confirmed or re-held in the meantime are
+ * left untouched.
+ *
+ * <p>The queue only knows the holds of its own replica, so holds of a replica that went away are
+ * picked up by a periodic sweep over the expiry index, which one replica at a time runs under an
+ * advisory lock.
+ */
+@Component
+@Slf4j
+public class StallHoldExpiryScheduler {
+
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+  private static final long SWEEP_LOCK_KEY = 0x686f6c6473776570L;
+  private static final int SWEEP_BATCH_SIZE = 500;
+
+  private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final TransactionTemplate transactionTemplate;
+  private final DelayQueue<ExpiringHold> holds = new DelayQueue<>();
+  private Thread worker;
+
+  public StallHoldExpiryScheduler(StallAllocationRepository stallAllocationRepository,
+      StallAvailabilityIndex stallAvailabilityIndex,
+      PlatformTransactionManager transactionManager) {
+    this.stallAllocationRepository = stallAllocationRepository;
+    this.stallAvailabilityIndex = stallAvailabilityIndex;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    stallAllocationRepository.findHeldAllocations()
+        .forEach(row -> holds.add(new ExpiringHold(row.id(), row.holdExpiresAt())));
+    worker = Thread.ofPlatform()
+        .name("stall-hold-expiry")
+        .daemon()
+        .start(this::run);
+    log.info("Stall hold expiry scheduler started with {} pending holds", holds.size());
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  public void schedule(Collection<Long> allocationIds, Instant expiresAt) {
+    allocationIds.forEach(id -> holds.add(new ExpiringHold(id, expiresAt)));
+  }
+
+  private void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      List<ExpiringHold> due = new ArrayList<>();
+      try {
+        due.add(holds.take());
+        holds.drainTo(due);
+        releaseQueued(due);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        log.error("Failed to release {} expired stall holds, retrying", due.size(), e);
+        Instant retryAt = Instant.now().plus(RETRY_DELAY);
+        due.forEach(hold -> holds.add(new ExpiringHold(hold.allocationId(), retryAt)));
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${stall-hold.sweep-interval-ms:30000}",
+      initialDelayString = "${stall-hold.sweep-interval-ms:30000}")
+  public void sweep() {
+    try {
+      int found;
+      do {
+        found = sweepBatch();
+      } while (found == SWEEP_BATCH_SIZE);
+    } catch (Exception e) {
+      log.error("Stall hold sweep failed", e);
+    }
+  }
+
+  private int sweepBatch() {
+    Integer found = transactionTemplate.execute(status -> {
+      if (!stallAllocationRepository.tryHoldSweepLock(SWEEP_LOCK_KEY)) {
+        return 0;
+      }
+      List<Long> allocationIds = stallAllocationRepository.findExpiredHoldIds(Instant.now(),
+          Limit.of(SWEEP_BATCH_SIZE));
+      release(allocationIds);
+      return allocationIds.size();
+    });
+    return found != null ? found : 0;
+  }
+
+  private void releaseQueued(List<ExpiringHold> due) {
+    List<Long> allocationIds = due.stream()
+        .map(ExpiringHold::allocationId)
+        .distinct()
+        .toList();
+    transactionTemplate.executeWithoutResult(status -> release(allocationIds));
+  }
+
+  private void release(Collection<Long> allocationIds) {
+    if (allocationIds.isEmpty()) {
+      return;
+    }
+    int released = stallAllocationRepository.releaseExpiredHolds(allocationIds, Instant.now());
+    if (released > 0) {
+      stallAvailabilityIndex.allocationsChanged(
+          stallAllocationRepository.findRowsByIdIn(allocationIds));
+      log.info("Released {} expired stall holds", released);
+    }
+  }
+
+  private record ExpiringHold(Long allocationId, Instant expiresAt) implements Delayed {
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(Duration.between(Instant.now(), expiresAt));
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return expiresAt.compareTo(((ExpiringHold) other).expiresAt);
+    }
+  }
+}
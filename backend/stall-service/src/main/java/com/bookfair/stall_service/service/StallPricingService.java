@@ -0,0 +1,10 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.RepricingRequest;
+import com.bookfair.stall_service.dto.response.RepricingResponse;
+
+public interface StallPricingService {
+
+  ContentResponse<RepricingResponse> reprice(RepricingRequest request);
+}
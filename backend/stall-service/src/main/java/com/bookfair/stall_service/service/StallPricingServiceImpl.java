@@ -0,0 +1,114 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.request.PricingRuleRequest;
+import com.bookfair.stall_service.dto.request.RepricingRequest;
+import com.bookfair.stall_service.dto.response.RepricingResponse;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.enums.PriceAdjustment;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies pricing rules to the allocations of a fair that are neither held nor reserved, with one
+ * set-based update per rule, so a held price stays the price that is confirmed. Dry runs execute
+ * the same updates and roll them back, so the preview is exactly what a real run would write.
+ */
+@Service
+public class StallPricingServiceImpl implements StallPricingService {
+
+  private final BookFairRepository bookFairRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final TransactionTemplate transactionTemplate;
+
+  public StallPricingServiceImpl(BookFairRepository bookFairRepository,
+      StallAllocationRepository stallAllocationRepository,
+      StallAvailabilityIndex stallAvailabilityIndex,
+      PlatformTransactionManager transactionManager) {
+    this.bookFairRepository = bookFairRepository;
+    this.stallAllocationRepository = stallAllocationRepository;
+    this.stallAvailabilityIndex = stallAvailabilityIndex;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public ContentResponse<RepricingResponse> reprice(RepricingRequest request) {
+    BookFairEntity bookFairEntity = bookFairRepository.findById(request.getBookFairId())
+        .orElseThrow(() -> new IllegalArgumentException("Book Fair not found"));
+    if (bookFairEntity.getStatus() == BookFairStatus.COMPLETED
+        || bookFairEntity.getStatus() == BookFairStatus.CANCELLED) {
+      throw new IllegalArgumentException(
+          "Cannot reprice stalls of a completed or cancelled Book Fair");
+    }
+    Long bookFairId = bookFairEntity.getId();
+
+    RepricingResponse response = transactionTemplate.execute(status -> {
+      Map<Long, Long> before = stallAllocationRepository.findRowsByBookFairId(bookFairId)
+          .stream()
+          .collect(Collectors.toMap(AllocationRow::id, AllocationRow::price));
+
+      List<Integer> matched = request.getRules().stream()
+          .map(rule -> apply(bookFairId, rule))
+          .toList();
+
+      List<AllocationRow> changed = stallAllocationRepository.findRowsByBookFairId(bookFairId)
+          .stream()
+          .filter(row -> !Objects.equals(before.get(row.id()), row.price()))
+          .toList();
+
+      if (request.isDryRun()) {
+        status.setRollbackOnly();
+      } else if (!changed.isEmpty()) {
+        stallAvailabilityIndex.allocationsChanged(changed);
+      }
+      return RepricingResponse.builder()
+          .applied(!request.isDryRun())
+          .matchedPerRule(matched)
+          .changes(changed.stream()
+              .map(row -> RepricingResponse.PriceChange.builder()
+                  .allocationId(row.id())
+                  .hallStallId(row.hallStallId())
+                  .stallId(row.stallId())
+                  .oldPrice(before.get(row.id()))
+                  .newPrice(row.price())
+                  .build())
+              .toList())
+          .build();
+    });
+
+    return new ContentResponse<>(
+        "StallAllocation",
+        "SUCCESS",
+        "200",
+        request.isDryRun() ? "Repricing preview computed" : "Stall allocations repriced",
+        response
+    );
+  }
+
+  private int apply(Long bookFairId, PricingRuleRequest rule) {
+    return stallAllocationRepository.applyPricingRule(
+        bookFairId,
+        nameOf(rule.getHall()),
+        nameOf(rule.getSize()),
+        nameOf(rule.getRing()),
+        rule.getRow(),
+        rule.getColumn(),
+        rule.getAdjustment() == PriceAdjustment.PERCENT,
+        rule.getAmount());
+  }
+
+  private static String nameOf(Enum<?> value) {
+    return value != null ? value.name() : null;
+  }
+}
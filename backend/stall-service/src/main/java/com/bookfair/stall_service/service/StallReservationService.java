@@ -1,12 +1,17 @@
 package com.bookfair.stall_service.service;
 
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.request.ContiguousStallSearchRequest;
 import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
+import com.bookfair.stall_service.dto.response.ContiguousBlockResponse;
 import com.bookfair.stall_service.dto.response.QrReadResponse;
 import com.bookfair.stall_service.dto.response.ReservationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationUserResponse;
+import com.bookfair.stall_service.dto.response.StallHoldResponse;
 import com.bookfair.stall_service.dto.response.StallReservationResponse;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
 import java.util.List;
 
 public interface StallReservationService {
@@ -14,17 +19,31 @@ public interface StallReservationService {
   ContentResponse<ReservationResponse> createReservation(
       CreateStallReservationRequest request);
 
+  ContentResponse<StallHoldResponse> holdStalls(CreateStallReservationRequest request);
+
+  ContentResponse<ReservationResponse> confirmHold(CreateStallReservationRequest request);
+
+  ContentResponse<Void> releaseHold(Long userId, List<Long> stallAllocationIds);
+
   ContentResponse<ReservationResponse> getReservationById(Long id);
 //
 //  ContentResponse<List<StallReservationResponse>> getReservationsForUser(Long userId);
 //
 //  ContentResponse<Void> cancelReservation(Long id, Long userId);
 
-  ContentResponse<List<StallAllocationResponse>> getAllReservationsForBookFair(Long bookFairId);
+  ContentResponse<List<StallAllocationResponse>> getAllReservationsForBookFair(Long bookFairId,
+      Long hallId, StallAllocationStatus status, KeysetPageRequest page);
 
   ContentResponse<Void> cancelReservation(Long id, Long userId);
 
-  ContentResponse<QrReadResponse> getReservationByToken(String token);
+  /**
+   * Blocks of adjacent stalls of the fair that are all open for reservation, answered from the
+   * in-memory availability snapshot.
+   */
+  ContentResponse<List<ContiguousBlockResponse>> findContiguousStalls(Long bookFairId,
+      ContiguousStallSearchRequest request);
+
+  ContentResponse<QrReadResponse> getReservationByToken(String token, Long bookFairId);
 
   ContentResponse<List<StallReservationResponse>> getStallsByReservationToken(String token);
 
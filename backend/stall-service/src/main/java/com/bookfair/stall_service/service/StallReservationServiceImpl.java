@@ -1,30 +1,41 @@
 package com.bookfair.stall_service.service;
 
-import com.bookfair.stall_service.client.UserServiceClient;
+import com.bookfair.outbox.OutboxPublisher;
+import com.bookfair.stall_service.cache.CheckInCounters;
+import com.bookfair.stall_service.cache.FairAvailability;
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
+import com.bookfair.stall_service.client.UserLookupCache;
 import com.bookfair.stall_service.configuration.RabbitMQConfig;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.KeysetPage;
 import com.bookfair.stall_service.dto.emailDto.ReservationEmailMessage;
+import com.bookfair.stall_service.dto.request.ContiguousStallSearchRequest;
 import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.dto.response.ContiguousBlockResponse;
 import com.bookfair.stall_service.dto.response.QrReadResponse;
 import com.bookfair.stall_service.dto.response.QrReadResponse.StallInfo;
 import com.bookfair.stall_service.dto.response.ReservationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationResponse;
 import com.bookfair.stall_service.dto.response.StallAllocationUserResponse;
+import com.bookfair.stall_service.dto.response.StallHoldResponse;
 import com.bookfair.stall_service.dto.response.StallReservationResponse;
-import com.bookfair.stall_service.dto.response.UserServiceResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
 import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.CheckInStatus;
 import com.bookfair.stall_service.enums.StallAllocationStatus;
 import com.bookfair.stall_service.enums.UserProfession;
 import com.bookfair.stall_service.repository.BookFairRepository;
 import com.bookfair.stall_service.repository.StallAllocationRepository;
 import com.bookfair.stall_service.repository.StallRepository;
+import jakarta.transaction.Transactional;
+import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -35,52 +46,31 @@ public class StallReservationServiceImpl implements StallReservationService {
   private final StallRepository stallRepository;
   private final BookFairRepository bookFairRepository;
   private final StallAllocationRepository stallAllocationRepository;
-  private final RabbitTemplate rabbitTemplate;
-  private final UserServiceClient userServiceClient;
+  private final OutboxPublisher outboxPublisher;
+  private final UserLookupCache userLookupCache;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
+  private final StallHoldExpiryScheduler stallHoldExpiryScheduler;
+  private final ReservationTokenSigner reservationTokenSigner;
+  private final CheckInCounters checkInCounters;
+
+  private static final int MAX_STALLS_PER_BOOK_FAIR = 3;
+  private static final List<StallAllocationStatus> ACTIVE_RESERVATION_STATUSES = List.of(
+      StallAllocationStatus.HELD, StallAllocationStatus.APPROVED, StallAllocationStatus.COMPLETED);
+
+  @Value("${stall-hold.ttl-seconds:300}")
+  private long holdTtlSeconds;
 
 
   @Override
+  @Transactional
   public ContentResponse<ReservationResponse> createReservation(
       CreateStallReservationRequest request) {
 
-    List<Long> invalidIds = request.getStallAllocationId().stream()
-        .filter(id -> !stallAllocationRepository.existsById(id))
-        .toList();
-
-    if (!invalidIds.isEmpty()) {
-      throw new IllegalArgumentException("Invalid stall allocation IDs: " + invalidIds);
-    }
-
+    List<StallAllocationEntity> stallAllocationEntity = findRequestedAllocations(request);
     UserServiceRequest user = validateAndFetchUser(request.getUserId());
-
-    List<StallAllocationEntity> stallAllocationEntity =
-        stallAllocationRepository.findAllById(request.getStallAllocationId());
-
-    List<StallAllocationEntity> existingAllocations = stallAllocationRepository.findByBookingUserId(
-        request.getUserId());
-
-    int allocatedStallByUser = existingAllocations.size();
-
-    if ((allocatedStallByUser + request.getStallAllocationId().size()) > 3) {
-      throw new IllegalArgumentException("Cannot reserve more than 3 stalls");
-    }
-
-//Validate all allocations belong to the same book fair
-    List<Long> distinctBookFairIds = stallAllocationEntity.stream()
-        .map(allocation -> allocation.getBookFair().getId())
-        .distinct()
-        .toList();
-    if (distinctBookFairIds.isEmpty()) {
-      throw new IllegalArgumentException("No valid stall allocations found");
-    }
-
-    if (distinctBookFairIds.size() > 1) {
-      throw new IllegalArgumentException("All stall allocations must belong to the same book fair");
-    }
-    BookFairEntity bookFairEntity = bookFairRepository.findById(
-            distinctBookFairIds.get(0))
-        .orElseThrow(() -> new IllegalArgumentException(
-            "Book Fair with ID " + distinctBookFairIds.get(0) + " does not exist"));
+    BookFairEntity bookFairEntity = findSingleBookFair(stallAllocationEntity);
+    validateReservationLimit(request.getUserId(), bookFairEntity.getId(),
+        stallAllocationEntity.size());
 
     for (StallAllocationEntity allocation : stallAllocationEntity) {
       if (!allocation.getStallAllocationStatus().equals(StallAllocationStatus.PENDING)) {
@@ -88,43 +78,121 @@ public class StallReservationServiceImpl implements StallReservationService {
             "Stall Allocation with ID " + allocation.getId() + " is not available for reservation");
       }
     }
-    String token = generateReservationToken("user" + request.getUserId() + "@bookfair.com");
-
-    //add userId and token in stallAllocationEntity for perticular user
-    for (StallAllocationEntity allocation : stallAllocationEntity) {
-      allocation.setBookingUserId(request.getUserId());
-      allocation.setReservationToken(token);
-      allocation.setStallAllocationStatus(StallAllocationStatus.APPROVED);
+    // Claim all requested allocations in one conditional update. If another request took any of
+    // them in the meantime fewer rows are updated, and the whole claim is rolled back.
+    List<Long> allocationIds = stallAllocationEntity.stream()
+        .map(StallAllocationEntity::getId)
+        .toList();
+    String token = reservationTokenSigner.sign(bookFairEntity.getId(), request.getUserId(),
+        allocationIds);
+    int claimed = stallAllocationRepository.claimAllocations(allocationIds,
+        StallAllocationStatus.PENDING, StallAllocationStatus.APPROVED, request.getUserId(), token);
+    if (claimed != allocationIds.size()) {
+      throw new IllegalArgumentException(
+          "One or more selected stalls were reserved by another user, please try again");
     }
-
-    stallAllocationRepository.saveAll(stallAllocationEntity);
+    stallAvailabilityIndex.allocationsChanged(bookFairEntity.getId(), allocationIds);
 
     sendReservationEmail(request, bookFairEntity.getName(), stallAllocationEntity, token,
         user.getUsername(), user.getProfession());
 
-    ReservationResponse response = ReservationResponse.builder()
+    return new ContentResponse<>(
+        "Reservation",
+        "SUCCESS",
+        "201",
+        "Reservation created successfully",
+        toReservationResponse(request.getUserId(), bookFairEntity, stallAllocationEntity)
+    );
+  }
+
+  @Override
+  @Transactional
+  public ContentResponse<StallHoldResponse> holdStalls(CreateStallReservationRequest request) {
+    List<StallAllocationEntity> allocations = findRequestedAllocations(request);
+    validateAndFetchUser(request.getUserId());
+    BookFairEntity bookFairEntity = findSingleBookFair(allocations);
+    validateReservationLimit(request.getUserId(), bookFairEntity.getId(), allocations.size());
+
+    List<Long> allocationIds = allocations.stream()
+        .map(StallAllocationEntity::getId)
+        .toList();
+    Instant expiresAt = Instant.now().plusSeconds(holdTtlSeconds);
+    int held = stallAllocationRepository.holdAllocations(allocationIds, request.getUserId(),
+        expiresAt);
+    if (held != allocationIds.size()) {
+      throw new IllegalArgumentException(
+          "One or more selected stalls are no longer available, please choose again");
+    }
+    stallAvailabilityIndex.allocationsChanged(bookFairEntity.getId(), allocationIds);
+    stallHoldExpiryScheduler.schedule(allocationIds, expiresAt);
+
+    StallHoldResponse response = StallHoldResponse.builder()
         .userId(request.getUserId())
-        .bookfairName(bookFairEntity.getName())
-        .stallReservationResponses(stallAllocationEntity.stream()
-            .map(allocation -> StallReservationResponse.builder()
-                .stallAllocationId(allocation.getId())
-                .stallName(allocation.getStall().getStallName())
-                .status(allocation.getStallAllocationStatus())
-                .build())
-            .toList())
+        .bookFairId(bookFairEntity.getId())
+        .stallAllocationIds(allocationIds)
+        .expiresAt(expiresAt)
         .build();
+    return new ContentResponse<>(
+        "StallHold",
+        "SUCCESS",
+        "201",
+        "Stalls held until " + expiresAt,
+        response
+    );
+  }
+
+  @Override
+  @Transactional
+  public ContentResponse<ReservationResponse> confirmHold(CreateStallReservationRequest request) {
+    List<StallAllocationEntity> allocations = findRequestedAllocations(request);
+    UserServiceRequest user = validateAndFetchUser(request.getUserId());
+    BookFairEntity bookFairEntity = findSingleBookFair(allocations);
+
+    List<Long> allocationIds = allocations.stream()
+        .map(StallAllocationEntity::getId)
+        .toList();
+    String token = reservationTokenSigner.sign(bookFairEntity.getId(), request.getUserId(),
+        allocationIds);
+    int confirmed = stallAllocationRepository.confirmHeldAllocations(allocationIds,
+        request.getUserId(), token, Instant.now());
+    if (confirmed != allocationIds.size()) {
+      throw new IllegalArgumentException("Stall hold has expired or is not held by this user");
+    }
+    stallAvailabilityIndex.allocationsChanged(bookFairEntity.getId(), allocationIds);
+
+    sendReservationEmail(request, bookFairEntity.getName(), allocations, token,
+        user.getUsername(), user.getProfession());
+
     return new ContentResponse<>(
         "Reservation",
         "SUCCESS",
         "201",
         "Reservation created successfully",
-        response
+        toReservationResponse(request.getUserId(), bookFairEntity, allocations)
+    );
+  }
+
+  @Override
+  @Transactional
+  public ContentResponse<Void> releaseHold(Long userId, List<Long> stallAllocationIds) {
+    int released = stallAllocationRepository.releaseHeldAllocations(stallAllocationIds, userId);
+    if (released == 0) {
+      throw new IllegalArgumentException("No active stall hold found for this user");
+    }
+    stallAvailabilityIndex.allocationsChanged(
+        stallAllocationRepository.findRowsByIdIn(stallAllocationIds));
+    return new ContentResponse<>(
+        "StallHold",
+        "SUCCESS",
+        "200",
+        "Stall hold released successfully",
+        null
     );
   }
 
   @Override
   public ContentResponse<ReservationResponse> getReservationById(Long id) {
-    StallAllocationEntity entity = stallAllocationRepository.findById(id)
+    StallAllocationEntity entity = stallAllocationRepository.findWithBookFairById(id)
         .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
 
     StallReservationResponse stallReservationResponse = StallReservationResponse.builder()
@@ -149,46 +217,52 @@ public class StallReservationServiceImpl implements StallReservationService {
 
   @Override
   public ContentResponse<List<StallAllocationResponse>> getAllReservationsForBookFair(
-      Long bookFairId) {
+      Long bookFairId, Long hallId, StallAllocationStatus status, KeysetPageRequest page) {
     if (!bookFairRepository.existsById(bookFairId)) {
       throw new IllegalArgumentException("Book Fair with ID " + bookFairId + " does not exist");
     }
 
-    if (!stallAllocationRepository.existsByBookFair_Id(bookFairId)) {
-      throw new IllegalArgumentException(
-          "No Stall Allocations found for Book Fair with ID " + bookFairId);
-    }
-
     List<StallAllocationEntity> allocations = stallAllocationRepository
-        .findByBookFair_Id(bookFairId);
-    List<StallAllocationResponse> responseList = allocations.stream()
-        .map(entity -> StallAllocationResponse.builder()
-            .id(entity.getId())
-            .userId(entity.getBookingUserId())
-            .bookFairId(entity.getBookFair().getId())
-            .hallStallID(entity.getHallStall().getId())
-            .stallId(entity.getStall().getId())
-            .reservationToken(entity.getReservationToken())
-            .price(entity.getStallPrice())
-            .stallAllocationStatus(entity.getStallAllocationStatus())
-            .build())
-        .toList();
+        .findPage(bookFairId, hallId, status, page.after(), page.fetchLimit());
+    return KeysetPage.of(allocations, page, StallAllocationEntity::getId)
+        .toResponse(
+            "StallAllocations",
+            "SUCCESS",
+            "200",
+            "Stall allocations for book fair fetched successfully",
+            entity -> StallAllocationResponse.builder()
+                .id(entity.getId())
+                .userId(entity.getBookingUserId())
+                .bookFairId(entity.getBookFair().getId())
+                .hallStallID(entity.getHallStall().getId())
+                .stallId(entity.getStall().getId())
+                .reservationToken(entity.getReservationToken())
+                .price(entity.getStallPrice())
+                .stallAllocationStatus(entity.getStallAllocationStatus())
+                .build());
+  }
+
+  @Override
+  public ContentResponse<List<ContiguousBlockResponse>> findContiguousStalls(Long bookFairId,
+      ContiguousStallSearchRequest request) {
+    FairAvailability fair = stallAvailabilityIndex.find(bookFairId)
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Book Fair with ID " + bookFairId + " does not exist"));
+    List<ContiguousBlockResponse> blocks = fair.contiguousBlocks(request.getCount(),
+        request.getSize(), request.getMaxPrice(), request.getLimit());
     return new ContentResponse<>(
-        "StallAllocations",
+        "ContiguousStalls",
         "SUCCESS",
         "200",
-        "Stall allocations for book fair fetched successfully",
-        responseList
-    );
-
+        blocks.size() + " contiguous blocks of " + request.getCount() + " stalls found",
+        blocks);
   }
 
   //duplicate
   @Override
   public ContentResponse<List<StallReservationResponse>> getStallsByReservationToken(String token) {
 
-    List<StallAllocationEntity> allocations =
-        stallAllocationRepository.findByReservationToken(token);
+    List<StallAllocationEntity> allocations = findByReservationToken(token, null);
 
     if (allocations.isEmpty()) {
       throw new IllegalArgumentException("No stalls found for this reservation token");
@@ -213,18 +287,8 @@ public class StallReservationServiceImpl implements StallReservationService {
 
   @Override
   public ContentResponse<List<StallAllocationUserResponse>> getReservationsByUserId(Long userId) {
-    List<StallAllocationEntity> allocationEntities = stallAllocationRepository.findByBookingUserId(
-        userId);
-    List<StallAllocationUserResponse> responseList = allocationEntities.stream()
-        .map(entity -> StallAllocationUserResponse.builder()
-            .bookFairName(entity.getBookFair().getName())
-            .hallName(entity.getHallStall().getHallEntity().getHallName())
-            .stallName(entity.getStall().getStallName())
-            .stallSize(entity.getStall().getSize())
-            .price(entity.getStallPrice())
-            .stallAllocationStatus(entity.getStallAllocationStatus())
-            .build())
-        .toList();
+    List<StallAllocationUserResponse> responseList =
+        stallAllocationRepository.findUserAllocations(userId);
     return new ContentResponse<>(
         "StallAllocations",
         "SUCCESS",
@@ -250,6 +314,8 @@ public class StallReservationServiceImpl implements StallReservationService {
     entity.setStallAllocationStatus(StallAllocationStatus.PENDING);
 
     stallAllocationRepository.save(entity);
+    stallAvailabilityIndex.allocationsChanged(entity.getBookFair().getId(),
+        List.of(entity.getId()));
 
     return new ContentResponse<>(
         "Reservation",
@@ -261,21 +327,25 @@ public class StallReservationServiceImpl implements StallReservationService {
   }
 
   @Override
-  public ContentResponse<QrReadResponse> getReservationByToken(String token) {
-    List<StallAllocationEntity> entity = stallAllocationRepository.findByReservationToken(
-        token);
+  @Transactional
+  public ContentResponse<QrReadResponse> getReservationByToken(String token, Long bookFairId) {
+    List<StallAllocationEntity> entity = findByReservationToken(token, bookFairId);
     if (entity.isEmpty()) {
       throw new IllegalArgumentException("Reservation not found");
     }
-//     update entity status to USED
-    for (StallAllocationEntity allocation : entity) {
-      if (allocation.getStallAllocationStatus() != StallAllocationStatus.APPROVED) {
-        throw new IllegalArgumentException("Reservation already used or cancelled");
-      } else {
-        allocation.setStallAllocationStatus(StallAllocationStatus.COMPLETED);
-        stallAllocationRepository.save(allocation);
-      }
+    Long entityBookFairId = entity.get(0).getBookFair().getId();
+    // Mark all stalls of the reservation used in one conditional update
+    List<Long> allocationIds = entity.stream().map(StallAllocationEntity::getId).toList();
+    int completed = stallAllocationRepository.completeAllocations(allocationIds);
+    if (completed != allocationIds.size()) {
+      boolean alreadyUsed = entity.stream().allMatch(allocation ->
+          allocation.getStallAllocationStatus() == StallAllocationStatus.COMPLETED);
+      checkInCounters.record(entityBookFairId,
+          alreadyUsed ? CheckInStatus.ALREADY_CHECKED_IN : CheckInStatus.NOT_APPROVED);
+      throw new IllegalArgumentException("Reservation already used or cancelled");
     }
+    checkInCounters.record(entityBookFairId, CheckInStatus.CHECKED_IN);
+    stallAvailabilityIndex.allocationsChanged(entityBookFairId, allocationIds);
     List<StallInfo> stalls = entity.stream()
         .map(allocation -> StallInfo.builder()
             .hallName(allocation.getHallStall().getHallEntity().getHallName())
@@ -335,52 +405,122 @@ public class StallReservationServiceImpl implements StallReservationService {
 //        return new ContentResponse<>("Reservation", "Reservation cancelled successfully", "SUCCESS", "200", null);
 //    }
 
+  private List<StallAllocationEntity> findRequestedAllocations(
+      CreateStallReservationRequest request) {
+    List<Long> requestedIds = request.getStallAllocationId().stream().distinct().toList();
+    List<StallAllocationEntity> allocations =
+        stallAllocationRepository.findForReservation(requestedIds);
+    if (allocations.size() != requestedIds.size()) {
+      List<Long> foundIds = allocations.stream().map(StallAllocationEntity::getId).toList();
+      List<Long> invalidIds = requestedIds.stream()
+          .filter(id -> !foundIds.contains(id))
+          .toList();
+      throw new IllegalArgumentException("Invalid stall allocation IDs: " + invalidIds);
+    }
+    return allocations;
+  }
+
+  // Counts only this user's live reservations in the same fair, via the (user, fair) index.
+  // The (user, fair) lock makes concurrent requests of the same user count one after another.
+  private void validateReservationLimit(Long userId, Long bookFairId, int requested) {
+    stallAllocationRepository.lockUserBookFair(userId.intValue(), bookFairId.intValue());
+    long reserved = stallAllocationRepository.countByUserAndBookFair(userId, bookFairId,
+        ACTIVE_RESERVATION_STATUSES);
+    if (reserved + requested > MAX_STALLS_PER_BOOK_FAIR) {
+      throw new IllegalArgumentException(
+          "Cannot reserve more than " + MAX_STALLS_PER_BOOK_FAIR + " stalls per book fair");
+    }
+  }
+
+  //Validate all allocations belong to the same book fair
+  private BookFairEntity findSingleBookFair(List<StallAllocationEntity> allocations) {
+    List<Long> distinctBookFairIds = allocations.stream()
+        .map(allocation -> allocation.getBookFair().getId())
+        .distinct()
+        .toList();
+    if (distinctBookFairIds.isEmpty()) {
+      throw new IllegalArgumentException("No valid stall allocations found");
+    }
+
+    if (distinctBookFairIds.size() > 1) {
+      throw new IllegalArgumentException("All stall allocations must belong to the same book fair");
+    }
+    // The fair is fetched together with the allocations, no extra lookup needed.
+    return allocations.get(0).getBookFair();
+  }
+
+  private ReservationResponse toReservationResponse(Long userId, BookFairEntity bookFairEntity,
+      List<StallAllocationEntity> allocations) {
+    return ReservationResponse.builder()
+        .userId(userId)
+        .bookfairName(bookFairEntity.getName())
+        .stallReservationResponses(allocations.stream()
+            .map(allocation -> StallReservationResponse.builder()
+                .stallAllocationId(allocation.getId())
+                .stallName(allocation.getStall().getStallName())
+                .status(StallAllocationStatus.APPROVED)
+                .build())
+            .toList())
+        .build();
+  }
+
   private void sendReservationEmail(CreateStallReservationRequest request,
       String bookFairEntityName, List<StallAllocationEntity> allocationEntities, String token,
       String username, UserProfession profession) {
-    try {
-      List<ReservationEmailMessage.StallInfo> stallInfos = allocationEntities.stream()
-          .map(allocation -> ReservationEmailMessage.StallInfo.builder()
-              .hallName(allocation.getHallStall().getHallEntity().getHallName())
-              .stallName(allocation.getStall().getStallName())
-              .stallSize(allocation.getStall().getSize())
-              .build())
-          .toList();
+    List<ReservationEmailMessage.StallInfo> stallInfos = allocationEntities.stream()
+        .map(allocation -> ReservationEmailMessage.StallInfo.builder()
+            .hallName(allocation.getHallStall().getHallEntity().getHallName())
+            .stallName(allocation.getStall().getStallName())
+            .stallSize(allocation.getStall().getSize())
+            .build())
+        .toList();
 
-      ReservationEmailMessage message = ReservationEmailMessage.builder()
-          .email(username)
-          .userProfession(profession)
-          .subject("Stall Reservation Confirmation - " + bookFairEntityName)
-          .bookFairName(bookFairEntityName)
-          .reservationToken(token)
-          .stalls(stallInfos)
-          .build();
-
-      rabbitTemplate.convertAndSend(RabbitMQConfig.RESERVATION_EMAIL_QUEUE, message);
-      log.info("Reservation email message sent to queue for user: {}", username);
-    } catch (Exception e) {
-      log.error("Failed to send reservation email message to queue", e);
-    }
+    ReservationEmailMessage message = ReservationEmailMessage.builder()
+        .email(username)
+        .userProfession(profession)
+        .subject("Stall Reservation Confirmation - " + bookFairEntityName)
+        .bookFairName(bookFairEntityName)
+        .reservationToken(token)
+        .stalls(stallInfos)
+        .build();
+
+    // Stored with the reservation and relayed after commit; the default exchange routes by queue
+    outboxPublisher.publish("reservation", request.getUserId(), "",
+        RabbitMQConfig.RESERVATION_EMAIL_QUEUE, message);
+    log.info("Reservation email message queued in outbox for user: {}", username);
   }
 
-  private String generateReservationToken(String username) {
-    String uniqueString = username + System.currentTimeMillis();
-    return UUID.nameUUIDFromBytes(uniqueString.getBytes()).toString();
+  /**
+   * Allocations of a reservation token. Signed tokens are verified first and looked up by the
+   * allocation ids they carry, so forged codes and codes of another fair never reach the
+   * database; tokens issued before signing fall back to the indexed token lookup.
+   */
+  private List<StallAllocationEntity> findByReservationToken(String token, Long bookFairId) {
+    Optional<ReservationTokenSigner.Claims> claims = reservationTokenSigner.verify(token);
+    if (claims.isEmpty()) {
+      return stallAllocationRepository.findByReservationToken(token).stream()
+          .filter(allocation -> bookFairId == null
+              || bookFairId.equals(allocation.getBookFair().getId()))
+          .toList();
+    }
+    if (bookFairId != null && !bookFairId.equals(claims.get().bookFairId())) {
+      throw new IllegalArgumentException("Reservation belongs to a different book fair");
+    }
+    // A cancelled and re-reserved allocation carries a newer token, so the old one stops matching
+    return stallAllocationRepository.findForReservation(claims.get().allocationIds()).stream()
+        .filter(allocation -> token.equals(allocation.getReservationToken()))
+        .toList();
   }
 
   private UserServiceRequest validateAndFetchUser(Long userId) {
     try {
-      log.info("Fetching user with ID: {} from user-service", userId);
-      UserServiceResponse<UserServiceRequest> response =
-          userServiceClient.getUserById(userId);
+      UserServiceRequest user = userLookupCache.getUser(userId);
 
-      if (response == null || response.getData() == null) {
+      if (user == null) {
         log.error("User service returned null response for userId: {}", userId);
         throw new IllegalArgumentException("User with ID " + userId + " not found");
       }
 
-      UserServiceRequest user = response.getData();
-
       if (Boolean.FALSE.equals(user.getEnabled())) {
         log.warn("User {} is disabled", userId);
         throw new IllegalArgumentException("User account is disabled or inactive");
@@ -392,4 +532,4 @@ public class StallReservationServiceImpl implements StallReservationService {
       throw new RuntimeException("Unable to validate user. Please try again later." + e.getMessage());
     }
   }
-}
\ No newline at end of file
+}
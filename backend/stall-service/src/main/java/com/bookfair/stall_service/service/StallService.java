@@ -2,17 +2,21 @@ package com.bookfair.stall_service.service;
 
 import com.bookfair.stall_service.dto.ContentResponse;
 import com.bookfair.stall_service.dto.request.CreateStallRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallRequest;
 import com.bookfair.stall_service.dto.response.StallResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
 import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.Status;
 import java.util.List;
 
 public interface StallService {
 
   ContentResponse<StallResponse> createStall(CreateStallRequest createStallRequest);
 
-  ContentResponse<List<StallResponse>> getAllStalls();
+  ContentResponse<List<StallResponse>> getAllStalls(Status status, Size size,
+      KeysetPageRequest page);
 
   ContentResponse<StallResponse> getStallById(Long id);
 
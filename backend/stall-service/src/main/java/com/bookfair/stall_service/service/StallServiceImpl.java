@@ -1,7 +1,10 @@
 package com.bookfair.stall_service.service;
 
+import com.bookfair.stall_service.cache.StallAvailabilityIndex;
 import com.bookfair.stall_service.dto.ContentResponse;
+import com.bookfair.stall_service.dto.KeysetPage;
 import com.bookfair.stall_service.dto.request.CreateStallRequest;
+import com.bookfair.stall_service.dto.request.KeysetPageRequest;
 import com.bookfair.stall_service.dto.request.UpdateStallRequest;
 import com.bookfair.stall_service.dto.response.StallResponse;
 import com.bookfair.stall_service.entity.BookFairEntity;
@@ -11,6 +14,7 @@ import com.bookfair.stall_service.enums.Size;
 import com.bookfair.stall_service.enums.Status;
 import com.bookfair.stall_service.repository.StallAllocationRepository;
 import com.bookfair.stall_service.repository.StallRepository;
+import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -23,6 +27,7 @@ public class StallServiceImpl implements StallService {
 
   private final StallRepository stallRepository;
   private final StallAllocationRepository stallAllocationRepository;
+  private final StallAvailabilityIndex stallAvailabilityIndex;
 
 
   @Override
@@ -44,15 +49,18 @@ public class StallServiceImpl implements StallService {
   }
 
   @Override
-  public ContentResponse<List<StallResponse>> getAllStalls() {
-    List<StallEntity> stalls = stallRepository.findAll();
-    return new ContentResponse<>(
-        "Stall List",
-        "SUCCESS",
-        "200",
-        "Stalls retrieved successfully",
-        stalls.stream().map(this::mapToResponse).toList()
-    );
+  public ContentResponse<List<StallResponse>> getAllStalls(Status status, Size size,
+      KeysetPageRequest page) {
+    List<StallEntity> stalls = stallRepository.findPage(status, size, page.after(),
+        page.fetchLimit());
+    return KeysetPage.of(stalls, page, StallEntity::getId)
+        .toResponse(
+            "Stall List",
+            "SUCCESS",
+            "200",
+            "Stalls retrieved successfully",
+            this::mapToResponse
+        );
   }
 
   @Override
@@ -73,6 +81,7 @@ public class StallServiceImpl implements StallService {
   }
 
   @Override
+  @Transactional
   public ContentResponse<StallResponse> updateStall(Long id, UpdateStallRequest request) {
     StallEntity existingStall = stallRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Stall not found"));
@@ -84,12 +93,19 @@ public class StallServiceImpl implements StallService {
       }
     }
 
+    boolean sizeChanged = existingStall.getSize() != request.getSize();
     existingStall.setStallName(request.getStallName());
     existingStall.setSize(request.getSize());
     existingStall.setStatus(request.getStatus());
     existingStall.setDescription(request.getDescription());
 
     StallEntity updatedStall = stallRepository.save(existingStall);
+    // Fairs showing this stall keep its size in their availability snapshot; evict runs after
+    // commit, so a reload cannot pick up the old size
+    if (sizeChanged) {
+      stallAllocationRepository.findBookFairIdsByStallId(id)
+          .forEach(stallAvailabilityIndex::evict);
+    }
     StallResponse stallResponse = mapToResponse(updatedStall);
     return new ContentResponse<>(
         "Stall Update",
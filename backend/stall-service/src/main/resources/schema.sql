@@ -0,0 +1,8 @@
+-- Runs after Hibernate's ddl-auto=update on every start (see spring.sql.init.* in
+-- application.properties). Hibernate adds missing columns but never changes an existing check
+-- constraint, so enum values added after a table was created are allowed here.
+alter table stall_allocations
+    drop constraint if exists stall_allocations_stall_allocation_status_check;
+alter table stall_allocations
+    add constraint stall_allocations_stall_allocation_status_check
+    check (stall_allocation_status in ('PENDING', 'APPROVED', 'CANCELLED', 'COMPLETED', 'HELD'));
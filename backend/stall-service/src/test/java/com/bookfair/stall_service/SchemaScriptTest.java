@@ -0,0 +1,38 @@
+package com.bookfair.stall_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Databases created before stall holds existed carry a status check without HELD, which
+ * Hibernate's update never replaces; schema.sql has to.
+ */
+class SchemaScriptTest extends EmbeddedPostgresTest {
+
+  private static final String STATUS_CHECK = "stall_allocations_stall_allocation_status_check";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Test
+  void replacesTheAllocationStatusCheckOfAnOlderDatabase() {
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("alter table stall_allocations drop constraint " + STATUS_CHECK);
+    jdbc.execute("alter table stall_allocations add constraint " + STATUS_CHECK
+        + " check (stall_allocation_status in ('PENDING', 'APPROVED', 'CANCELLED', 'COMPLETED'))"
+        + " not valid");
+
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+    assertThat(jdbc.queryForObject(
+        "select pg_get_constraintdef(oid) from pg_constraint where conname = ?", String.class,
+        STATUS_CHECK)).contains("'HELD'");
+  }
+}
@@ -1,10 +1,9 @@
 package com.bookfair.stall_service;
 
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class StallServiceApplicationTests {
+class StallServiceApplicationTests extends EmbeddedPostgresTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,52 @@
+package com.bookfair.stall_service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.dto.projection.AllocationRow;
+import com.bookfair.stall_service.dto.projection.HallStallRow;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.layout.HallGeometry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FairAvailabilityTest {
+
+  private static final List<HallGeometry> HALLS =
+      List.of(new HallGeometry(10L, Hall.TOP, 1, 2, 0, 0));
+  private static final List<HallStallRow> HALL_STALLS = List.of(
+      new HallStallRow(100L, 1L, 10L, Hall.TOP, "T1", 0),
+      new HallStallRow(101L, 1L, 10L, Hall.TOP, "T2", 1));
+
+  @Test
+  void separateLoadsOfTheSameFairHaveTheSameVersion() {
+    FairAvailability first = load(StallAllocationStatus.PENDING);
+    FairAvailability second = load(StallAllocationStatus.PENDING);
+
+    assertThat(first.version()).isEqualTo(second.version());
+    assertThat(first.floorPlan().getVersion()).isEqualTo(first.version());
+  }
+
+  @Test
+  void versionFollowsTheContent() {
+    FairAvailability fair = load(StallAllocationStatus.PENDING);
+    String pending = fair.version();
+
+    fair.upsert(List.of(allocation(StallAllocationStatus.APPROVED)));
+    String approved = fair.version();
+    fair.upsert(List.of(allocation(StallAllocationStatus.PENDING)));
+
+    assertThat(approved).isNotEqualTo(pending)
+        .isEqualTo(load(StallAllocationStatus.APPROVED).version());
+    assertThat(fair.version()).isEqualTo(pending);
+  }
+
+  private static FairAvailability load(StallAllocationStatus status) {
+    return new FairAvailability(1L, HALLS, HALL_STALLS, List.of(allocation(status)));
+  }
+
+  private static AllocationRow allocation(StallAllocationStatus status) {
+    return new AllocationRow(1000L, 1L, 100L, 7L, 1000L, status, null, null, Size.SMALL);
+  }
+}
@@ -0,0 +1,160 @@
+package com.bookfair.stall_service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bookfair.stall_service.repository.IdempotencyKeyRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class IdempotencyStoreTest extends EmbeddedPostgresTest {
+
+  private static final TypeReference<String> STRING = new TypeReference<>() {
+  };
+
+  @Autowired
+  private IdempotencyStore store;
+
+  @Autowired
+  private IdempotencyKeyRepository idempotencyKeyRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final AtomicInteger runs = new AtomicInteger();
+  // Keys outlive a test in the shared database, so every test uses its own
+  private final String key = UUID.randomUUID().toString();
+
+  @Test
+  void replaysTheFirstResponseForTheSameKey() {
+    String first = store.execute("hold", key, "request", STRING, this::run);
+    String second = store.execute("hold", key, "request", STRING, this::run);
+
+    assertThat(second).isEqualTo(first);
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void replaysAResponseStoredByAnotherReplica() {
+    String first = store.execute("hold", key, "request", STRING, this::run);
+
+    assertThat(replica(30).execute("hold", key, "request", STRING, this::run))
+        .isEqualTo(first);
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void runsEveryRequestWithoutAKey() {
+    store.execute("hold", null, "request", STRING, this::run);
+    store.execute("hold", " ", "request", STRING, this::run);
+
+    assertThat(runs).hasValue(2);
+  }
+
+  @Test
+  void keysAreScoped() {
+    store.execute("hold", key, "request", STRING, this::run);
+    store.execute("reserve", key, "request", STRING, this::run);
+
+    assertThat(runs).hasValue(2);
+  }
+
+  @Test
+  void rejectsAKeyReusedForADifferentRequest() {
+    store.execute("hold", key, "request", STRING, this::run);
+
+    assertThatThrownBy(() -> store.execute("hold", key, "other request", STRING, this::run))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Idempotency-Key was already used for a different request");
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void rejectsOverlongKeys() {
+    assertThatThrownBy(() -> store.execute("hold", "k".repeat(256), "request", STRING,
+        this::run))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void failedRequestsCanBeRetried() {
+    assertThatThrownBy(() -> store.execute("hold", key, "request", STRING, () -> {
+      throw new IllegalArgumentException("Stall is not available");
+    })).hasMessage("Stall is not available");
+
+    assertThat(idempotencyKeyRepository.findById("hold:" + key)).isEmpty();
+    assertThat(store.execute("hold", key, "request", STRING, this::run)).isEqualTo("response 1");
+  }
+
+  @Test
+  void concurrentDuplicatesWaitForTheOriginal() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> original = CompletableFuture.supplyAsync(() ->
+        store.execute("hold", key, "request", STRING, () -> {
+          started.countDown();
+          await(release);
+          return run();
+        }));
+    started.await();
+    CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() ->
+        replica(30).execute("hold", key, "request", STRING, this::run));
+
+    release.countDown();
+
+    assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(original.get(5, TimeUnit.SECONDS));
+    assertThat(runs).hasValue(1);
+  }
+
+  @Test
+  void duplicatesGiveUpWithAConflictWhenTheOriginalTakesTooLong() throws Exception {
+    IdempotencyStore impatient = replica(0);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> original = CompletableFuture.supplyAsync(() ->
+        store.execute("hold", key, "request", STRING, () -> {
+          started.countDown();
+          await(release);
+          return run();
+        }));
+    started.await();
+
+    assertThatThrownBy(() -> impatient.execute("hold", key, "request", STRING, this::run))
+        .isInstanceOfSatisfying(ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    release.countDown();
+    original.get(5, TimeUnit.SECONDS);
+  }
+
+  // A second store on the same database, as another replica would have
+  private IdempotencyStore replica(long waitSeconds) {
+    return new IdempotencyStore(idempotencyKeyRepository, objectMapper, transactionManager, 60,
+        waitSeconds);
+  }
+
+  private String run() {
+    return "response " + runs.incrementAndGet();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.bookfair.stall_service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.dto.response.StallAllocationResponse;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class StallAvailabilityIndexTest extends EmbeddedPostgresTest {
+
+  @Autowired
+  private StallAvailabilityIndex stallAvailabilityIndex;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void snapshotKeepsTheLatestCommitWhenCallbacksRunOutOfOrder() {
+    BookFairEntity fair = fairFixtures.fair();
+    Long allocationId = fairFixtures.openAllocations(fair, 1).get(0).getId();
+    stallAvailabilityIndex.find(fair.getId()).orElseThrow();
+    TransactionTemplate first = new TransactionTemplate(transactionManager);
+    TransactionTemplate second = new TransactionTemplate(transactionManager);
+    second.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    // The second write commits and reports before the after-commit callback of the first runs
+    first.executeWithoutResult(status -> {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          second.executeWithoutResult(inner ->
+              setStatus(fair.getId(), allocationId, StallAllocationStatus.APPROVED));
+        }
+      });
+      setStatus(fair.getId(), allocationId, StallAllocationStatus.HELD);
+    });
+
+    assertThat(stallAvailabilityIndex.find(fair.getId()).orElseThrow().allocations(null))
+        .extracting(StallAllocationResponse::getStallAllocationStatus)
+        .containsExactly(StallAllocationStatus.APPROVED);
+  }
+
+  @Test
+  void deletedAllocationsLeaveTheSnapshot() {
+    BookFairEntity fair = fairFixtures.fair();
+    List<StallAllocationEntity> allocations = fairFixtures.openAllocations(fair, 2);
+    stallAvailabilityIndex.find(fair.getId()).orElseThrow();
+
+    stallAllocationRepository.deleteById(allocations.get(0).getId());
+    stallAvailabilityIndex.allocationsChanged(fair.getId(), List.of(allocations.get(0).getId()));
+
+    assertThat(stallAvailabilityIndex.find(fair.getId()).orElseThrow().allocations(null))
+        .extracting(StallAllocationResponse::getId)
+        .containsExactly(allocations.get(1).getId());
+  }
+
+  private void setStatus(Long bookFairId, Long allocationId, StallAllocationStatus status) {
+    StallAllocationEntity allocation = stallAllocationRepository.findById(allocationId)
+        .orElseThrow();
+    allocation.setStallAllocationStatus(status);
+    stallAllocationRepository.saveAndFlush(allocation);
+    stallAvailabilityIndex.allocationsChanged(bookFairId, List.of(allocationId));
+  }
+}
@@ -0,0 +1,115 @@
+package com.bookfair.stall_service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bookfair.stall_service.importer.ImportRowReader.Row;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ImportRowReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void readsCsvRecordsByHeaderName() throws IOException {
+    List<Row> rows = readCsv("""
+        ﻿stallName, size ,description
+        A1,SMALL,Corner stall
+        A2,LARGE,
+        """);
+
+    assertThat(rows).extracting(Row::number).containsExactly(1L, 2L);
+    assertThat(rows.get(0).values())
+        .containsExactlyInAnyOrderEntriesOf(Map.of("stallName", "A1", "size", "SMALL",
+            "description", "Corner stall"));
+    assertThat(rows.get(1).values()).doesNotContainKey("description");
+  }
+
+  @Test
+  void readsQuotedCsvFields() throws IOException {
+    List<Row> rows = readCsv("stallName,description\r\n"
+        + "A1,\"Books, maps and \"\"rare\"\" prints\"\r\n"
+        + "A2,\"Two\nlines\"\r\n");
+
+    assertThat(rows.get(0).values()).containsEntry("description",
+        "Books, maps and \"rare\" prints");
+    assertThat(rows.get(1).values()).containsEntry("description", "Two\nlines");
+  }
+
+  @Test
+  void reportsRowsWithTheWrongNumberOfColumnsAndKeepsReading() throws IOException {
+    List<Row> rows = readCsv("""
+        stallName,size
+        A1
+        A2,SMALL,extra
+
+        A3,MEDIUM
+        """);
+
+    assertThat(rows).extracting(Row::number).containsExactly(1L, 2L, 3L);
+    assertThat(rows.get(0).error()).isEqualTo("Expected 2 columns but found 1");
+    assertThat(rows.get(0).values()).isEmpty();
+    assertThat(rows.get(1).error()).isEqualTo("Expected 2 columns but found 3");
+    assertThat(rows.get(2).error()).isNull();
+  }
+
+  @Test
+  void rejectsAnUnterminatedQuotedField() {
+    assertThatThrownBy(() -> readCsv("stallName\nA1\n\"A2\n"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unterminated quoted field in row 2");
+  }
+
+  @Test
+  void readsAnEmptyCsvFile() throws IOException {
+    assertThat(readCsv("")).isEmpty();
+    assertThat(readCsv("stallName,size\n")).isEmpty();
+  }
+
+  @Test
+  void readsAJsonArrayAndJsonLines() throws IOException {
+    List<Row> array = readJson("[{\"stallName\":\"A1\",\"size\":\"SMALL\"},{\"stallName\":\"A2\"}]");
+    List<Row> lines = readJson("{\"stallName\":\"A1\"}\n{\"stallName\":\"A2\"}\n");
+
+    assertThat(array).extracting(Row::number).containsExactly(1L, 2L);
+    assertThat(array.get(0).values()).containsEntry("size", "SMALL");
+    assertThat(lines).extracting(row -> row.values().get("stallName"))
+        .containsExactly("A1", "A2");
+  }
+
+  @Test
+  void reportsWhereJsonStopsBeingReadable() {
+    assertThatThrownBy(() -> readJson("{\"stallName\":\"A1\"}\n{\"stallName\":"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Malformed JSON after row 1");
+  }
+
+  private static List<Row> readCsv(String content) throws IOException {
+    return readAll(ImportRowReader.csv(stream(content)));
+  }
+
+  private List<Row> readJson(String content) throws IOException {
+    return readAll(ImportRowReader.json(stream(content), objectMapper));
+  }
+
+  private static List<Row> readAll(ImportRowReader reader) throws IOException {
+    try (reader) {
+      List<Row> rows = new ArrayList<>();
+      for (Row row = reader.next(); row != null; row = reader.next()) {
+        rows.add(row);
+      }
+      return rows;
+    }
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,156 @@
+package com.bookfair.stall_service.layout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.layout.AllocationSolver.Result;
+import com.bookfair.stall_service.layout.AllocationSolver.Slot;
+import com.bookfair.stall_service.layout.AllocationSolver.Unit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class AllocationSolverTest {
+
+  private long nextId = 1;
+
+  @Test
+  void placesNoMoreStallsThanThereAreFreeSlots() {
+    AllocationSolver solver = new AllocationSolver(grid(1L, Hall.TOP, 2, 3));
+
+    Result result = solver.solve(singles(10));
+
+    assertThat(result.placements()).hasSize(6);
+    assertThat(result.unplaced()).hasSize(4);
+    assertThat(new HashSet<>(result.placements().values())).hasSize(6);
+  }
+
+  @Test
+  void keepsAGroupInConsecutivePositionsOfOneLane() {
+    List<Slot> slots = new ArrayList<>(grid(1L, Hall.TOP, 3, 5));
+    // Row 1 has a gap at column 3, so only rows 2 and 3 have five free slots in a row
+    slots.removeIf(slot -> slot.position().row() == 1 && slot.position().position() == 3);
+    AllocationSolver solver = new AllocationSolver(slots);
+    Unit group = new Unit(List.of(100L, 101L, 102L, 103L, 104L), Set.of());
+
+    Result result = solver.solve(List.of(group));
+
+    List<Slot> placed = group.stallIds().stream().map(result.placements()::get).toList();
+    assertThat(placed).doesNotContainNull();
+    assertThat(placed).extracting(slot -> slot.position().lane()).containsOnly("R2");
+    assertThat(placed).extracting(slot -> slot.position().position())
+        .containsExactly(1, 2, 3, 4, 5);
+  }
+
+  @Test
+  void prefersTheShortestRunThatFits() {
+    List<Slot> slots = new ArrayList<>(grid(1L, Hall.TOP, 1, 8));
+    slots.addAll(grid(2L, Hall.LEFT, 1, 2));
+    AllocationSolver solver = new AllocationSolver(slots);
+
+    Result result = solver.solve(List.of(new Unit(List.of(1L, 2L), Set.of())));
+
+    assertThat(result.placements().values()).extracting(Slot::hall).containsOnly(Hall.LEFT);
+  }
+
+  @Test
+  void placesLargerGroupsFirst() {
+    AllocationSolver solver = new AllocationSolver(grid(1L, Hall.TOP, 1, 4));
+    Unit single = new Unit(List.of(1L), Set.of());
+    Unit group = new Unit(List.of(2L, 3L, 4L, 5L), Set.of());
+
+    Result result = solver.solve(List.of(single, group));
+
+    assertThat(result.placements()).containsOnlyKeys(2L, 3L, 4L, 5L);
+    assertThat(result.unplaced()).containsExactly(single);
+  }
+
+  @Test
+  void respectsAllowedHalls() {
+    List<Slot> slots = new ArrayList<>(grid(1L, Hall.TOP, 2, 2));
+    slots.addAll(grid(2L, Hall.RIGHT, 2, 2));
+    AllocationSolver solver = new AllocationSolver(slots);
+
+    Result result = solver.solve(List.of(
+        new Unit(List.of(1L), Set.of(Hall.RIGHT)),
+        new Unit(List.of(2L), Set.of(Hall.RIGHT))));
+
+    assertThat(result.placements().values()).extracting(Slot::hall).containsOnly(Hall.RIGHT);
+  }
+
+  @Test
+  void leavesInfeasibleUnitsUnplaced() {
+    AllocationSolver solver = new AllocationSolver(grid(1L, Hall.TOP, 2, 3));
+    Unit tooLong = new Unit(List.of(1L, 2L, 3L, 4L), Set.of());
+    Unit noSuchHall = new Unit(List.of(5L), Set.of(Hall.RING));
+
+    Result result = solver.solve(List.of(tooLong, noSuchHall));
+
+    assertThat(result.placements()).isEmpty();
+    assertThat(result.unplaced()).containsExactlyInAnyOrder(tooLong, noSuchHall);
+  }
+
+  @Test
+  void solvesAnEmptyHallAndNoUnits() {
+    assertThat(new AllocationSolver(List.of()).solve(singles(2)).unplaced()).hasSize(2);
+    assertThat(new AllocationSolver(grid(1L, Hall.TOP, 1, 1)).solve(List.of()).placements())
+        .isEmpty();
+  }
+
+  /**
+   * Synthetic fairs with thousands of slots and a mix of single stalls and vendor groups, some
+   * limited to one hall, have to be solved well under a second.
+   */
+  @Test
+  void solvesLargeFairsQuickly() {
+    Random random = new Random(42);
+    for (int size : new int[] {1_000, 5_000, 20_000}) {
+      int side = (int) Math.sqrt(size / 4.0);
+      List<Slot> slots = new ArrayList<>();
+      for (Hall hall : List.of(Hall.TOP, Hall.LEFT, Hall.RIGHT, Hall.RING)) {
+        slots.addAll(grid((long) hall.ordinal(), hall, side, side));
+      }
+      List<Unit> units = new ArrayList<>();
+      long stallId = 1;
+      for (int placed = 0; placed < slots.size() * 9 / 10; ) {
+        int length = random.nextInt(10) < 7 ? 1 : 2 + random.nextInt(4);
+        Set<Hall> halls = random.nextInt(4) == 0 ? Set.of(Hall.values()[random.nextInt(4)])
+            : Set.of();
+        units.add(new Unit(LongStream.range(stallId, stallId + length).boxed().toList(), halls));
+        stallId += length;
+        placed += length;
+      }
+
+      long started = System.nanoTime();
+      Result result = new AllocationSolver(slots).solve(units);
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+      System.out.printf("%d slots, %d units: %d placed, %d unplaced in %d ms%n", slots.size(),
+          units.size(), result.placements().size(), result.unplaced().size(), millis);
+      assertThat(millis).isLessThan(1_000);
+      assertThat(new HashSet<>(result.placements().values())).hasSize(result.placements().size());
+    }
+  }
+
+  private List<Slot> grid(Long hallId, Hall hall, int rows, int columns) {
+    List<Slot> slots = new ArrayList<>();
+    for (int row = 1; row <= rows; row++) {
+      for (int column = 1; column <= columns; column++) {
+        HallSlot position = new HallSlot(hall, null, row, column);
+        slots.add(new Slot(nextId++, position.format(), hallId, hall, position));
+      }
+    }
+    return slots;
+  }
+
+  private static List<Unit> singles(int count) {
+    return LongStream.rangeClosed(1, count)
+        .mapToObj(id -> new Unit(List.of(id), Set.of()))
+        .toList();
+  }
+}
@@ -0,0 +1,107 @@
+package com.bookfair.stall_service.layout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.dto.projection.HallStallRow;
+import com.bookfair.stall_service.entity.HallEntity;
+import com.bookfair.stall_service.enums.Hall;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HallGeometryTest {
+
+  private final HallGeometry grid = new HallGeometry(7L, Hall.TOP, 3, 4, 0, 0);
+  private final HallGeometry ring = new HallGeometry(8L, Hall.RING, 0, 0, 4, 6);
+
+  @Test
+  void numbersGridSlotsRowByRow() {
+    assertThat(grid.size()).isEqualTo(12);
+    assertThat(grid.name(0)).isEqualTo("TOP-R1C1");
+    assertThat(grid.name(5)).isEqualTo("TOP-R2C2");
+    assertThat(grid.name(11)).isEqualTo("TOP-R3C4");
+  }
+
+  @Test
+  void numbersTheInnerRingBeforeTheOuterRing() {
+    assertThat(ring.size()).isEqualTo(10);
+    assertThat(ring.name(0)).isEqualTo("RING-IR1");
+    assertThat(ring.name(3)).isEqualTo("RING-IR4");
+    assertThat(ring.name(4)).isEqualTo("RING-OR1");
+    assertThat(ring.name(9)).isEqualTo("RING-OR6");
+  }
+
+  @Test
+  void indexOfIsTheInverseOfSlot() {
+    for (HallGeometry geometry : List.of(grid, ring)) {
+      for (int slotIndex = 0; slotIndex < geometry.size(); slotIndex++) {
+        assertThat(geometry.indexOf(HallSlot.parse(geometry.name(slotIndex))))
+            .isEqualTo(slotIndex);
+      }
+    }
+  }
+
+  @Test
+  void indexOfRejectsPositionsOutsideTheGeometry() {
+    assertThat(grid.indexOf(HallSlot.parse("TOP-R4C1"))).isEqualTo(-1);
+    assertThat(grid.indexOf(HallSlot.parse("TOP-R1C5"))).isEqualTo(-1);
+    assertThat(grid.indexOf(HallSlot.parse("TOP-IR1"))).isEqualTo(-1);
+    assertThat(ring.indexOf(HallSlot.parse("RING-IR5"))).isEqualTo(-1);
+    assertThat(ring.indexOf(HallSlot.parse("RING-OR7"))).isEqualTo(-1);
+    assertThat(ring.indexOf(HallSlot.parse("RING-R1C1"))).isEqualTo(-1);
+  }
+
+  @Test
+  void gridRowsEndAtTheLastColumn() {
+    assertThat(grid.nextInLane(0)).isEqualTo(1);
+    assertThat(grid.nextInLane(3)).isEqualTo(-1);
+    assertThat(grid.nextInLane(4)).isEqualTo(5);
+    assertThat(grid.nextInLane(11)).isEqualTo(-1);
+  }
+
+  @Test
+  void ringsAreClosed() {
+    assertThat(ring.nextInLane(2)).isEqualTo(3);
+    assertThat(ring.nextInLane(3)).isEqualTo(0);
+    assertThat(ring.nextInLane(4)).isEqualTo(5);
+    assertThat(ring.nextInLane(9)).isEqualTo(4);
+  }
+
+  @Test
+  void ringsOfFewerThanThreeStallsAreNotClosed() {
+    HallGeometry small = new HallGeometry(9L, Hall.RING, 0, 0, 2, 2);
+
+    assertThat(small.nextInLane(0)).isEqualTo(1);
+    assertThat(small.nextInLane(1)).isEqualTo(-1);
+    assertThat(small.nextInLane(3)).isEqualTo(-1);
+  }
+
+  @Test
+  void virtualIdsEncodeHallAndSlot() {
+    long virtualId = HallGeometry.virtualId(123_456L, 2_499);
+
+    assertThat(HallGeometry.isVirtual(virtualId)).isTrue();
+    assertThat(HallGeometry.hallIdOf(virtualId)).isEqualTo(123_456L);
+    assertThat(HallGeometry.slotIndexOf(virtualId)).isEqualTo(2_499);
+    assertThat(HallGeometry.isVirtual(42L)).isFalse();
+  }
+
+  @Test
+  void expandFillsFreeSlotsWithVirtualRowsAndKeepsStoredRows() {
+    HallEntity hall = HallEntity.builder()
+        .id(7L)
+        .hallName(Hall.TOP)
+        .rows(1)
+        .columns(3)
+        .build();
+    HallStallRow stored = new HallStallRow(50L, 1L, 7L, Hall.TOP, "TOP-R1C2", 1);
+    HallStallRow outside = new HallStallRow(51L, 1L, 7L, Hall.TOP, "TOP-R1C9", 8);
+    HallStallRow unslotted = new HallStallRow(52L, 1L, 7L, Hall.TOP, "legacy", null);
+
+    List<HallStallRow> rows = HallGeometry.expand(1L, List.of(hall),
+        List.of(unslotted, outside, stored));
+
+    assertThat(rows).extracting(HallStallRow::hallStallId).containsExactly(
+        HallGeometry.virtualId(7L, 0), 50L, HallGeometry.virtualId(7L, 2), 51L, 52L);
+    assertThat(rows.get(2).stallName()).isEqualTo("TOP-R1C3");
+  }
+}
@@ -0,0 +1,116 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Each allocation read path runs a fixed number of statements, however many allocations it
+ * returns. Lazy associations that a mapping walks would show up here as extra statements.
+ */
+class AllocationReadStatementCountTest extends EmbeddedPostgresTest {
+
+  private static final int RESERVED = 3;
+
+  @Autowired
+  private StallReservationService stallReservationService;
+
+  @Autowired
+  private StallAllocationService stallAllocationService;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Long userId;
+  private BookFairEntity fair;
+  private List<StallAllocationEntity> allocations;
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    fair = fairFixtures.fair();
+    // The database is shared with other tests, so the reader is unique to this fair
+    userId = 1_000_000 + fair.getId();
+    given(userLookupCache.getUser(anyLong())).willReturn(UserServiceRequest.builder()
+        .id(userId)
+        .username("reader")
+        .enabled(true)
+        .build());
+    allocations = fairFixtures.openAllocations(fair, RESERVED + 2);
+    stallReservationService.createReservation(CreateStallReservationRequest.builder()
+        .userId(userId)
+        .stallAllocationId(allocations.stream()
+            .limit(RESERVED)
+            .map(StallAllocationEntity::getId)
+            .toList())
+        .build());
+    token = stallAllocationRepository.findById(allocations.get(0).getId()).orElseThrow()
+        .getReservationToken();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void reservationsByUserRunOneStatement() {
+    assertThat(stallReservationService.getReservationsByUserId(userId).getData())
+        .hasSize(RESERVED);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void stallsByReservationTokenRunOneStatement() {
+    assertThat(stallReservationService.getStallsByReservationToken(token).getData())
+        .hasSize(RESERVED);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void reservationByIdRunsOneStatement() {
+    stallReservationService.getReservationById(allocations.get(0).getId());
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void allocationsByBookFairRunAFixedNumberOfStatements() {
+    assertThat(stallAllocationService.getStallAllocationsByBoofairId(fair.getId()).getData())
+        .hasSize(RESERVED + 2);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+  }
+
+  @Test
+  void allocatedStallsRunAFixedNumberOfStatements() {
+    assertThat(stallAllocationService.getAllocatedStallsByBookFairId(fair.getId()).getData())
+        .hasSize(RESERVED + 2);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,129 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import com.bookfair.outbox.OutboxEvent;
+import com.bookfair.outbox.OutboxEventRepository;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class BookFairLifecycleSchedulerTest extends EmbeddedPostgresTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Autowired
+  private BookFairLifecycleScheduler bookFairLifecycleScheduler;
+
+  @Autowired
+  private BookFairRepository bookFairRepository;
+
+  @MockitoSpyBean
+  private BookFairEventPublisher bookFairEventPublisher;
+
+  @Autowired
+  private BookFairService bookFairService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Test
+  void advancesFairsThatAreDueAndLeavesTheRest() {
+    BookFairEntity starting = fair(BookFairStatus.UPCOMING, TODAY, TODAY.plusDays(2));
+    BookFairEntity notYet = fair(BookFairStatus.UPCOMING, TODAY.plusDays(1), TODAY.plusDays(2));
+    BookFairEntity ended = fair(BookFairStatus.ONGOING, TODAY.minusDays(3), TODAY.minusDays(1));
+    BookFairEntity lastDay = fair(BookFairStatus.ONGOING, TODAY.minusDays(3), TODAY);
+    BookFairEntity cancelled = fair(BookFairStatus.CANCELLED, TODAY.minusDays(3), TODAY);
+
+    bookFairLifecycleScheduler.advance();
+
+    assertThat(status(starting)).isEqualTo(BookFairStatus.ONGOING);
+    assertThat(status(notYet)).isEqualTo(BookFairStatus.UPCOMING);
+    assertThat(status(ended)).isEqualTo(BookFairStatus.COMPLETED);
+    assertThat(status(lastDay)).isEqualTo(BookFairStatus.ONGOING);
+    assertThat(status(cancelled)).isEqualTo(BookFairStatus.CANCELLED);
+    assertThat(events(starting)).extracting(OutboxEvent::getRoutingKey)
+        .containsExactly("bookfair.status.ongoing");
+    assertThat(events(ended)).extracting(OutboxEvent::getRoutingKey)
+        .containsExactly("bookfair.status.completed");
+    assertThat(events(notYet)).isEmpty();
+  }
+
+  @Test
+  void advancesMoreFairsThanOneBatchInOneRun() {
+    List<BookFairEntity> due = IntStream.range(0, 250)
+        .mapToObj(i -> fair(BookFairStatus.UPCOMING, TODAY.minusDays(1), TODAY.plusDays(1)))
+        .toList();
+
+    bookFairLifecycleScheduler.advance();
+
+    assertThat(bookFairRepository.findAllById(due.stream().map(BookFairEntity::getId).toList()))
+        .extracting(BookFairEntity::getStatus)
+        .hasSize(due.size())
+        .containsOnly(BookFairStatus.ONGOING);
+  }
+
+  @Test
+  void leavesAFairCancelledAfterItWasReadAlone() {
+    BookFairEntity first = fair(BookFairStatus.UPCOMING, TODAY.minusDays(1), TODAY.plusDays(2));
+    BookFairEntity cancelled = fair(BookFairStatus.UPCOMING, TODAY, TODAY.plusDays(2));
+    // Cancel the second fair by hand while the run that already read it is still going.
+    TransactionTemplate manual = new TransactionTemplate(transactionManager);
+    manual.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    AtomicBoolean done = new AtomicBoolean();
+    doAnswer(invocation -> {
+      if (!done.getAndSet(true)) {
+        manual.executeWithoutResult(tx ->
+            bookFairService.setBookFairStatus(cancelled.getId(), BookFairStatus.CANCELLED));
+      }
+      return invocation.callRealMethod();
+    }).when(bookFairEventPublisher).statusChanged(any(), eq(BookFairStatus.UPCOMING), eq(true));
+
+    bookFairLifecycleScheduler.advance();
+
+    assertThat(status(first)).isEqualTo(BookFairStatus.ONGOING);
+    assertThat(status(cancelled)).isEqualTo(BookFairStatus.CANCELLED);
+    assertThat(events(cancelled)).extracting(OutboxEvent::getRoutingKey)
+        .containsExactly("bookfair.status.cancelled");
+  }
+
+  private BookFairEntity fair(BookFairStatus status, LocalDate startDate, LocalDate endDate) {
+    return bookFairRepository.save(BookFairEntity.builder()
+        .name("Fair " + UUID.randomUUID())
+        .startDate(startDate)
+        .endDate(endDate)
+        .organizer("Organizer")
+        .location("Colombo")
+        .status(status)
+        .build());
+  }
+
+  private BookFairStatus status(BookFairEntity fair) {
+    return bookFairRepository.findById(fair.getId()).orElseThrow().getStatus();
+  }
+
+  private List<OutboxEvent> events(BookFairEntity fair) {
+    return outboxEventRepository.findAll().stream()
+        .filter(event -> "bookfair".equals(event.getAggregateType())
+            && fair.getId().toString().equals(event.getAggregateId()))
+        .toList();
+  }
+}
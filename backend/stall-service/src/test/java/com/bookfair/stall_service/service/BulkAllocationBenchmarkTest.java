@@ -0,0 +1,118 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.CreateStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.HallStallEntity;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Allocates a 400-stall hall in one bulk request and one stall at a time, and compares the
+ * statements and time each takes. Timings are logged rather than asserted.
+ */
+@Slf4j
+class BulkAllocationBenchmarkTest extends EmbeddedPostgresTest {
+
+  private static final int HALL_STALLS = 400;
+
+  @Autowired
+  private StallAllocationService stallAllocationService;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void bulkAllocationRunsFarFewerStatementsThanOneAtATime() {
+    BookFairEntity bulkFair = fairFixtures.fair();
+    List<HallStallAndStallIdsRequest> items = items(bulkFair);
+    statistics.clear();
+    long bulkNanos = System.nanoTime();
+    stallAllocationService.createMultipleStallAllocation(
+        new CreateMultipleStallAllocationRequest(bulkFair.getId(), items));
+    bulkNanos = System.nanoTime() - bulkNanos;
+    long bulkStatements = statistics.getPrepareStatementCount();
+
+    BookFairEntity singleFair = fairFixtures.fair();
+    List<HallStallAndStallIdsRequest> singleItems = items(singleFair);
+    statistics.clear();
+    long singleNanos = System.nanoTime();
+    for (HallStallAndStallIdsRequest item : singleItems) {
+      stallAllocationService.createStallAllocation(new CreateStallAllocationRequest(
+          singleFair.getId(), item.getHallStallId(), item.getStallId(), item.getPrice()));
+    }
+    singleNanos = System.nanoTime() - singleNanos;
+    long singleStatements = statistics.getPrepareStatementCount();
+
+    log.info("{} allocations: bulk {} statements in {} ms, one at a time {} statements in {} ms",
+        HALL_STALLS, bulkStatements, TimeUnit.NANOSECONDS.toMillis(bulkNanos), singleStatements,
+        TimeUnit.NANOSECONDS.toMillis(singleNanos));
+    assertThat(stallAllocationRepository.findRowsByBookFairId(bulkFair.getId()))
+        .hasSize(HALL_STALLS);
+    assertThat(bulkStatements).isLessThan(HALL_STALLS / 10);
+    assertThat(bulkStatements * 10).isLessThan(singleStatements);
+  }
+
+  @Test
+  void bulkAllocationReportsEveryProblemAndWritesNothing() {
+    BookFairEntity fair = fairFixtures.fair();
+    List<HallStallAndStallIdsRequest> items = items(fair);
+    items.get(1).setStallId(items.get(0).getStallId());
+    items.get(2).setPrice(-1L);
+    items.get(3).setHallStallId(Long.MAX_VALUE);
+
+    assertThatThrownBy(() -> stallAllocationService.createMultipleStallAllocation(
+        new CreateMultipleStallAllocationRequest(fair.getId(), items)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Stall " + items.get(0).getStallId() + " is requested more")
+        .hasMessageContaining("Price must be non-negative")
+        .hasMessageContaining("Hall Stall not found: " + Long.MAX_VALUE);
+    assertThat(stallAllocationRepository.findRowsByBookFairId(fair.getId())).isEmpty();
+  }
+
+  private List<HallStallAndStallIdsRequest> items(BookFairEntity fair) {
+    List<HallStallEntity> hallStalls = fairFixtures.hallStalls(fair, HALL_STALLS);
+    List<StallEntity> stalls = fairFixtures.stalls(HALL_STALLS, Size.MEDIUM);
+    return IntStream.range(0, HALL_STALLS)
+        .mapToObj(i -> new HallStallAndStallIdsRequest(hallStalls.get(i).getId(),
+            stalls.get(i).getId(), 1000L + i))
+        .toList();
+  }
+}
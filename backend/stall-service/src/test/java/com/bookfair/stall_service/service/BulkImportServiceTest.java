@@ -0,0 +1,63 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.bookfair.stall_service.dto.response.ImportReportResponse;
+import com.bookfair.stall_service.dto.response.ImportReportResponse.RowError;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Rejected rows are reported by row number with the reason, and the valid rows of the same file
+ * are still imported.
+ */
+class BulkImportServiceTest extends EmbeddedPostgresTest {
+
+  @Autowired
+  private BulkImportService bulkImportService;
+
+  @Test
+  void csvImportReportsEveryRejectedRow() {
+    String prefix = UUID.randomUUID().toString();
+    String csv = "stallName,size,description\n"
+        + prefix + "-1,SMALL,ok\n"
+        + prefix + "-2,HUGE,bad size\n"
+        + prefix + "-1,LARGE,duplicate\n"
+        + ",MEDIUM,no name\n"
+        + prefix + "-3,MEDIUM\n"
+        + prefix + "-4,LARGE,ok\n";
+
+    ImportReportResponse report = bulkImportService.importStalls(new MockMultipartFile("file",
+        "stalls.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))).getData();
+
+    assertThat(report.getRows()).isEqualTo(6);
+    assertThat(report.getImported()).isEqualTo(2);
+    assertThat(report.getFailed()).isEqualTo(4);
+    assertThat(report.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+        .containsExactlyInAnyOrder(tuple(2L, "Invalid value for size"),
+            tuple(3L,
+                "Stall name appears more than once in the file: " + prefix + "-1"),
+            tuple(4L, "Stall name is required"),
+            tuple(5L, "Expected 3 columns but found 2"));
+  }
+
+  @Test
+  void jsonImportRejectsNamesThatAlreadyExist() {
+    String name = UUID.randomUUID().toString();
+    String json = "[{\"stallName\":\"" + name + "\",\"size\":\"SMALL\"}]";
+    MockMultipartFile file = new MockMultipartFile("file", "stalls.json", "application/json",
+        json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(bulkImportService.importStalls(file).getData().getImported()).isEqualTo(1);
+    ImportReportResponse again = bulkImportService.importStalls(file).getData();
+
+    assertThat(again.getImported()).isZero();
+    assertThat(again.getErrors()).extracting(RowError::getMessage)
+        .containsExactly("Stall name already exists: " + name);
+  }
+}
@@ -0,0 +1,114 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+import com.bookfair.stall_service.dto.request.CheckInReconcileRequest;
+import com.bookfair.stall_service.dto.request.CheckInRequest;
+import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.dto.response.CheckInResponse;
+import com.bookfair.stall_service.dto.response.CheckInResult;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.CheckInStatus;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A batch of gate scans is classified per token and every approved reservation in it is checked
+ * in by one update; scanning or replaying a token again reports it as already checked in.
+ */
+class CheckInServiceTest extends EmbeddedPostgresTest {
+
+  @Autowired
+  private CheckInService checkInService;
+
+  @Autowired
+  private StallReservationService stallReservationService;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  private BookFairEntity fair;
+  private List<StallAllocationEntity> allocations;
+  private String twoStalls;
+  private String oneStall;
+  private String otherFair;
+
+  @BeforeEach
+  void setUp() {
+    given(userLookupCache.getUser(anyLong())).willAnswer(invocation -> UserServiceRequest.builder()
+        .id(invocation.getArgument(0))
+        .username("visitor")
+        .enabled(true)
+        .build());
+    fair = fairFixtures.fair();
+    allocations = fairFixtures.openAllocations(fair, 3);
+    BookFairEntity other = fairFixtures.fair();
+    List<StallAllocationEntity> otherAllocations = fairFixtures.openAllocations(other, 1);
+    long userId = 3_000_000 + fair.getId();
+    twoStalls = reserve(userId, allocations.get(0), allocations.get(1));
+    oneStall = reserve(userId + 1, allocations.get(2));
+    otherFair = reserve(userId, otherAllocations.get(0));
+  }
+
+  @Test
+  void checksInABatchAndClassifiesEveryToken() {
+    String unknown = UUID.randomUUID().toString();
+    String malformed = "k1.only-two-parts";
+
+    CheckInResponse response = checkInService.checkIn(new CheckInRequest(fair.getId(),
+        List.of(twoStalls, oneStall, twoStalls, otherFair, unknown, malformed))).getData();
+
+    assertThat(response.getResults()).extracting(CheckInResult::getStatus).containsExactly(
+        CheckInStatus.CHECKED_IN, CheckInStatus.CHECKED_IN, CheckInStatus.WRONG_BOOK_FAIR,
+        CheckInStatus.NOT_FOUND, CheckInStatus.INVALID);
+    assertThat(response.getCheckedIn()).isEqualTo(2);
+    assertThat(response.getRejected()).isEqualTo(3);
+    assertThat(response.getResults().get(0).getStallAllocationIds())
+        .containsExactlyInAnyOrder(allocations.get(0).getId(), allocations.get(1).getId());
+    assertThat(stallAllocationRepository.findAllById(
+            allocations.stream().map(StallAllocationEntity::getId).toList()))
+        .extracting(StallAllocationEntity::getStallAllocationStatus)
+        .containsOnly(StallAllocationStatus.COMPLETED);
+  }
+
+  @Test
+  void rescansAndReplayedBuffersReportAlreadyCheckedIn() {
+    checkInService.checkIn(new CheckInRequest(fair.getId(), List.of(twoStalls)));
+
+    CheckInResponse rescan = checkInService.checkIn(
+        new CheckInRequest(fair.getId(), List.of(twoStalls))).getData();
+    CheckInResponse replay = checkInService.reconcile(CheckInReconcileRequest.builder()
+        .bookFairId(fair.getId())
+        .deviceId("gate-1")
+        .tokens(List.of(twoStalls, oneStall, oneStall))
+        .build()).getData();
+
+    assertThat(rescan.getAlreadyCheckedIn()).isEqualTo(1);
+    assertThat(replay.getResults()).extracting(CheckInResult::getStatus)
+        .containsExactly(CheckInStatus.ALREADY_CHECKED_IN, CheckInStatus.CHECKED_IN);
+  }
+
+  private String reserve(long userId, StallAllocationEntity... stalls) {
+    List<Long> ids = Arrays.stream(stalls).map(StallAllocationEntity::getId).toList();
+    stallReservationService.createReservation(CreateStallReservationRequest.builder()
+        .userId(userId)
+        .stallAllocationId(ids)
+        .build());
+    return stallAllocationRepository.findById(ids.get(0)).orElseThrow().getReservationToken();
+  }
+}
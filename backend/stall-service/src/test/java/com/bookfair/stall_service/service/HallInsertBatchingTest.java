@@ -0,0 +1,91 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.layout.HallGeometry;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Fills a 50x50 hall in one request, which inserts a hall stall and an allocation per slot. With
+ * pooled sequences and JDBC batching the rows go out in batches, so the statement count stays a
+ * small fraction of the row count.
+ */
+@Slf4j
+class HallInsertBatchingTest extends EmbeddedPostgresTest {
+
+  private static final int SIDE = 50;
+
+  @Autowired
+  private HallService hallService;
+
+  @Autowired
+  private StallAllocationService stallAllocationService;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  @Test
+  void fillingA50By50HallInsertsInBatches() {
+    BookFairEntity fair = fairFixtures.fair();
+    Long hallId = hallService.createHall(CreateHallRequest.builder()
+            .bookFairId(fair.getId())
+            .hallName(Hall.TOP)
+            .row(SIDE)
+            .column(SIDE)
+            .build())
+        .getData().getId();
+    List<StallEntity> stalls = fairFixtures.stalls(SIDE * SIDE, Size.SMALL);
+    List<HallStallAndStallIdsRequest> items = IntStream.range(0, SIDE * SIDE)
+        .mapToObj(i -> new HallStallAndStallIdsRequest(HallGeometry.virtualId(hallId, i),
+            stalls.get(i).getId(), 1000L))
+        .toList();
+
+    statistics.clear();
+    long started = System.nanoTime();
+    stallAllocationService.createMultipleStallAllocation(
+        new CreateMultipleStallAllocationRequest(fair.getId(), items));
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+    long inserts = statistics.getEntityInsertCount();
+    long statements = statistics.getPrepareStatementCount();
+    log.info("{}x{} hall: {} rows inserted with {} statements in {} ms", SIDE, SIDE, inserts,
+        statements, millis);
+    assertThat(inserts).isEqualTo(2L * SIDE * SIDE);
+    assertThat(statements).isLessThan(inserts / 10);
+  }
+}
@@ -0,0 +1,144 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.bookfair.stall_service.dto.request.CreateHallRequest;
+import com.bookfair.stall_service.dto.request.CreateMultipleStallAllocationRequest;
+import com.bookfair.stall_service.dto.request.HallLayoutRequest;
+import com.bookfair.stall_service.dto.request.HallStallAndStallIdsRequest;
+import com.bookfair.stall_service.dto.response.HallLayoutResponse;
+import com.bookfair.stall_service.dto.response.HallLayoutResponse.SlotMove;
+import com.bookfair.stall_service.dto.response.StallAllocationResponse;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.HallStallEntity;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.layout.HallGeometry;
+import com.bookfair.stall_service.repository.HallStallRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Re-laying out a hall keeps every stored hall stall at its physical position: rows are
+ * re-indexed and renamed when the geometry shifts them, and only positions that disappear are
+ * removed, which is refused while they are allocated.
+ */
+class HallRelayoutTest extends EmbeddedPostgresTest {
+
+  @Autowired
+  private HallService hallService;
+
+  @Autowired
+  private StallAllocationService stallAllocationService;
+
+  @Autowired
+  private HallStallRepository hallStallRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  private BookFairEntity fair;
+
+  @BeforeEach
+  void setUp() {
+    fair = fairFixtures.fair();
+  }
+
+  @Test
+  void widerGridReindexesStoredStallsWithoutRenamingThem() {
+    Long hallId = createHall(Hall.TOP, 3, 4, 0, 0);
+    allocate(hallId, 1, 4, 11);
+
+    HallLayoutResponse preview = hallService.relayoutHall(hallId, layout(3, 5, 0, 0, true))
+        .getData();
+
+    assertThat(preview.isApplied()).isFalse();
+    assertThat(preview.getMoved()).extracting(SlotMove::getFromName, SlotMove::getToSlotIndex)
+        .containsExactlyInAnyOrder(
+            tuple("TOP-R2C1", 5), tuple("TOP-R3C4", 13));
+    assertThat(slotsByName(hallId)).containsEntry("TOP-R2C1", 4);
+
+    hallService.relayoutHall(hallId, layout(3, 5, 0, 0, false));
+
+    assertThat(slotsByName(hallId)).containsExactlyInAnyOrderEntriesOf(Map.of(
+        "TOP-R1C2", 1, "TOP-R2C1", 5, "TOP-R3C4", 13));
+  }
+
+  @Test
+  void shrinkingIsRefusedWhileARemovedPositionIsAllocated() {
+    Long hallId = createHall(Hall.TOP, 3, 4, 0, 0);
+    List<StallAllocationResponse> allocations = allocate(hallId, 1, 11);
+
+    assertThatThrownBy(() -> hallService.relayoutHall(hallId, layout(2, 4, 0, 0, false)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("TOP-R3C4");
+
+    stallAllocationService.deleteStallAllocation(allocations.get(1).getId());
+    HallLayoutResponse response = hallService.relayoutHall(hallId, layout(2, 4, 0, 0, false))
+        .getData();
+
+    assertThat(response.getRemoved()).containsExactly("TOP-R3C4");
+    assertThat(response.getMoved()).isEmpty();
+    assertThat(slotsByName(hallId)).containsExactlyEntriesOf(Map.of("TOP-R1C2", 1));
+  }
+
+  @Test
+  void growingTheInnerRingShiftsTheOuterRing() {
+    Long hallId = createHall(Hall.RING, 0, 0, 4, 6);
+    // RING-IR3 and RING-OR2
+    allocate(hallId, 2, 5);
+
+    HallLayoutResponse response = hallService.relayoutHall(hallId, layout(0, 0, 6, 6, false))
+        .getData();
+
+    assertThat(response.getSlotsBefore()).isEqualTo(10);
+    assertThat(response.getSlotsAfter()).isEqualTo(12);
+    assertThat(response.getMoved()).extracting(SlotMove::getFromName)
+        .containsExactly("RING-OR2");
+    assertThat(slotsByName(hallId)).containsExactlyInAnyOrderEntriesOf(Map.of(
+        "RING-IR3", 2, "RING-OR2", 7));
+  }
+
+  private Long createHall(Hall hall, int rows, int columns, int innerRing, int outerRing) {
+    return hallService.createHall(CreateHallRequest.builder()
+            .bookFairId(fair.getId())
+            .hallName(hall)
+            .row(rows)
+            .column(columns)
+            .innerRing(innerRing)
+            .outerRing(outerRing)
+            .build())
+        .getData().getId();
+  }
+
+  private List<StallAllocationResponse> allocate(Long hallId, int... slotIndexes) {
+    List<StallEntity> stalls = fairFixtures.stalls(slotIndexes.length, Size.SMALL);
+    return stallAllocationService.createMultipleStallAllocation(
+        new CreateMultipleStallAllocationRequest(fair.getId(),
+            IntStream.range(0, slotIndexes.length)
+                .mapToObj(i -> new HallStallAndStallIdsRequest(
+                    HallGeometry.virtualId(hallId, slotIndexes[i]), stalls.get(i).getId(), 1000L))
+                .toList()))
+        .getData();
+  }
+
+  private static HallLayoutRequest layout(int rows, int columns, int innerRing, int outerRing,
+      boolean dryRun) {
+    return new HallLayoutRequest(rows, columns, innerRing, outerRing, dryRun);
+  }
+
+  private Map<String, Integer> slotsByName(Long hallId) {
+    return hallStallRepository.findByHallEntityId(hallId).stream()
+        .collect(Collectors.toMap(HallStallEntity::getStallName, HallStallEntity::getSlotIndex));
+  }
+}
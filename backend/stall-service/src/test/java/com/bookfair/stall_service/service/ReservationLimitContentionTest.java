@@ -0,0 +1,165 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Many users each fire a burst of single-stall holds at once. However the requests interleave,
+ * no user may end up with more than the per-fair limit. Likewise, when many users reserve the
+ * same few stalls at once, every stall goes to exactly one of them.
+ */
+@Slf4j
+class ReservationLimitContentionTest extends EmbeddedPostgresTest {
+
+  private static final int USERS = 50;
+  private static final int REQUESTS_PER_USER = 12;
+  private static final int LIMIT = 3;
+  private static final int SHARED_ALLOCATIONS = 20;
+  private static final int RESERVATIONS = 600;
+
+  @Autowired
+  private StallReservationService stallReservationService;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  @Test
+  void concurrentHoldsNeverExceedThePerFairLimit() throws Exception {
+    BookFairEntity fair = fairFixtures.fair();
+    List<StallAllocationEntity> allocations =
+        fairFixtures.openAllocations(fair, USERS * REQUESTS_PER_USER);
+    given(userLookupCache.getUser(anyLong())).willAnswer(invocation -> UserServiceRequest.builder()
+        .id(invocation.getArgument(0))
+        .username("user")
+        .enabled(true)
+        .build());
+
+    ExecutorService executor = Executors.newFixedThreadPool(64);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < allocations.size(); i++) {
+      long userId = 1_000 + i % USERS;
+      Long allocationId = allocations.get(i).getId();
+      results.add(executor.submit(() -> {
+        start.await();
+        return hold(userId, allocationId);
+      }));
+    }
+    long startedAt = System.nanoTime();
+    start.countDown();
+    int held = 0;
+    for (Future<Boolean> result : results) {
+      held += result.get(60, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    executor.shutdown();
+    log.info("{} concurrent holds took {} ms", results.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+    assertThat(held).isEqualTo(USERS * LIMIT);
+    for (long userId = 1_000; userId < 1_000 + USERS; userId++) {
+      assertThat(stallAllocationRepository.countByUserAndBookFair(userId, fair.getId(),
+          List.of(StallAllocationStatus.HELD))).isEqualTo(LIMIT);
+    }
+  }
+
+  @Test
+  void concurrentReservationsOfSharedStallsHaveOneWinnerEach() throws Exception {
+    BookFairEntity fair = fairFixtures.fair();
+    List<StallAllocationEntity> allocations =
+        fairFixtures.openAllocations(fair, SHARED_ALLOCATIONS);
+    given(userLookupCache.getUser(anyLong())).willAnswer(invocation -> UserServiceRequest.builder()
+        .id(invocation.getArgument(0))
+        .username("user")
+        .enabled(true)
+        .build());
+
+    ExecutorService executor = Executors.newFixedThreadPool(64);
+    CountDownLatch start = new CountDownLatch(1);
+    Map<Long, Long> requestedByUser = new HashMap<>();
+    List<Future<Long>> results = new ArrayList<>();
+    for (int i = 0; i < RESERVATIONS; i++) {
+      long userId = 5_000_000 + fair.getId() * 1_000 + i;
+      Long allocationId = allocations.get(i % SHARED_ALLOCATIONS).getId();
+      requestedByUser.put(userId, allocationId);
+      results.add(executor.submit(() -> {
+        start.await();
+        return reserve(userId, allocationId) ? userId : null;
+      }));
+    }
+    long startedAt = System.nanoTime();
+    start.countDown();
+    List<Long> winners = new ArrayList<>();
+    for (Future<Long> result : results) {
+      Long winner = result.get(60, TimeUnit.SECONDS);
+      if (winner != null) {
+        winners.add(winner);
+      }
+    }
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    executor.shutdown();
+    log.info("{} concurrent reservations of {} shared stalls took {} ms ({} requests/s)",
+        RESERVATIONS, SHARED_ALLOCATIONS, millis, RESERVATIONS * 1_000L / Math.max(millis, 1));
+
+    assertThat(winners).hasSize(SHARED_ALLOCATIONS);
+    List<StallAllocationEntity> reserved = stallAllocationRepository.findAllById(
+        allocations.stream().map(StallAllocationEntity::getId).toList());
+    assertThat(reserved).allSatisfy(allocation -> {
+      assertThat(allocation.getStallAllocationStatus()).isEqualTo(StallAllocationStatus.APPROVED);
+      assertThat(winners).contains(allocation.getBookingUserId());
+      assertThat(requestedByUser.get(allocation.getBookingUserId())).isEqualTo(allocation.getId());
+    });
+    assertThat(reserved).extracting(StallAllocationEntity::getBookingUserId)
+        .doesNotHaveDuplicates();
+  }
+
+  private boolean reserve(long userId, Long allocationId) {
+    try {
+      stallReservationService.createReservation(CreateStallReservationRequest.builder()
+          .userId(userId)
+          .stallAllocationId(List.of(allocationId))
+          .build());
+      return true;
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageMatching(".*(not available|reserved by another user).*");
+      return false;
+    }
+  }
+
+  private boolean hold(long userId, Long allocationId) {
+    try {
+      stallReservationService.holdStalls(CreateStallReservationRequest.builder()
+          .userId(userId)
+          .stallAllocationId(List.of(allocationId))
+          .build());
+      return true;
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessageContaining("Cannot reserve more than");
+      return false;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.bookfair.stall_service.service;
+
+import com.bookfair.stall_service.configuration.ReservationTokenProperties;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+class ReservationTokenSignerTest {
+
+  private static final String KEY_1 = "first-reservation-token-key-0123456789";
+  private static final String KEY_2 = "second-reservation-token-key-0123456789";
+
+  private final ReservationTokenSigner signer = signer("k1", Map.of("k1", KEY_1));
+
+  @Test
+  void verifiesTheClaimsOfASignedToken() {
+    String token = signer.sign(7L, 42L, List.of(100L, 101L, 102L));
+
+    ReservationTokenSigner.Claims claims = signer.verify(token).orElseThrow();
+
+    assertThat(claims.keyId()).isEqualTo("k1");
+    assertThat(claims.bookFairId()).isEqualTo(7L);
+    assertThat(claims.userId()).isEqualTo(42L);
+    assertThat(claims.allocationIds()).containsExactly(100L, 101L, 102L);
+    assertThat(claims.issuedAt()).isNotNull();
+  }
+
+  @Test
+  void returnsNoClaimsForLegacyUuidTokens() {
+    assertThat(signer.verify(UUID.randomUUID().toString())).isEmpty();
+    assertThat(signer.verify(null)).isEmpty();
+  }
+
+  @Test
+  void rejectsATamperedPayload() {
+    String[] parts = signer.sign(7L, 42L, List.of(100L)).split("\\.");
+    String forged = signer.sign(7L, 43L, List.of(100L)).split("\\.")[1];
+
+    assertThatThrownBy(() -> signer.verify(parts[0] + "." + forged + "." + parts[2]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid reservation token");
+  }
+
+  @Test
+  void rejectsATamperedSignature() {
+    String token = signer.sign(7L, 42L, List.of(100L));
+    int signature = token.lastIndexOf('.') + 1;
+    char first = token.charAt(signature);
+    String tampered = token.substring(0, signature) + (first == 'A' ? 'B' : 'A')
+        + token.substring(signature + 1);
+
+    assertThatThrownBy(() -> signer.verify(tampered))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsMalformedAndUnknownKeyTokens() {
+    String token = signer.sign(7L, 42L, List.of(100L));
+
+    assertThatThrownBy(() -> signer.verify("k1.only-two-parts"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> signer.verify("k9" + token.substring(2)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> signer.verify("k1.!!!.???"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void acceptsTokensOfRetiredKeysUntilTheyAreRemoved() {
+    String oldToken = signer.sign(7L, 42L, List.of(100L));
+    ReservationTokenSigner rotated = signer("k2", Map.of("k1", KEY_1, "k2", KEY_2));
+
+    assertThat(rotated.verify(oldToken)).isPresent();
+    assertThat(rotated.sign(7L, 42L, List.of(100L))).startsWith("k2.");
+    assertThatThrownBy(() -> signer("k2", Map.of("k2", KEY_2)).verify(oldToken))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsShortKeysAndAMissingActiveKey() {
+    assertThatThrownBy(() -> signer("k1", Map.of("k1", "too-short")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> signer("k2", Map.of("k1", KEY_1)))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> signer("k1", Map.of()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void acceptsDevelopmentKeysOnlyWithADevProfile() {
+    Map<String, String> keys = Map.of("k1", "dev-only-reservation-token-key-do-not-use");
+    MockEnvironment dev = new MockEnvironment();
+    dev.setActiveProfiles("dev");
+
+    assertThatThrownBy(() -> signer("k1", keys))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("development key");
+    assertThat(new ReservationTokenSigner(new ReservationTokenProperties("k1", keys), dev)
+        .sign(7L, 42L, List.of(100L))).startsWith("k1.");
+  }
+
+  private static ReservationTokenSigner signer(String activeKeyId, Map<String, String> keys) {
+    return new ReservationTokenSigner(new ReservationTokenProperties(activeKeyId, keys),
+        new MockEnvironment());
+  }
+}
@@ -0,0 +1,130 @@
+package com.bookfair.stall_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+import com.bookfair.stall_service.dto.request.CreateStallReservationRequest;
+import com.bookfair.stall_service.dto.request.UserServiceRequest;
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.support.EmbeddedPostgresTest;
+import com.bookfair.stall_service.support.FairFixtures;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Holds are released once they are due, unless they were confirmed or extended in the meantime.
+ * The test profile holds stalls for an hour, so expiry is simulated by moving the stored expiry
+ * into the past and queueing the hold as due now.
+ */
+class StallHoldExpirySchedulerTest extends EmbeddedPostgresTest {
+
+  @Autowired
+  private StallHoldExpiryScheduler stallHoldExpiryScheduler;
+
+  @Autowired
+  private StallReservationService stallReservationService;
+
+  @Autowired
+  private StallAllocationRepository stallAllocationRepository;
+
+  @Autowired
+  private FairFixtures fairFixtures;
+
+  private Long userId;
+  private List<Long> allocationIds;
+
+  @BeforeEach
+  void setUp() {
+    BookFairEntity fair = fairFixtures.fair();
+    userId = 2_000_000 + fair.getId();
+    given(userLookupCache.getUser(anyLong())).willReturn(UserServiceRequest.builder()
+        .id(userId)
+        .username("holder")
+        .enabled(true)
+        .build());
+    allocationIds = fairFixtures.openAllocations(fair, 3).stream()
+        .map(StallAllocationEntity::getId)
+        .toList();
+    stallReservationService.holdStalls(request(allocationIds));
+  }
+
+  @Test
+  void releasesDueHoldsAndLeavesConfirmedAndExtendedOnes() throws InterruptedException {
+    Long expired = allocationIds.get(0);
+    Long confirmed = allocationIds.get(1);
+    Long extended = allocationIds.get(2);
+    stallReservationService.confirmHold(request(List.of(confirmed)));
+    expire(expired);
+
+    stallHoldExpiryScheduler.schedule(allocationIds, Instant.now());
+
+    StallAllocationEntity released = awaitStatus(expired, StallAllocationStatus.PENDING);
+    assertThat(released.getBookingUserId()).isNull();
+    assertThat(released.getHoldExpiresAt()).isNull();
+    assertThat(status(confirmed)).isEqualTo(StallAllocationStatus.APPROVED);
+    assertThat(status(extended)).isEqualTo(StallAllocationStatus.HELD);
+  }
+
+  @Test
+  void sweepReleasesExpiredHoldsThatNoQueueKnowsAbout() {
+    // As if the replica that queued these holds had gone away before they were due
+    expire(allocationIds.get(0));
+    expire(allocationIds.get(1));
+
+    stallHoldExpiryScheduler.sweep();
+
+    assertThat(status(allocationIds.get(0))).isEqualTo(StallAllocationStatus.PENDING);
+    assertThat(status(allocationIds.get(1))).isEqualTo(StallAllocationStatus.PENDING);
+    assertThat(status(allocationIds.get(2))).isEqualTo(StallAllocationStatus.HELD);
+  }
+
+  @Test
+  void expiredHoldsCannotBeConfirmed() {
+    expire(allocationIds.get(0));
+
+    assertThatThrownBy(() -> stallReservationService.confirmHold(
+        request(List.of(allocationIds.get(0)))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Stall hold has expired or is not held by this user");
+  }
+
+  private void expire(Long allocationId) {
+    StallAllocationEntity allocation = stallAllocationRepository.findById(allocationId)
+        .orElseThrow();
+    allocation.setHoldExpiresAt(Instant.now().minusSeconds(1));
+    stallAllocationRepository.save(allocation);
+  }
+
+  private StallAllocationEntity awaitStatus(Long allocationId, StallAllocationStatus expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    StallAllocationEntity allocation = stallAllocationRepository.findById(allocationId)
+        .orElseThrow();
+    while (allocation.getStallAllocationStatus() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+      allocation = stallAllocationRepository.findById(allocationId).orElseThrow();
+    }
+    assertThat(allocation.getStallAllocationStatus()).isEqualTo(expected);
+    return allocation;
+  }
+
+  private StallAllocationStatus status(Long allocationId) {
+    return stallAllocationRepository.findById(allocationId).orElseThrow()
+        .getStallAllocationStatus();
+  }
+
+  private CreateStallReservationRequest request(List<Long> ids) {
+    return CreateStallReservationRequest.builder()
+        .userId(userId)
+        .stallAllocationId(ids)
+        .build();
+  }
+}
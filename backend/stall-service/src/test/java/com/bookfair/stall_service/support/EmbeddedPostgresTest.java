@@ -0,0 +1,21 @@
+package com.bookfair.stall_service.support;
+
+import com.bookfair.stall_service.client.UserLookupCache;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Base for tests that need the full application on a real PostgreSQL. All subclasses share one
+ * context and one embedded database, so each test creates its own fair and leaves it behind.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = DatabaseProvider.ZONKY)
+public abstract class EmbeddedPostgresTest {
+
+  @MockitoBean
+  protected UserLookupCache userLookupCache;
+}
@@ -0,0 +1,110 @@
+package com.bookfair.stall_service.support;
+
+import com.bookfair.stall_service.entity.BookFairEntity;
+import com.bookfair.stall_service.entity.HallEntity;
+import com.bookfair.stall_service.entity.HallStallEntity;
+import com.bookfair.stall_service.entity.StallAllocationEntity;
+import com.bookfair.stall_service.entity.StallEntity;
+import com.bookfair.stall_service.enums.BookFairStatus;
+import com.bookfair.stall_service.enums.Hall;
+import com.bookfair.stall_service.enums.Size;
+import com.bookfair.stall_service.enums.StallAllocationStatus;
+import com.bookfair.stall_service.enums.Status;
+import com.bookfair.stall_service.repository.BookFairRepository;
+import com.bookfair.stall_service.repository.HallRepository;
+import com.bookfair.stall_service.repository.HallStallRepository;
+import com.bookfair.stall_service.repository.StallAllocationRepository;
+import com.bookfair.stall_service.repository.StallRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates fairs, halls and stalls straight through the repositories. Names are unique per call,
+ * so tests sharing the embedded database do not see each other's data.
+ */
+@Component
+@RequiredArgsConstructor
+public class FairFixtures {
+
+  private final BookFairRepository bookFairRepository;
+  private final HallRepository hallRepository;
+  private final HallStallRepository hallStallRepository;
+  private final StallRepository stallRepository;
+  private final StallAllocationRepository stallAllocationRepository;
+  private final PlatformTransactionManager transactionManager;
+
+  public BookFairEntity fair() {
+    return bookFairRepository.save(BookFairEntity.builder()
+        .name("Fair " + UUID.randomUUID())
+        .startDate(LocalDate.now().plusDays(30))
+        .endDate(LocalDate.now().plusDays(35))
+        .organizer("Organizer")
+        .location("Colombo")
+        .status(BookFairStatus.UPCOMING)
+        .build());
+  }
+
+  public HallEntity hall(BookFairEntity fair, int rows, int columns) {
+    return hallRepository.save(HallEntity.builder()
+        .bookFair(fair)
+        .hallName(Hall.TOP)
+        .rows(rows)
+        .columns(columns)
+        .hallSize(rows * columns)
+        .build());
+  }
+
+  public List<StallEntity> stalls(int count, Size size) {
+    String prefix = UUID.randomUUID().toString();
+    return stallRepository.saveAll(IntStream.range(0, count)
+        .mapToObj(i -> StallEntity.builder()
+            .stallName(prefix + "-" + i)
+            .size(size)
+            .status(Status.AVAILABLE)
+            .build())
+        .toList());
+  }
+
+  /**
+   * One hall of {@code count} hall stalls in the fair, none of them allocated yet.
+   */
+  public List<HallStallEntity> hallStalls(BookFairEntity fair, int count) {
+    return new TransactionTemplate(transactionManager).execute(status -> {
+      HallEntity hall = hall(fair, 1, count);
+      return hallStallRepository.saveAll(IntStream.range(0, count)
+          .mapToObj(i -> HallStallEntity.builder()
+              .bookFair(fair)
+              .hallEntity(hall)
+              .stallName("T" + i)
+              .slotIndex(i)
+              .build())
+          .toList());
+    });
+  }
+
+  /**
+   * A fair with one hall of {@code count} stalls, each allocated and open for reservation.
+   */
+  public List<StallAllocationEntity> openAllocations(BookFairEntity fair, int count) {
+    List<HallStallEntity> hallStalls = hallStalls(fair, count);
+    List<StallEntity> stalls = stalls(count, Size.SMALL);
+    List<StallAllocationEntity> allocations = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      allocations.add(StallAllocationEntity.builder()
+          .bookFair(fair)
+          .hallStall(hallStalls.get(i))
+          .stall(stalls.get(i))
+          .stallPrice(1000L)
+          .stallAllocationStatus(StallAllocationStatus.PENDING)
+          .build());
+    }
+    return stallAllocationRepository.saveAll(allocations);
+  }
+}
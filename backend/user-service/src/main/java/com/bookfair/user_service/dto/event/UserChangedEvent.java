@@ -0,0 +1,17 @@
+package com.bookfair.user_service.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangedEvent {
+
+  private Long userId;
+  private String change;
+  private Boolean enabled;
+}
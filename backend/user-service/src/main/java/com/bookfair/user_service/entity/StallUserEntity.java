@@ -9,6 +9,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +24,9 @@ import lombok.NoArgsConstructor;
 public class StallUserEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stall_user_entity_seq")
+  @SequenceGenerator(name = "stall_user_entity_seq", sequenceName = "stall_user_entity_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true)
@@ -1,6 +1,8 @@
 
 package com.bookfair.user_service.service.impl;
 
+import com.bookfair.outbox.OutboxPublisher;
+import com.bookfair.user_service.configuration.RabbitMQConfig;
 import com.bookfair.user_service.dto.request.ChangePasswordRequest;
 import com.bookfair.user_service.dto.request.CreateStallUserRequest;
 import com.bookfair.user_service.dto.request.EmailRequest;
@@ -19,7 +21,6 @@ import java.time.LocalDate;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -36,7 +37,8 @@ public class AuthServiceImpl implements AuthService {
   private final AuthenticationManager authManager;
   private final JwtService jwt;
 
-  private final RabbitTemplate rabbitTemplate;
+  private final OutboxPublisher outboxPublisher;
+  private final UserEventPublisher userEventPublisher;
 
   // ========= AUTH =========
 
@@ -134,6 +136,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     user = repo.save(user);
+    userEventPublisher.userUpdated(user);
     return toResponse(user);
   }
 
@@ -206,17 +209,9 @@ public class AuthServiceImpl implements AuthService {
         .body("Your account has been created successfully. Welcome to BookFair!")
         .build();
 
-    try {
-      rabbitTemplate.convertAndSend(
-          "user.exchange",
-          "user.created",
-          emailRequest
-      );
-      log.info("User creation event published for: {}", user.getUsername());
-    } catch (Exception e) {
-      log.error("Failed to publish user creation event for {}: {}",
-          user.getUsername(), e.getMessage());
-      // Don't throw exception - email failure shouldn't break user creation
-    }
+    // Written in the caller's transaction, so the email is sent only if the user is created
+    outboxPublisher.publish("user", user.getId(), RabbitMQConfig.USER_EXCHANGE, "user.created",
+        emailRequest);
+    log.info("User creation event queued for: {}", user.getUsername());
   }
 }
@@ -25,6 +25,7 @@ public class UserAdminServiceImpl implements UserAdminService {
   private final StallUserRepository repo;
   private final PasswordEncoder encoder;
   private final AuthServiceImpl authService;
+  private final UserEventPublisher userEventPublisher;
 
   // ---------- CREATE ----------
   @Override
@@ -121,7 +122,9 @@ public class UserAdminServiceImpl implements UserAdminService {
       u.setPassword(encoder.encode(req.getNew_password()));
     }
 
-    return toResponse(repo.save(u));
+    u = repo.save(u);
+    userEventPublisher.userUpdated(u);
+    return toResponse(u);
   }
 
   // ---------- ENABLE/DISABLE ----------
@@ -131,6 +134,7 @@ public class UserAdminServiceImpl implements UserAdminService {
     StallUserEntity u = findOr404(id);
     u.setEnabled(enabled);
     repo.save(u);
+    userEventPublisher.enabledChanged(u);
   }
 
   // ---------- DELETE ----------
@@ -139,6 +143,7 @@ public class UserAdminServiceImpl implements UserAdminService {
   public void delete(Long id) {
     StallUserEntity u = findOr404(id);
     repo.delete(u);
+    userEventPublisher.userDeleted(u);
   }
 
   @Override
@@ -0,0 +1,47 @@
+package com.bookfair.user_service.service.impl;
+
+import com.bookfair.outbox.OutboxPublisher;
+import com.bookfair.user_service.configuration.RabbitMQConfig;
+import com.bookfair.user_service.dto.event.UserChangedEvent;
+import com.bookfair.user_service.entity.StallUserEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes user changes on {@code user.exchange} so services caching user data can drop their
+ * copy. Events go through the outbox and are relayed only once the change has committed, so a
+ * consumer that reloads the user sees the new state.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+  public static final String USER_UPDATED = "user.updated";
+  public static final String USER_ENABLED = "user.enabled";
+  public static final String USER_DISABLED = "user.disabled";
+  public static final String USER_DELETED = "user.deleted";
+
+  private final OutboxPublisher outboxPublisher;
+
+  public void userUpdated(StallUserEntity user) {
+    publish(USER_UPDATED, user);
+  }
+
+  public void enabledChanged(StallUserEntity user) {
+    publish(Boolean.TRUE.equals(user.getEnabled()) ? USER_ENABLED : USER_DISABLED, user);
+  }
+
+  public void userDeleted(StallUserEntity user) {
+    publish(USER_DELETED, user);
+  }
+
+  private void publish(String routingKey, StallUserEntity user) {
+    UserChangedEvent event = UserChangedEvent.builder()
+        .userId(user.getId())
+        .change(routingKey)
+        .enabled(user.getEnabled())
+        .build();
+    outboxPublisher.publish("user", user.getId(), RabbitMQConfig.USER_EXCHANGE, routingKey,
+        event);
+  }
+}
@@ -33,6 +33,22 @@ export interface ApiEnvelope<T> {
   statusCode: string | number;
   message: string;
   data: T;
+  // Present on keyset-paged lists while more rows follow
+  nextCursor?: number;
+}
+
+// Walks a keyset-paged list endpoint and returns every row.
+export async function fetchAllPages<T>(url: string, params: Record<string, unknown> = {}) {
+  const rows: T[] = [];
+  let cursor: number | undefined;
+  do {
+    const { data } = await api.get<ApiEnvelope<T[]>>(url, {
+      params: { ...params, cursor, limit: 500 },
+    });
+    rows.push(...(data?.data || []));
+    cursor = data?.nextCursor ?? undefined;
+  } while (cursor !== undefined);
+  return rows;
 }
 
 export interface SignupResponseData {
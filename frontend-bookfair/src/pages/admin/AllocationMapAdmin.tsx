@@ -1,7 +1,7 @@
 import React, { useEffect, useMemo, useState } from "react";
 import { useLocation, useNavigate } from "react-router-dom";
 import toast from "react-hot-toast";
-import { api } from "../../lib/api";
+import { api, fetchAllPages } from "../../lib/api";
 
 type HallSizeConfig = {
   topRows: number;
@@ -113,11 +113,11 @@ const AllocationMapAdmin: React.FC = () => {
       try {
         const [allocRes, allocRecords] = await Promise.all([
           api.get(`http://localhost:8087/api/stall-allocations/allocated/${bookFairId}`),
-          api.get<{ data: AllocationRecord[] }>(`http://localhost:8087/api/stall-reservation/bookfair/${bookFairId}`),
+          fetchAllPages<AllocationRecord>(`http://localhost:8087/api/stall-reservation/bookfair/${bookFairId}`),
         ]);
         const alloc = allocRes.data?.data || [];
         setAllocatedStallIds(alloc.map((s: any) => s.id));
-        const hallAlloc = (allocRecords.data?.data || []) as AllocationRecord[];
+        const hallAlloc = allocRecords;
         setAllocatedHallStallIds(hallAlloc.map((a) => a.hallStallID || a.hallStallId));
       } catch (err: any) {
         const msg =
@@ -201,10 +201,10 @@ const AllocationMapAdmin: React.FC = () => {
     setSelectedStalls([]);
     try {
       const [availRes, allocRes] = await Promise.all([
-        api.get(`http://localhost:8087/api/stall-allocations/availableStalls/${bookFairId}`),
+        fetchAllPages<AvailableStall>(`http://localhost:8087/api/stall-allocations/availableStalls/${bookFairId}`),
         api.get(`http://localhost:8087/api/stall-allocations/allocated/${bookFairId}`),
       ]);
-      setAvailable(availRes.data?.data || []);
+      setAvailable(availRes);
       const alloc = (allocRes.data?.data || []) as AllocatedHallStall[];
       setAllocatedStallIds(alloc.map((s) => s.id));
       setError(null);
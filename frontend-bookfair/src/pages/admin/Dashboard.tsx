@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import { api } from "../../lib/api";
+import { api, fetchAllPages } from "../../lib/api";
 
 interface BookFairResponse {
   data?: any[];
@@ -16,12 +16,12 @@ const AdminDashboard: React.FC = () => {
     Promise.all([
       api.get<BookFairResponse>("http://localhost:8087/api/bookfairs/getUpcoming"),
       api.get<BookFairResponse>("http://localhost:8087/api/bookfairs/getOngoing"),
-      api.get<BookFairResponse>("http://localhost:8087/api/bookfairs/getAll"),
+      fetchAllPages("http://localhost:8087/api/bookfairs/getAll"),
     ])
-      .then(([upcomingRes, ongoingRes, totalRes]) => {
+      .then(([upcomingRes, ongoingRes, allFairs]) => {
         setUpcomingCount(upcomingRes.data?.data?.length ?? 0);
         setOngoingCount(ongoingRes.data?.data?.length ?? 0);
-        setTotalCount(totalRes.data?.data?.length ?? 0);
+        setTotalCount(allFairs.length);
       })
       .catch((err) => {
         const msg = err?.response?.data?.data || err?.response?.data?.message || err?.message || "Failed to load dashboard";
@@ -1,7 +1,7 @@
 ﻿import React, { useEffect, useMemo, useState } from "react";
 import toast from "react-hot-toast";
 import { useNavigate } from "react-router-dom";
-import { api } from "../../lib/api";
+import { api, fetchAllPages } from "../../lib/api";
 
 interface BookFair {
   id: number;
@@ -77,9 +77,8 @@ const ReservationManage: React.FC = () => {
   const fetchBookFairs = () => {
     setLoading(true);
     setError(null);
-    api
-      .get("http://localhost:8087/api/bookfairs/getAll")
-      .then((res) => setBookFairs(res.data?.data || []))
+    fetchAllPages<BookFair>("http://localhost:8087/api/bookfairs/getAll")
+      .then((rows) => setBookFairs(rows))
       .catch((err) => setError(err?.response?.data?.message || "Failed to load book fairs"))
       .finally(() => setLoading(false));
   };
@@ -1,6 +1,6 @@
 ﻿import React, { useEffect, useMemo, useState } from "react";
 import toast from "react-hot-toast";
-import { api } from "../../lib/api";
+import { api, fetchAllPages } from "../../lib/api";
 
 type Stall = {
   id: number;
@@ -37,9 +37,8 @@ const AdminStallManagement: React.FC = () => {
   const fetchStalls = () => {
     setLoading(true);
     setError(null);
-    api
-      .get("http://localhost:8087/api/stalls/getAll")
-      .then((res) => setStalls(res.data?.data || []))
+    fetchAllPages<Stall>("http://localhost:8087/api/stalls/getAll")
+      .then((rows) => setStalls(rows))
       .catch((err) => setError(err?.response?.data?.message || "Failed to load stalls"))
       .finally(() => setLoading(false));
   };
@@ -2,7 +2,7 @@ import React, { useEffect, useMemo, useRef, useState } from "react";
 import { useLocation } from "react-router-dom";
 import toast from "react-hot-toast";
 import { useAppSelector } from "../../../store/hooks";
-import { api } from "../../../lib/api";
+import { api, fetchAllPages } from "../../../lib/api";
 import "./BookingInterface.css";
 
 type StallSize = "SMALL" | "MEDIUM" | "LARGE";
@@ -265,13 +265,13 @@ export default function BookingInterface() {
     Promise.all([
       api.get<Hall[]>(`http://localhost:8087/api/halls/bookfair/${bookFairId}`),
       api.get<HallStall[]>(`http://localhost:8087/api/hall-stalls/hallStalls/${bookFairId}`),
-      api.get<AllocationEnvelope>(`http://localhost:8087/api/stall-reservation/bookfair/${bookFairId}`),
+      fetchAllPages<Allocation>(`http://localhost:8087/api/stall-reservation/bookfair/${bookFairId}`),
       api.get<AllocationEnvelope>(`http://localhost:8087/api/stall-allocations/bookfair/status/${bookFairId}?status=APPROVED`),
     ])
       .then(([hallsRes, hallStallsRes, allocRes, approvedRes]) => {
         setHallData(hallsRes.data || []);
         setHallStalls(hallStallsRes.data || []);
-        setAllocations(allocRes.data?.data || []);
+        setAllocations(allocRes);
         setApprovedAllocations(approvedRes.data?.data || []);
       })
       .catch((err) => {